@@ -0,0 +1,126 @@
+package com.epam.esm.benchmark;
+
+import com.epam.esm.dao.jdbc.GiftCertificateDaoJdbc;
+import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.model.Order;
+import com.epam.esm.model.Tag;
+import com.epam.esm.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Reads of <i>GiftCertificateDaoJdbc</i> against an in-memory H2 database: the query of certificate-tag rows
+ * and building certificates from them in <i>CertificateRowCallbackHandler</i>. The schema is created by
+ * Hibernate from the entities, the same way the JDBC DAOs see it in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GiftCertificateDaoJdbcBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1";
+    private static final int TAGS = 50;
+    private static final String SQL_INSERT_TAG = "INSERT INTO tag (tag_id, name) VALUES (?, ?)";
+    private static final String SQL_INSERT_CERTIFICATE = "INSERT INTO gift_certificate (certificate_id, name, description, " +
+            "price, create_date, last_update_date, duration) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_INSERT_TAG_TO_CERTIFICATE = "INSERT INTO tag_has_gift_certificate " +
+            "(tag_id, gift_certificate_id) VALUES (?, ?)";
+
+    @Param({"10000"})
+    private int certificates;
+
+    @Param({"3"})
+    private int tagsPerCertificate;
+
+    @Param({"20"})
+    private long pageSize;
+
+    private SessionFactory sessionFactory;
+    private SingleConnectionDataSource dataSource;
+    private GiftCertificateDaoJdbc giftCertificateDao;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .setProperty(AvailableSettings.URL, URL)
+                .setProperty(AvailableSettings.USER, "sa")
+                .setProperty(AvailableSettings.DIALECT, "org.hibernate.dialect.H2Dialect")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create")
+                .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+                .addAnnotatedClass(GiftCertificate.class)
+                .addAnnotatedClass(Tag.class)
+                .addAnnotatedClass(Order.class)
+                .addAnnotatedClass(User.class)
+                .buildSessionFactory();
+        dataSource = new SingleConnectionDataSource(URL, "sa", "", true);
+        fillDatabase(new JdbcTemplate(dataSource));
+        giftCertificateDao = new GiftCertificateDaoJdbc(dataSource, sessionFactory);
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.destroy();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Optional<GiftCertificate> find() {
+        return giftCertificateDao.find(certificates / 2L);
+    }
+
+    @Benchmark
+    public List<GiftCertificate> findFirstPage() {
+        return giftCertificateDao.findAll(1L, pageSize);
+    }
+
+    @Benchmark
+    public List<GiftCertificate> findLastPage() {
+        return giftCertificateDao.findAll(certificates / pageSize, pageSize);
+    }
+
+    @Benchmark
+    public List<GiftCertificate> findPageAfter() {
+        return giftCertificateDao.findAllAfter(certificates - pageSize, pageSize);
+    }
+
+    private void fillDatabase(JdbcTemplate jdbcTemplate) {
+        List<Object[]> tags = new ArrayList<>();
+        for (long id = 1; id <= TAGS; id++) {
+            tags.add(new Object[]{id, "tag " + id});
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERT_TAG, tags);
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> assignments = new ArrayList<>();
+        for (long id = 1; id <= certificates; id++) {
+            rows.add(new Object[]{id, "certificate " + id, "description of certificate " + id, id % 100 + 1,
+                    now, now, 30});
+            for (long i = 0; i < tagsPerCertificate; i++) {
+                assignments.add(new Object[]{(id + i) % TAGS + 1, id});
+            }
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERT_CERTIFICATE, rows);
+        jdbcTemplate.batchUpdate(SQL_INSERT_TAG_TO_CERTIFICATE, assignments);
+    }
+}
@@ -11,4 +11,5 @@ public interface CrudDAO<T> {
     void delete(Long id);
 
     List<T> findAll(Long page, Long pageSize);
+    List<T> findAllAfter(Long lastId, Long pageSize);
 }
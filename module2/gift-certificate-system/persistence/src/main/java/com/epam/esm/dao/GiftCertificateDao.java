@@ -9,6 +9,8 @@ import java.util.Optional;
 public interface GiftCertificateDao extends CrudDAO<GiftCertificate> {
 
     List<GiftCertificate> getCertificates(CertificateSearchQuery query, Long page, Long pageSize);
+    List<GiftCertificate> getCertificatesAfter(CertificateSearchQuery query, Object lastSortKey, Long lastId, Long pageSize);
     List<GiftCertificate> findCertificatesByTags(List<String> tagNames, Long page, Long pageSize);
     Optional<GiftCertificate> getCertificateByName(String name);
+    List<Object[]> findTagAssignments();
 }
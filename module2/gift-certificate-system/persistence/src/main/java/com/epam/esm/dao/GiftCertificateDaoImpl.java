@@ -13,9 +13,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
@@ -28,9 +25,9 @@ public class GiftCertificateDaoImpl implements GiftCertificateDao {
 
     private static final String FIND_CERTIFICATES_BY_TAGS_NAMES = "SELECT c FROM GiftCertificate c LEFT JOIN c.tags t WHERE t.name IN :tagNames"
             + " GROUP BY c HAVING COUNT(t.name) = :tagNamesSize";
-    private static final String FIND_CERTIFICATE_BY_ID = "FROM GiftCertificate c WHERE c.id = :id";
     private static final String DELETE_CERTIFICATE_BY_ID = "DELETE GiftCertificate c WHERE c.id = :id";
     private static final String FIND_CERTIFICATE_BY_NAME = "FROM GiftCertificate c WHERE c.name = :name";
+    private static final String FIND_TAG_ASSIGNMENTS = "SELECT t.id, c.id FROM GiftCertificate c JOIN c.tags t";
 
     @PersistenceContext
     EntityManager entityManager;
@@ -44,9 +41,7 @@ public class GiftCertificateDaoImpl implements GiftCertificateDao {
         Session session = getCurrentSession();
         Optional<GiftCertificate> giftCertificate;
         try {
-            Query query = session.createQuery(FIND_CERTIFICATE_BY_ID);
-            query.setParameter("id", id);
-            giftCertificate = query.uniqueResultOptional();
+            giftCertificate = session.byId(GiftCertificate.class).loadOptional(id);
         } catch (Exception e) {
             throw new DaoException(MessageFormat.format("Unable to get a certificate: {0}", e.getMessage()));
         }
@@ -108,29 +103,28 @@ public class GiftCertificateDaoImpl implements GiftCertificateDao {
     }
 
     @Override
-    public List<GiftCertificate> getCertificates(CertificateSearchQuery query, Long page, Long pageSize) {
-
+    public List<GiftCertificate> findAllAfter(Long lastId, Long pageSize) {
         Session session = getCurrentSession();
-        List<GiftCertificate> firstPage = new ArrayList<>();
+        List<GiftCertificate> certificates = new ArrayList<>();
         try {
             Criteria criteria = session.createCriteria(GiftCertificate.class);
-            CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-            CriteriaQuery<GiftCertificate> criteriaQuery = criteriaBuilder.createQuery(GiftCertificate.class);
-            Root<GiftCertificate> certificateRoot = criteriaQuery.from(GiftCertificate.class);
-
-            if (query.hasTagName()) {
-                criteria.createAlias("tags", "tag");
-                criteria.add(Restrictions.eq("tag.name", query.getTagName()));
-                criteria.setResultTransformer(CriteriaSpecification.DISTINCT_ROOT_ENTITY);
+            criteria.add(Restrictions.gt("id", lastId));
+            criteria.addOrder(org.hibernate.criterion.Order.asc("id"));
+            criteria.setMaxResults(Math.toIntExact(pageSize));
+            certificates = criteria.list();
+        } catch (Exception e) {
+            throw new DaoException(MessageFormat.format("Unable to get a list of certificates: {0}", e.getMessage()));
+        }
+        return certificates;
+    }
 
-            }
-            if (query.hasPartOfDescription()) {
-                criteria.add(Restrictions.like("description", "%" + query.getPartOfDescription() + "%"));
+    @Override
+    public List<GiftCertificate> getCertificates(CertificateSearchQuery query, Long page, Long pageSize) {
 
-            }
-            if (query.hasPartOfName()) {
-                criteria.add(Restrictions.like("name", "%" + query.getPartOfName() + "%"));
-            }
+        Session session = getCurrentSession();
+        List<GiftCertificate> firstPage = new ArrayList<>();
+        try {
+            Criteria criteria = createSearchCriteria(session, query);
             if (query.hasSortParameter()) {
                 if ("DESC".equals(query.getSortOrder())) {
                     criteria.addOrder(org.hibernate.criterion.Order.desc(query.getSortParameter()));
@@ -147,6 +141,51 @@ public class GiftCertificateDaoImpl implements GiftCertificateDao {
         return firstPage;
     }
 
+    @Override
+    public List<GiftCertificate> getCertificatesAfter(CertificateSearchQuery query, Object lastSortKey, Long lastId, Long pageSize) {
+        Session session = getCurrentSession();
+        List<GiftCertificate> certificates = new ArrayList<>();
+        try {
+            Criteria criteria = createSearchCriteria(session, query);
+            boolean descending = "DESC".equals(query.getSortOrder());
+            if (query.hasSortParameter()) {
+                String sortParameter = query.getSortParameter();
+                if (lastSortKey != null) {
+                    criteria.add(Restrictions.or(
+                            descending ? Restrictions.lt(sortParameter, lastSortKey) : Restrictions.gt(sortParameter, lastSortKey),
+                            Restrictions.and(Restrictions.eq(sortParameter, lastSortKey),
+                                    descending ? Restrictions.lt("id", lastId) : Restrictions.gt("id", lastId))));
+                }
+                criteria.addOrder(descending ? org.hibernate.criterion.Order.desc(sortParameter)
+                        : org.hibernate.criterion.Order.asc(sortParameter));
+            } else if (lastId != null) {
+                criteria.add(descending ? Restrictions.lt("id", lastId) : Restrictions.gt("id", lastId));
+            }
+            criteria.addOrder(descending ? org.hibernate.criterion.Order.desc("id") : org.hibernate.criterion.Order.asc("id"));
+            criteria.setMaxResults(Math.toIntExact(pageSize));
+            certificates = criteria.list();
+        } catch (Exception e) {
+            throw new DaoException(MessageFormat.format("Unable to get a list of certificates: {0}", e.getMessage()));
+        }
+        return certificates;
+    }
+
+    private Criteria createSearchCriteria(Session session, CertificateSearchQuery query) {
+        Criteria criteria = session.createCriteria(GiftCertificate.class);
+        if (query.hasTagName()) {
+            criteria.createAlias("tags", "tag");
+            criteria.add(Restrictions.eq("tag.name", query.getTagName()));
+            criteria.setResultTransformer(CriteriaSpecification.DISTINCT_ROOT_ENTITY);
+        }
+        if (query.hasPartOfDescription()) {
+            criteria.add(Restrictions.like("description", "%" + query.getPartOfDescription() + "%"));
+        }
+        if (query.hasPartOfName()) {
+            criteria.add(Restrictions.like("name", "%" + query.getPartOfName() + "%"));
+        }
+        return criteria;
+    }
+
     @Override
 
     public List<GiftCertificate> findCertificatesByTags(List<String> tagNames, Long page, Long pageSize) {
@@ -180,4 +219,17 @@ public class GiftCertificateDaoImpl implements GiftCertificateDao {
         }
         return giftCertificate;
     }
+
+    @Override
+    public List<Object[]> findTagAssignments() {
+        Session session = getCurrentSession();
+        List<Object[]> assignments = new ArrayList<>();
+        try {
+            Query<Object[]> query = session.createQuery(FIND_TAG_ASSIGNMENTS, Object[].class);
+            assignments = query.list();
+        } catch (Exception e) {
+            throw new DaoException(MessageFormat.format("Unable to get tags of certificates: {0}", e.getMessage()));
+        }
+        return assignments;
+    }
 }
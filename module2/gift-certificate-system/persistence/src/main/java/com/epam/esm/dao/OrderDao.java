@@ -6,6 +6,8 @@ import java.util.List;
 
 public interface OrderDao extends CrudDAO<Order>{
     List<Order> getUserOrders(Long userId, Long page, Long pageSize);
+    List<Order> getUserOrdersAfter(Long userId, Long lastId, Long pageSize);
     Long findOrderTotalCountByUserId(Long userId);
     Long findOrderTotalCount();
+    List<Object[]> findOrderTotals();
 }
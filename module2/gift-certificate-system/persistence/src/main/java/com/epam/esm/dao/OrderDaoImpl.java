@@ -22,6 +22,8 @@ import java.util.Optional;
 public class OrderDaoImpl implements OrderDao {
 
     private static final String FIND_ORDER_BY_ID = "FROM Order o WHERE o.id = :id";
+    private static final String FIND_ORDER_TOTALS = "SELECT o.user.id, c.id, COUNT(o), SUM(o.cost) FROM Order o " +
+            "LEFT JOIN o.giftCertificate c GROUP BY o.user.id, c.id";
 
     @PersistenceContext
     EntityManager entityManager;
@@ -92,6 +94,22 @@ public class OrderDaoImpl implements OrderDao {
         return firstPage;
     }
 
+    @Override
+    public List<Order> findAllAfter(Long lastId, Long pageSize) {
+        Session session = getCurrentSession();
+        List<Order> orders = new ArrayList<>();
+        try {
+            Criteria criteria = session.createCriteria(Order.class);
+            criteria.add(Restrictions.gt("id", lastId));
+            criteria.addOrder(org.hibernate.criterion.Order.asc("id"));
+            criteria.setMaxResults(Math.toIntExact(pageSize));
+            orders = criteria.list();
+        } catch (Exception e) {
+            throw new DaoException(MessageFormat.format("Unable to get a list of orders: {0}", e.getMessage()));
+        }
+        return orders;
+    }
+
     @Override
     public List<Order> getUserOrders(Long userId, Long page, Long pageSize) {
         Session session = getCurrentSession();
@@ -111,6 +129,23 @@ public class OrderDaoImpl implements OrderDao {
         return orders;
     }
 
+    @Override
+    public List<Order> getUserOrdersAfter(Long userId, Long lastId, Long pageSize) {
+        Session session = getCurrentSession();
+        List<Order> orders = new ArrayList<>();
+        try {
+            Criteria criteria = session.createCriteria(Order.class);
+            criteria.add(Restrictions.eq("user.id", userId));
+            criteria.add(Restrictions.gt("id", lastId));
+            criteria.addOrder(org.hibernate.criterion.Order.asc("id"));
+            criteria.setMaxResults(Math.toIntExact(pageSize));
+            orders = criteria.list();
+        } catch (Exception e) {
+            throw new DaoException(MessageFormat.format("Unable to get a list of orders: {0}", e.getMessage()));
+        }
+        return orders;
+    }
+
     @Override
     public Long findOrderTotalCountByUserId(Long userId) {
         Session session = getCurrentSession();
@@ -140,4 +175,17 @@ public class OrderDaoImpl implements OrderDao {
         }
         return totalCount;
     }
+
+    @Override
+    public List<Object[]> findOrderTotals() {
+        Session session = getCurrentSession();
+        List<Object[]> totals = new ArrayList<>();
+        try {
+            Query<Object[]> query = session.createQuery(FIND_ORDER_TOTALS, Object[].class);
+            totals = query.list();
+        } catch (Exception e) {
+            throw new DaoException(MessageFormat.format("Unable to get order totals: {0}", e.getMessage()));
+        }
+        return totals;
+    }
 }
@@ -2,10 +2,14 @@ package com.epam.esm.dao;
 
 import com.epam.esm.model.Tag;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TagDao extends CrudDAO<Tag> {
     Optional<Tag> findByTagName(String tagName);
+    List<Tag> findAllByTagNames(Collection<String> tagNames);
+    List<Tag> saveAll(List<Tag> tags);
     Optional<Tag> getUsersMostWidelyUsedTag();
 
 }
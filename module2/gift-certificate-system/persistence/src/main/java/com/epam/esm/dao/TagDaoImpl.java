@@ -5,6 +5,8 @@ import com.epam.esm.exception.OrderNotFoundException;
 import com.epam.esm.model.Tag;
 import org.hibernate.Criteria;
 import org.hibernate.Session;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Restrictions;
 import org.hibernate.query.Query;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Repository;
@@ -14,6 +16,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,7 +26,7 @@ import java.util.Optional;
 public class TagDaoImpl implements TagDao {
 
     private static final String FIND_TAG_BY_NAME = "FROM Tag t WHERE t.name = :name";
-    private static final String FIND_TAG_BY_ID = "FROM Tag t WHERE t.id = :id";
+    private static final String FIND_TAGS_BY_NAMES = "FROM Tag t WHERE t.name IN (:names)";
     private static final String DELETE_TAG_BY_ID = "DELETE Tag t WHERE t.id = :id";
 
     private static final String GET_USER_MOST_WIDELY_USED_TAG = "SELECT tag.tag_id, name, COUNT(name) AS qty from orders\n" +
@@ -53,6 +56,7 @@ public class TagDaoImpl implements TagDao {
         try {
             Query query = session.createQuery(FIND_TAG_BY_NAME);
             query.setParameter("name", tagName);
+            query.setCacheable(true);
             tag = query.uniqueResultOptional();
         } catch (Exception e) {
             throw new OrderNotFoundException(MessageFormat.format("Unable to get a tag: {0}", e.getMessage()));
@@ -60,14 +64,27 @@ public class TagDaoImpl implements TagDao {
         return tag;
     }
 
+    @Override
+    public List<Tag> findAllByTagNames(Collection<String> tagNames) {
+        Session session = getCurrentSession();
+        List<Tag> tags;
+        try {
+            Query<Tag> query = session.createQuery(FIND_TAGS_BY_NAMES, Tag.class);
+            query.setParameterList("names", tagNames);
+            query.setCacheable(true);
+            tags = query.list();
+        } catch (Exception e) {
+            throw new DaoException(MessageFormat.format("Unable to get a list of tags: {0}", e.getMessage()));
+        }
+        return tags;
+    }
+
     @Override
     public Optional<Tag> find(Long id) {
         Session session = getCurrentSession();
         Optional<Tag> tag;
         try {
-            Query query = session.createQuery(FIND_TAG_BY_ID);
-            query.setParameter("id", id);
-            tag = query.uniqueResultOptional();
+            tag = session.byId(Tag.class).loadOptional(id);
         } catch (Exception e) {
             throw new OrderNotFoundException(MessageFormat.format("Unable to get a tag: {0}", e.getMessage()));
         }
@@ -85,6 +102,19 @@ public class TagDaoImpl implements TagDao {
         return tag.getId();
     }
 
+    @Override
+    public List<Tag> saveAll(List<Tag> tags) {
+        Session session = getCurrentSession();
+        try {
+            for (Tag tag : tags) {
+                session.save(tag);
+            }
+        } catch (Exception e) {
+            throw new DaoException(MessageFormat.format("Unable save tags: {0}", e.getMessage()));
+        }
+        return tags;
+    }
+
     @Override
     public void update(Tag tag) {
         Session session = getCurrentSession();
@@ -126,6 +156,22 @@ public class TagDaoImpl implements TagDao {
         return firstPage;
     }
 
+    @Override
+    public List<Tag> findAllAfter(Long lastId, Long pageSize) {
+        Session session = getCurrentSession();
+        List<Tag> tags = new ArrayList<>();
+        try {
+            Criteria criteria = session.createCriteria(Tag.class);
+            criteria.add(Restrictions.gt("id", lastId));
+            criteria.addOrder(Order.asc("id"));
+            criteria.setMaxResults(Math.toIntExact(pageSize));
+            tags = criteria.list();
+        } catch (Exception e) {
+            throw new DaoException(MessageFormat.format("Unable to get a list of tags: {0}", e.getMessage()));
+        }
+        return tags;
+    }
+
     @Override
     public Optional<Tag> getUsersMostWidelyUsedTag() {
         Session session = getCurrentSession();
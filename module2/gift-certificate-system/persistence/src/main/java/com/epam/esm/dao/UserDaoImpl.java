@@ -4,7 +4,9 @@ import com.epam.esm.exception.DaoException;
 import com.epam.esm.model.User;
 import org.hibernate.Criteria;
 import org.hibernate.Session;
+import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
 import org.hibernate.query.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -74,6 +76,22 @@ public class UserDaoImpl implements UserDao {
         return firstPage;
     }
 
+    @Override
+    public List<User> findAllAfter(Long lastId, Long pageSize) {
+        Session session = getCurrentSession();
+        List<User> users = new ArrayList<>();
+        try {
+            Criteria criteria = session.createCriteria(User.class);
+            criteria.add(Restrictions.gt("id", lastId));
+            criteria.addOrder(Order.asc("id"));
+            criteria.setMaxResults(Math.toIntExact(pageSize));
+            users = criteria.list();
+        } catch (Exception e) {
+            throw new DaoException(MessageFormat.format("Unable to get a list of users: {0}", e.getMessage()));
+        }
+        return users;
+    }
+
     @Override
     public Long findUsersTotalCount() {
         Session session = getCurrentSession();
@@ -0,0 +1,63 @@
+package com.epam.esm.dao.jdbc;
+
+import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.model.Tag;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Builds certificates from rows of the certificate-tag join while they are read. Rows of a certificate
+ * must follow each other; the certificate is passed to the action as soon as a row of the next one arrives,
+ * so only one certificate is kept in memory.
+ */
+class CertificateRowCallbackHandler implements RowCallbackHandler {
+
+    private final Consumer<GiftCertificate> action;
+    private GiftCertificate certificate;
+
+    CertificateRowCallbackHandler(Consumer<GiftCertificate> action) {
+        this.action = action;
+    }
+
+    @Override
+    public void processRow(ResultSet resultSet) throws SQLException {
+        long id = resultSet.getLong("certificate_id");
+        if (certificate == null || certificate.getId() != id) {
+            finish();
+            certificate = GiftCertificate.builder()
+                    .id(id)
+                    .name(resultSet.getString("name"))
+                    .description(resultSet.getString("description"))
+                    .price(resultSet.getBigDecimal("price"))
+                    .createDate(resultSet.getTimestamp("create_date").toInstant().atZone(ZoneId.systemDefault()))
+                    .lastUpdateDate(resultSet.getTimestamp("last_update_date").toInstant().atZone(ZoneId.systemDefault()))
+                    .duration(resultSet.getInt("duration"))
+                    .tags(new ArrayList<>())
+                    .build();
+        }
+        long tagId = resultSet.getLong("tag_id");
+        if (!resultSet.wasNull()) {
+            certificate.getTags().add(Tag.builder()
+                    .id(tagId)
+                    .name(resultSet.getString("tag_name"))
+                    .build());
+        }
+    }
+
+    /**
+     * Passes the last certificate to the action. Must be called once the query is completed.
+     */
+    void finish() {
+        if (certificate != null) {
+            action.accept(certificate);
+            certificate = null;
+        }
+    }
+}
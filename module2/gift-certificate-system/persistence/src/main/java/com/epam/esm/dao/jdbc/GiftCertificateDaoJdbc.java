@@ -2,94 +2,139 @@ package com.epam.esm.dao.jdbc;
 
 import com.epam.esm.dao.CertificateSearchQuery;
 import com.epam.esm.dao.GiftCertificateDao;
-import com.epam.esm.exception.GiftCertificateNotFoundException;
+import com.epam.esm.exception.DaoException;
 import com.epam.esm.model.GiftCertificate;
-import com.epam.esm.model.Tag;
-import org.springframework.jdbc.core.ResultSetExtractor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
 import java.sql.Timestamp;
-import java.time.ZoneId;
+import java.text.MessageFormat;
+import java.time.ZonedDateTime;
 import java.util.*;
 
 @Repository
 public class GiftCertificateDaoJdbc implements GiftCertificateDao {
 
-    private static final String SQL_SELECT_ALL_CERTIFICATES = "SELECT certificate_id, gift_certificate.name, description, \n" +
+    private static final String TAGS_COLLECTION = GiftCertificate.class.getName() + ".tags";
+    private static final String ID_COLUMN = "gift_certificate.certificate_id";
+    private static final String SQL_SELECT_CERTIFICATE_IDS = "SELECT certificate_id FROM gift_certificate WHERE 1=1";
+    private static final String SQL_SELECT_CERTIFICATES_PAGE = "SELECT gift_certificate.certificate_id, gift_certificate.name, description, \n" +
             "price, create_date, last_update_date, duration, tag.tag_id, tag.name as tag_name \n" +
-            "FROM gift_certificate \n" +
-            "left JOIN tag_has_gift_certificate on (certificate_id=tag_has_gift_certificate.gift_certificate_id)\n" +
-            "left JOIN tag on (tag.tag_id=tag_has_gift_certificate.tag_id) WHERE 1=1 ";
+            "FROM (%s) page \n" +
+            "JOIN gift_certificate on (gift_certificate.certificate_id=page.certificate_id)\n" +
+            "left JOIN tag_has_gift_certificate on (gift_certificate.certificate_id=tag_has_gift_certificate.gift_certificate_id)\n" +
+            "left JOIN tag on (tag.tag_id=tag_has_gift_certificate.tag_id) ORDER BY %s";
+    private static final String SQL_HAS_TAG = " AND EXISTS (SELECT 1 FROM tag_has_gift_certificate \n" +
+            "JOIN tag on (tag.tag_id=tag_has_gift_certificate.tag_id) \n" +
+            "WHERE tag_has_gift_certificate.gift_certificate_id=gift_certificate.certificate_id AND tag.name = :tag_name)";
+    private static final String SQL_HAS_ALL_TAGS = " AND certificate_id IN (SELECT gift_certificate_id FROM tag_has_gift_certificate \n" +
+            "JOIN tag on (tag.tag_id=tag_has_gift_certificate.tag_id) WHERE tag.name IN (:tag_names) \n" +
+            "GROUP BY gift_certificate_id HAVING COUNT(tag.name) = :tag_names_size)";
     private static final String SQL_INSERT_GIFT_CERTIFICATE = "INSERT INTO gift_certificate (name, description, price, duration, create_date, last_update_date)" +
             " VALUES (:name, :description, :price, :duration, :createDate, :lastUpdateDate);";
     private static final String SQL_SELECT_BY_ID = "SELECT certificate_id, gift_certificate.name, \n" +
             "            description, price, create_date, \n" +
             "            last_update_date, duration, tag.tag_id, tag.name as tag_name\n" +
             "            FROM gift_certificate \n" +
-            "            JOIN tag_has_gift_certificate on (certificate_id=tag_has_gift_certificate.gift_certificate_id)\n" +
-            "            JOIN tag on (tag.tag_id=tag_has_gift_certificate.tag_id) where certificate_id = :id;";
+            "            left JOIN tag_has_gift_certificate on (certificate_id=tag_has_gift_certificate.gift_certificate_id)\n" +
+            "            left JOIN tag on (tag.tag_id=tag_has_gift_certificate.tag_id) where certificate_id = :id;";
     private static final String SQL_UPDATE_GIFT_CERTIFICATE = "UPDATE gift_certificate SET name = :name, description = :description," +
             " price = :price, create_date = :createDate, last_update_date = :lastUpdateDate WHERE (certificate_id = :id);";
     private static final String SQL_DELETE_BY_ID = "DELETE FROM gift_certificate WHERE (certificate_id = :id);";
 
+    private static final String SQL_SELECT_TAG_ASSIGNMENTS = "SELECT tag_id, gift_certificate_id FROM tag_has_gift_certificate";
     private static final String SQL_ADD_TAG_TO_CERTIFICATE = "INSERT INTO tag_has_gift_certificate (tag_id, gift_certificate_id)" +
             " VALUES (:tag_id, :gift_certificate_id);";
     private static final String SQL_REMOVE_TAG_FROM_CERTIFICATE = "DELETE FROM tag_has_gift_certificate WHERE " +
             "(tag_id = :tag_id) and (gift_certificate_id = :gift_certificate_id);";
 
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final Cache cache;
 
-    public GiftCertificateDaoJdbc(DataSource dataSource) {
+    public GiftCertificateDaoJdbc(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
         this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
     }
 
-    private final ResultSetExtractor<List<GiftCertificate>> resultSetExtractor = resultSet -> {
-        Map<Long, GiftCertificate> giftCertificateMap = new LinkedHashMap<>();
-        Long id = 0L;
-        while (resultSet.next()) {
-            if (!giftCertificateMap.containsKey(resultSet.getLong("certificate_id"))) {
-                id = resultSet.getLong("certificate_id");
-                GiftCertificate certificate = GiftCertificate.builder()
-                        .id(resultSet.getLong("certificate_id"))
-                        .name(resultSet.getString("name"))
-                        .description(resultSet.getString("description"))
-                        .price(resultSet.getBigDecimal("price"))
-                        .createDate(resultSet.getTimestamp("create_date").toInstant().atZone(ZoneId.systemDefault()))
-                        .lastUpdateDate(resultSet.getTimestamp("last_update_date").toInstant().atZone(ZoneId.systemDefault()))
-                        .duration(resultSet.getInt("duration"))
-                        .tags(new ArrayList<>())
-                        .build();
-                giftCertificateMap.put(id, certificate);
-            }
-            Tag tag = Tag.builder()
-                    .id(resultSet.getLong("tag_id"))
-                    .name(resultSet.getString("tag_name"))
-                    .build();
-            giftCertificateMap.get(id).getTags().add(tag);
+    /**
+     * Plain JDBC writes bypass Hibernate, so the second-level cache entries of the changed certificate
+     * and all cached query results are dropped by hand.
+     */
+    private void evictCached(Long id) {
+        cache.evictEntityData(GiftCertificate.class, id);
+        cache.evictCollectionData(TAGS_COLLECTION, id);
+        cache.evictQueryRegions();
+    }
+
+    /**
+     * Runs the query of certificate-tag rows and collects the certificates built by
+     * <i>CertificateRowCallbackHandler</i>.
+     */
+    private List<GiftCertificate> queryCertificates(String sql, Map<String, Object> params) {
+        List<GiftCertificate> certificates = new ArrayList<>();
+        CertificateRowCallbackHandler handler = new CertificateRowCallbackHandler(certificates::add);
+        namedParameterJdbcTemplate.query(sql, params, handler);
+        handler.finish();
+        return certificates;
+    }
+
+    /**
+     * Selects a page of certificate ids first and joins tags to the selected certificates only,
+     * so the number of tags doesn't affect the size of the page.
+     */
+    private List<GiftCertificate> queryPage(StringBuilder idsSql, Map<String, Object> params, String orderBy) {
+        idsSql.append(" ORDER BY ").append(orderBy).append(" LIMIT :limit");
+        if (params.containsKey("offset")) {
+            idsSql.append(" OFFSET :offset");
         }
+        return queryCertificates(String.format(SQL_SELECT_CERTIFICATES_PAGE, idsSql, orderBy), params);
+    }
 
-        List<GiftCertificate> result;
-        if (!giftCertificateMap.isEmpty()) {
-            result = new ArrayList<>(giftCertificateMap.values());
-            return result;
-        } else {
-            throw new GiftCertificateNotFoundException("The gift certificate not found");
+    private StringBuilder searchIdsSql(CertificateSearchQuery query, Map<String, Object> params) {
+        StringBuilder sql = new StringBuilder(SQL_SELECT_CERTIFICATE_IDS);
+        if (query.hasTagName()) {
+            sql.append(SQL_HAS_TAG);
+            params.put("tag_name", query.getTagName());
+        }
+        if (query.hasPartOfDescription()) {
+            sql.append(" AND description like :part_description");
+            params.put("part_description", "%" + query.getPartOfDescription() + "%");
+        }
+        if (query.hasPartOfName()) {
+            sql.append(" AND name like :part_name");
+            params.put("part_name", "%" + query.getPartOfName() + "%");
         }
-    };
+        return sql;
+    }
 
+    private String sortColumn(CertificateSearchQuery query) {
+        if (!query.hasSortParameter()) {
+            return ID_COLUMN;
+        }
+        switch (query.getSortParameter()) {
+            case "name":
+                return "gift_certificate.name";
+            case "createDate":
+                return "gift_certificate.create_date";
+            default:
+                throw new DaoException(MessageFormat.format("Unknown sort parameter: {0}", query.getSortParameter()));
+        }
+    }
 
     @Override
     public Optional<GiftCertificate> find(Long id) {
         Map<String, Object> params = new HashMap<>();
         params.put("id", id);
-        List<GiftCertificate> result = namedParameterJdbcTemplate.query(SQL_SELECT_BY_ID, params, resultSetExtractor);
+        List<GiftCertificate> result = queryCertificates(SQL_SELECT_BY_ID, params);
 
-        if (Objects.requireNonNull(result).isEmpty()) {
+        if (result.isEmpty()) {
             return Optional.empty();
         }
         return Optional.of(result.get(0));
@@ -105,7 +150,8 @@ public class GiftCertificateDaoJdbc implements GiftCertificateDao {
                 .addValue("duration", model.getDuration());
 
         KeyHolder keyHolder = new GeneratedKeyHolder();
-        namedParameterJdbcTemplate.update(SQL_INSERT_GIFT_CERTIFICATE, parameters, keyHolder, new String[]{"id"});
+        namedParameterJdbcTemplate.update(SQL_INSERT_GIFT_CERTIFICATE, parameters, keyHolder, new String[]{"certificate_id"});
+        cache.evictQueryRegions();
         if (keyHolder.getKey() == null) {
             throw new IllegalArgumentException("Saving certificate failed, no ID obtained.");
         } else {
@@ -124,6 +170,7 @@ public class GiftCertificateDaoJdbc implements GiftCertificateDao {
         params.put("lastUpdateDate", Timestamp.from(model.getLastUpdateDate().toInstant()));
         params.put("duration", model.getDuration());
         namedParameterJdbcTemplate.update(SQL_UPDATE_GIFT_CERTIFICATE, params);
+        evictCached(model.getId());
     }
 
 
@@ -132,41 +179,74 @@ public class GiftCertificateDaoJdbc implements GiftCertificateDao {
         Map<String, Object> params = new HashMap<>();
         params.put("id", id);
         namedParameterJdbcTemplate.update(SQL_DELETE_BY_ID, params);
+        evictCached(id);
     }
 
     @Override
-    public List<GiftCertificate> findAll(Long from, Long pageSize) {
-        return namedParameterJdbcTemplate.query(SQL_SELECT_ALL_CERTIFICATES, resultSetExtractor);
+    public List<GiftCertificate> findAll(Long page, Long pageSize) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("limit", pageSize);
+        params.put("offset", (page - 1) * pageSize);
+        return queryPage(new StringBuilder(SQL_SELECT_CERTIFICATE_IDS), params, ID_COLUMN);
     }
 
     @Override
-    public List<GiftCertificate> getCertificates(CertificateSearchQuery query, Long from, Long pageSize) {
+    public List<GiftCertificate> findAllAfter(Long lastId, Long pageSize) {
         Map<String, Object> params = new HashMap<>();
-        StringBuilder sql = new StringBuilder(SQL_SELECT_ALL_CERTIFICATES);
-        if (query.hasTagName()) {
-            sql.append(" AND tag.name = :tag_name");
-            params.put("tag_name", query.getTagName());
-        }
-        if (query.hasPartOfDescription()) {
-            sql.append(" AND description like :part_description");
-            params.put("part_description", "%" + query.getPartOfDescription() + "%");
-        }
-        if (query.hasPartOfName()) {
-            sql.append(" AND gift_certificate.name like :part_name");
-            params.put("part_name", "%" + query.getPartOfName() + "%");
+        params.put("id", lastId);
+        params.put("limit", pageSize);
+        return queryPage(new StringBuilder(SQL_SELECT_CERTIFICATE_IDS).append(" AND certificate_id > :id"), params,
+                ID_COLUMN);
+    }
+
+    @Override
+    public List<GiftCertificate> getCertificates(CertificateSearchQuery query, Long page, Long pageSize) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = searchIdsSql(query, params);
+        params.put("limit", pageSize);
+        params.put("offset", (page - 1) * pageSize);
+        String direction = "DESC".equals(query.getSortOrder()) ? " DESC" : "";
+        String orderBy = sortColumn(query) + direction;
+        if (query.hasSortParameter()) {
+            orderBy += ", " + ID_COLUMN + direction;
         }
+        return queryPage(sql, params, orderBy);
+    }
+
+    @Override
+    public List<GiftCertificate> getCertificatesAfter(CertificateSearchQuery query, Object lastSortKey, Long lastId, Long pageSize) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = searchIdsSql(query, params);
+        params.put("limit", pageSize);
+        boolean descending = "DESC".equals(query.getSortOrder());
+        String comparison = descending ? " < " : " > ";
+        String direction = descending ? " DESC" : "";
+        String sortColumn = sortColumn(query);
         if (query.hasSortParameter()) {
-            sql.append(" ORDER BY gift_certificate.").append(query.getSortParameter());
-            if (query.hasSortOrder()) {
-                sql.append(" ").append(query.getSortOrder());
+            if (lastSortKey != null) {
+                sql.append(" AND (").append(sortColumn).append(comparison).append(":sort_key OR (")
+                        .append(sortColumn).append(" = :sort_key AND ").append(ID_COLUMN).append(comparison).append(":id))");
+                params.put("sort_key", lastSortKey instanceof ZonedDateTime
+                        ? Timestamp.from(((ZonedDateTime) lastSortKey).toInstant()) : lastSortKey);
+                params.put("id", lastId);
             }
+            return queryPage(sql, params, sortColumn + direction + ", " + ID_COLUMN + direction);
         }
-        return namedParameterJdbcTemplate.query(sql.toString(), params, resultSetExtractor);
+        if (lastId != null) {
+            sql.append(" AND ").append(ID_COLUMN).append(comparison).append(":id");
+            params.put("id", lastId);
+        }
+        return queryPage(sql, params, ID_COLUMN + direction);
     }
 
     @Override
-    public List<GiftCertificate> findCertificatesByTags(List<String> tagNames, Long from, Long pageSize) {
-        return null;
+    public List<GiftCertificate> findCertificatesByTags(List<String> tagNames, Long page, Long pageSize) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("tag_names", tagNames);
+        params.put("tag_names_size", tagNames.size());
+        params.put("limit", pageSize);
+        params.put("offset", (page - 1) * pageSize);
+        return queryPage(new StringBuilder(SQL_SELECT_CERTIFICATE_IDS).append(SQL_HAS_ALL_TAGS), params, ID_COLUMN);
     }
 
     @Override
@@ -174,6 +254,12 @@ public class GiftCertificateDaoJdbc implements GiftCertificateDao {
         return Optional.empty();
     }
 
+    @Override
+    public List<Object[]> findTagAssignments() {
+        return namedParameterJdbcTemplate.query(SQL_SELECT_TAG_ASSIGNMENTS,
+                (resultSet, rowNum) -> new Object[]{resultSet.getLong(1), resultSet.getLong(2)});
+    }
+
 //    @Override
 //    public void addTagToCertificate(Long certificateId, Long tagId) {
 //        Map<String, Object> params = new HashMap<>();
@@ -1,14 +1,19 @@
 package com.epam.esm.dao.jdbc;
 
 import com.epam.esm.dao.TagDao;
+import com.epam.esm.model.GiftCertificate;
 import com.epam.esm.model.Tag;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
 import java.util.*;
 
@@ -16,12 +21,15 @@ import java.util.*;
 public class TagDaoJdbc implements TagDao {
 
     private static final String SQL_SELECT_ALL_TAGS = "SELECT tag_id, name FROM tag;";
+    private static final String SQL_SELECT_TAGS_AFTER_ID = "SELECT tag_id, name FROM tag WHERE tag_id > :id" +
+            " ORDER BY tag_id LIMIT :limit;";
     private static final String SQL_INSERT_TAG = "INSERT INTO tag (name)" +
             " VALUES (:name);";
     private static final String SQL_SELECT_BY_ID = "SELECT tag_id, name FROM tag WHERE tag_id = :id;";
     private static final String SQL_UPDATE_TAG = "UPDATE tag SET name = :name WHERE (tag_id = :id);";
     private static final String SQL_DELETE_BY_ID = "DELETE FROM tag WHERE (tag_id = :id);";
     private static final String SQL_SELECT_BY_TAG_NAME = "SELECT tag_id, name FROM tag WHERE name = :name;";
+    private static final String SQL_SELECT_BY_TAG_NAMES = "SELECT tag_id, name FROM tag WHERE name IN (:names);";
     private static final String SQL_ASSIGN_DEFAULT_TAG = "INSERT INTO tag_has_gift_certificate (tag_id, gift_certificate_id) " +
             "VALUES (:tag_id, :gift_certificate_id)";
     private static final String SQL_ASSIGN_NEW_TAG_TO_CERTIFICATE = "UPDATE tag_has_gift_certificate" +
@@ -32,9 +40,21 @@ public class TagDaoJdbc implements TagDao {
             "and (gift_certificate_id = :gift_certificate_id);";
 
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final Cache cache;
 
-    public TagDaoJdbc(DataSource dataSource) {
+    public TagDaoJdbc(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
         this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Plain JDBC writes bypass Hibernate, so the cached tag, the cached tag lists of certificates
+     * and all cached query results are dropped by hand.
+     */
+    private void evictCached(Long id) {
+        cache.evictEntityData(Tag.class, id);
+        cache.evictCollectionData(GiftCertificate.class.getName() + ".tags");
+        cache.evictQueryRegions();
     }
 
     private final RowMapper<Tag> tagRowMapper = (resultSet, i) -> Tag.builder()
@@ -59,7 +79,8 @@ public class TagDaoJdbc implements TagDao {
         MapSqlParameterSource parameters = new MapSqlParameterSource()
                 .addValue("name", model.getName());
         KeyHolder keyHolder = new GeneratedKeyHolder();
-        namedParameterJdbcTemplate.update(SQL_INSERT_TAG, parameters, keyHolder, new String[]{"id"});
+        namedParameterJdbcTemplate.update(SQL_INSERT_TAG, parameters, keyHolder, new String[]{"tag_id"});
+        cache.evictQueryRegions();
         if (keyHolder.getKey() == null) {
             throw new IllegalArgumentException("Saving tag failed, no ID obtained.");
         } else {
@@ -73,6 +94,7 @@ public class TagDaoJdbc implements TagDao {
         params.put("id", model.getId());
         params.put("name", model.getName());
         namedParameterJdbcTemplate.update(SQL_UPDATE_TAG, params);
+        evictCached(model.getId());
     }
 
 
@@ -82,6 +104,7 @@ public class TagDaoJdbc implements TagDao {
         Map<String, Object> params = new HashMap<>();
         params.put("id", id);
         namedParameterJdbcTemplate.update(SQL_DELETE_BY_ID, params);
+        evictCached(id);
     }
 
     @Override
@@ -89,6 +112,14 @@ public class TagDaoJdbc implements TagDao {
         return namedParameterJdbcTemplate.query(SQL_SELECT_ALL_TAGS, tagRowMapper);
     }
 
+    @Override
+    public List<Tag> findAllAfter(Long lastId, Long pageSize) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("id", lastId);
+        params.put("limit", pageSize);
+        return namedParameterJdbcTemplate.query(SQL_SELECT_TAGS_AFTER_ID, params, tagRowMapper);
+    }
+
     @Override
     public Optional<Tag> findByTagName(String tagName) {
         Map<String, Object> params = new HashMap<>();
@@ -101,6 +132,27 @@ public class TagDaoJdbc implements TagDao {
         return Optional.of(result.get(0));
     }
 
+    @Override
+    public List<Tag> findAllByTagNames(Collection<String> tagNames) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("names", tagNames);
+        return namedParameterJdbcTemplate.query(SQL_SELECT_BY_TAG_NAMES, params, tagRowMapper);
+    }
+
+    @Override
+    public List<Tag> saveAll(List<Tag> tags) {
+        if (tags.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> names = new ArrayList<>();
+        for (Tag tag : tags) {
+            names.add(tag.getName());
+        }
+        namedParameterJdbcTemplate.batchUpdate(SQL_INSERT_TAG, SqlParameterSourceUtils.createBatch(tags));
+        cache.evictQueryRegions();
+        return findAllByTagNames(names);
+    }
+
     @Override
     public Optional<Tag> getUsersMostWidelyUsedTag() {
         return Optional.empty();
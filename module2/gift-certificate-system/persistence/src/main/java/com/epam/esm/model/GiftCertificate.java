@@ -3,6 +3,8 @@ package com.epam.esm.model;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.hateoas.RepresentationModel;
 
 import javax.persistence.*;
@@ -17,6 +19,8 @@ import java.util.List;
 @AllArgsConstructor()
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "gift_certificate")
 public class GiftCertificate extends RepresentationModel<GiftCertificate> implements Serializable {
 
@@ -39,6 +43,7 @@ public class GiftCertificate extends RepresentationModel<GiftCertificate> implem
     private ZonedDateTime lastUpdateDate;
     @Column(name = "duration")
     private int duration;
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany(cascade = CascadeType.ALL)
     @JoinTable(name = "tag_has_gift_certificate",
             //foreign key for Certificate in tag_has_gift_certificate table
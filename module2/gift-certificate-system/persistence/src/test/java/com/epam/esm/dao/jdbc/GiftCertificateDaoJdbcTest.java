@@ -0,0 +1,140 @@
+package com.epam.esm.dao.jdbc;
+
+import com.epam.esm.dao.CertificateSearchQuery;
+import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.model.Tag;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GiftCertificateDaoJdbcTest {
+
+    private static final long CERTIFICATES = 15;
+
+    private EmbeddedDatabase dataSource;
+    private GiftCertificateDaoJdbc giftCertificateDao;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .setScriptEncoding("UTF-8")
+                .addScript("init.sql")
+                .build();
+        // Certificates 1-4, 5-8, ... share their creation date, so keyset pages have to break the ties by id
+        new JdbcTemplate(dataSource).update("UPDATE gift_certificate SET create_date = " +
+                "DATEADD('DAY', -MOD(certificate_id, 4), TIMESTAMP '2020-11-01 10:00:00')");
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(mock(Cache.class));
+        giftCertificateDao = new GiftCertificateDaoJdbc(dataSource, entityManagerFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.shutdown();
+    }
+
+    @Test
+    void shouldCountCertificatesNotTagRowsInPage() {
+        List<GiftCertificate> firstPage = giftCertificateDao.findAll(1L, 5L);
+        List<GiftCertificate> lastPage = giftCertificateDao.findAll(3L, 5L);
+
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), ids(firstPage));
+        assertEquals(4, firstPage.get(0).getTags().size());
+        assertEquals(Arrays.asList(11L, 12L, 13L, 14L, 15L), ids(lastPage));
+        assertEquals(Arrays.asList(6L, 7L, 8L), ids(giftCertificateDao.findAllAfter(5L, 3L)));
+    }
+
+    @Test
+    void shouldContinueKeysetPagesOfEverySortColumn() {
+        for (String sortParameter : Arrays.asList(null, "name", "createDate")) {
+            for (String sortOrder : Arrays.asList("ASC", "DESC")) {
+                CertificateSearchQuery query = new CertificateSearchQuery();
+                query.setSortParameter(sortParameter);
+                query.setSortOrder(sortOrder);
+                List<Long> expected = ids(giftCertificateDao.getCertificates(query, 1L, CERTIFICATES));
+
+                List<Long> walked = new ArrayList<>();
+                List<GiftCertificate> page = giftCertificateDao.getCertificatesAfter(query, null, null, 4L);
+                while (!page.isEmpty()) {
+                    walked.addAll(ids(page));
+                    GiftCertificate last = page.get(page.size() - 1);
+                    Object lastSortKey = sortParameter == null ? null
+                            : "name".equals(sortParameter) ? last.getName() : last.getCreateDate();
+                    page = giftCertificateDao.getCertificatesAfter(query, lastSortKey, last.getId(), 4L);
+                }
+
+                String sort = sortParameter + " " + sortOrder;
+                assertEquals(CERTIFICATES, expected.size(), sort);
+                assertEquals(expected, walked, sort);
+            }
+        }
+    }
+
+    @Test
+    void shouldKeepOtherTagsOfCertificatesFilteredByTag() {
+        CertificateSearchQuery query = new CertificateSearchQuery();
+        query.setTagName("Apple");
+
+        List<GiftCertificate> byTag = giftCertificateDao.getCertificates(query, 1L, 10L);
+        List<GiftCertificate> byAllTags = giftCertificateDao.findCertificatesByTags(Arrays.asList("Apple", "Music"), 1L, 10L);
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(byTag));
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(byAllTags));
+        for (GiftCertificate certificate : byTag) {
+            assertEquals(Arrays.asList("App", "Apple", "Electronics", "Music"), tagNames(certificate));
+        }
+        assertEquals(4, byAllTags.get(0).getTags().size());
+    }
+
+    @Test
+    void shouldFindCertificateWithoutTags() {
+        Long id = giftCertificateDao.save(GiftCertificate.builder()
+                .name("Without tags")
+                .description("Certificate without tags")
+                .price(BigDecimal.TEN)
+                .createDate(ZonedDateTime.now())
+                .lastUpdateDate(ZonedDateTime.now())
+                .duration(10)
+                .build());
+
+        Optional<GiftCertificate> certificate = giftCertificateDao.find(id);
+
+        assertTrue(certificate.isPresent());
+        assertEquals("Without tags", certificate.get().getName());
+        assertTrue(certificate.get().getTags().isEmpty());
+        assertFalse(giftCertificateDao.find(id + 1).isPresent());
+    }
+
+    private static List<Long> ids(List<GiftCertificate> certificates) {
+        return certificates.stream().map(GiftCertificate::getId).collect(Collectors.toList());
+    }
+
+    private static List<String> tagNames(GiftCertificate certificate) {
+        return certificate.getTags().stream().map(Tag::getName).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,18 @@
+package com.epam.esm.exception;
+
+/**
+ * @author Sergei Kristev
+ */
+public class OrderQueueFullException extends RuntimeException {
+    public OrderQueueFullException() {
+        super();
+    }
+
+    public OrderQueueFullException(String message) {
+        super(message);
+    }
+
+    public OrderQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
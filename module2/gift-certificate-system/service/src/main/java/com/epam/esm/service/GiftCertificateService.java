@@ -9,6 +9,7 @@ import java.util.List;
 public interface GiftCertificateService {
 
     List<GiftCertificate> getCertificates(CertificateSearchQuery query, Long page, Long pageSize);
+    List<GiftCertificate> getCertificatesAfter(CertificateSearchQuery query, String lastSortKey, Long lastId, Long pageSize);
     List<GiftCertificate> findCertificatesByTags(List<String> tagNames, Long page, Long pageSize);
     GiftCertificate findCertificateById(Long id);
     Long saveCertificate(GiftCertificate giftCertificate);
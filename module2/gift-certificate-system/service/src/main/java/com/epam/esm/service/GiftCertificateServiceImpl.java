@@ -20,8 +20,13 @@ import org.springframework.validation.BindingResult;
 import java.math.BigDecimal;
 import java.text.MessageFormat;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -37,6 +42,7 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
     private final OrderDao orderDao;
     private final GiftCertificateValidator certificateValidator;
     private final TagValidator tagValidator;
+    private final PopularTagIndex popularTagIndex;
 
     /**
      * Constructor accepts GiftCertificateDao and TagDao objects.
@@ -45,15 +51,18 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
      * @param tagDao               TagDao instance.
      * @param certificateValidator GiftCertificateValidator instance.
      * @param tagValidator         TagValidator instance.
+     * @param popularTagIndex      PopularTagIndex instance.
      */
     @Autowired
     public GiftCertificateServiceImpl(GiftCertificateDao giftCertificateDao, TagDao tagDao, OrderDao orderDao,
-                                      GiftCertificateValidator certificateValidator, TagValidator tagValidator) {
+                                      GiftCertificateValidator certificateValidator, TagValidator tagValidator,
+                                      PopularTagIndex popularTagIndex) {
         this.giftCertificateDao = giftCertificateDao;
         this.tagDao = tagDao;
         this.orderDao = orderDao;
         this.certificateValidator = certificateValidator;
         this.tagValidator = tagValidator;
+        this.popularTagIndex = popularTagIndex;
     }
 
 
@@ -96,21 +105,12 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
         if (giftCertificateDao.getCertificateByName(giftCertificate.getName()).isPresent()) {
             throw new IllegalArgumentException(MessageFormat.format("Certificate with name: {0} already exists", giftCertificate.getName()));
         }
-        List<Tag> oldTags = giftCertificate.getTags();
-        List<Tag> newTags = new ArrayList<>();
-        for (Tag tag : oldTags) {
-            BindingResult resultTagValidation = new BeanPropertyBindingResult(tag, "tag");
-            tagValidator.validate(tag, result);
-            Optional<Tag> currentTag = tagDao.findByTagName(tag.getName());
-            if (currentTag.isPresent()) {
-                tag.setId(currentTag.get().getId());
-            } else checkTag(result, tag, resultTagValidation);
-            newTags.add(tag);
-        }
+        List<Tag> newTags = resolveTags(giftCertificate.getTags());
         giftCertificate.setTags(new ArrayList<>());
         Long certificateId = giftCertificateDao.save(giftCertificate);
         giftCertificate.setTags(newTags);
         giftCertificateDao.update(giftCertificate);
+        popularTagIndex.certificateSaved(certificateId, tagIds(newTags));
 
         return certificateId;
     }
@@ -140,35 +140,72 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
             throw new InvalidInputDataException(MessageFormat.format("Unexpected certificate''s field: {0}, error code: {1}",
                     brokenField, errorCode));
         } else {
-            List<Tag> oldTags = giftCertificate.getTags();
-            List<Tag> newTags = new ArrayList<>();
-            for (Tag tag : oldTags) {
-                BindingResult resultTagValidation = new BeanPropertyBindingResult(tag, "tag");
-                tagValidator.validate(tag, result);
-                Optional<Tag> currentTag = tagDao.findByTagName(tag.getName());
-                if (currentTag.isPresent()) {
-                    tag.setId(currentTag.get().getId());
-                } else {
-                    checkTag(result, tag, resultTagValidation);
-                }
-                newTags.add(tag);
-            }
-            giftCertificate.setTags(newTags);
+            giftCertificate.setTags(resolveTags(giftCertificate.getTags()));
             giftCertificate.setLastUpdateDate(ZonedDateTime.now());
             giftCertificateDao.update(giftCertificate);
+            popularTagIndex.certificateSaved(giftCertificate.getId(), tagIds(giftCertificate.getTags()));
         }
     }
 
-    private void checkTag(BindingResult result, Tag tag, BindingResult resultTagValidation) {
-        if (resultTagValidation.hasErrors()) {
-            String brokenField = result.getFieldErrors().get(0).getField();
-            String errorCode = result.getFieldErrors().get(0).getCode();
-            throw new InvalidInputDataException(MessageFormat.format("Unexpected tag''s field: {0}, error code: {1}",
-                    brokenField, errorCode));
-        } else {
-            Long id = tagDao.save(tag);
-            tag.setId(id);
+    private List<Long> tagIds(List<Tag> tags) {
+        List<Long> tagIds = new ArrayList<>();
+        tags.forEach(tag -> tagIds.add(tag.getId()));
+        return tagIds;
+    }
+
+    /**
+     * Resolves certificate's tags in bulk.
+     * <p>
+     * Existing tags are found by names with a single query through <i>tagDao</i>, the missing ones
+     * are saved together. Tags with the same name are passed to the certificate once. Names are compared
+     * ignoring case, as the MySQL collation of the unique tag name does, so "apple" gets the existing "Apple".
+     *
+     * @param tags list of certificate's tags.
+     * @return list of persistent tags.
+     * @throws InvalidInputDataException Unexpected tag''s field: {0}, error code: {1}
+     */
+    private List<Tag> resolveTags(List<Tag> tags) {
+        Map<String, Tag> requestedTags = new LinkedHashMap<>();
+        for (Tag tag : tags) {
+            BindingResult resultTagValidation = new BeanPropertyBindingResult(tag, "tag");
+            tagValidator.validate(tag, resultTagValidation);
+            if (resultTagValidation.hasErrors()) {
+                String brokenField = resultTagValidation.getFieldErrors().get(0).getField();
+                String errorCode = resultTagValidation.getFieldErrors().get(0).getCode();
+                throw new InvalidInputDataException(MessageFormat.format("Unexpected tag''s field: {0}, error code: {1}",
+                        brokenField, errorCode));
+            }
+            requestedTags.putIfAbsent(normalize(tag.getName()), tag);
+        }
+        if (requestedTags.isEmpty()) {
+            return new ArrayList<>();
         }
+        List<String> names = new ArrayList<>();
+        requestedTags.values().forEach(tag -> names.add(tag.getName()));
+        Map<String, Tag> resolvedTags = new HashMap<>();
+        for (Tag tag : tagDao.findAllByTagNames(names)) {
+            resolvedTags.put(normalize(tag.getName()), tag);
+        }
+        List<Tag> missingTags = new ArrayList<>();
+        requestedTags.forEach((name, tag) -> {
+            if (!resolvedTags.containsKey(name)) {
+                missingTags.add(Tag.builder().name(tag.getName()).build());
+            }
+        });
+        if (!missingTags.isEmpty()) {
+            for (Tag tag : tagDao.saveAll(missingTags)) {
+                resolvedTags.put(normalize(tag.getName()), tag);
+            }
+        }
+        List<Tag> newTags = new ArrayList<>();
+        for (String name : requestedTags.keySet()) {
+            newTags.add(resolvedTags.get(name));
+        }
+        return newTags;
+    }
+
+    private static String normalize(String tagName) {
+        return tagName.toLowerCase(Locale.ROOT);
     }
 
     /**
@@ -192,6 +229,7 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
                 orderDao.update(order);
             }
             giftCertificateDao.delete(id);
+            popularTagIndex.certificateRemoved(id);
         } else {
             throw new GiftCertificateNotFoundException(MessageFormat.format("Gift certificate with id: {0} not found", id));
         }
@@ -219,6 +257,35 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
         return certificateList;
     }
 
+    /**
+     * Searches gift certificates placed right after the last seen one.
+     * <p>
+     * The last seen sort key is parsed according to the sort parameter of the query, so that rows are compared
+     * on the same column they are ordered by. The certificate id breaks ties between equal sort keys.
+     *
+     * @param query       CertificateSearchQuery
+     * @param lastSortKey sort key of the last seen certificate
+     * @param lastId      id of the last seen certificate
+     * @param pageSize    count certificates in response
+     * @return GiftCertificates list.
+     */
+    @Transactional
+    @Override
+    public List<GiftCertificate> getCertificatesAfter(CertificateSearchQuery query, String lastSortKey, Long lastId, Long pageSize) {
+        Object sortKey = null;
+        try {
+            if ("name".equals(query.getSortParameter())) {
+                sortKey = lastSortKey;
+            } else if ("createDate".equals(query.getSortParameter())) {
+                sortKey = ZonedDateTime.parse(lastSortKey);
+            }
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputDataException(MessageFormat.format("Cursor does not match sort parameter: {0}",
+                    query.getSortParameter()));
+        }
+        return giftCertificateDao.getCertificatesAfter(query, sortKey, lastId, pageSize);
+    }
+
     /**
      * Searches gift certificates by several tags.
      * <p>
@@ -6,10 +6,12 @@ import java.util.List;
 
 public interface OrderService {
     List<Order> getAllOrders(Long page, Long pageSize);
+    List<Order> getAllOrdersAfter(Long lastId, Long pageSize);
     Order getOrderById(Long id);
     Order makeOrder(Long userId, Long certificateId);
     void removeOrder(Long orderId);
     List<Order> getUserOrders(Long userId, Long page, Long pageSize);
+    List<Order> getUserOrdersAfter(Long userId, Long lastId, Long pageSize);
     Long findOrderTotalCountByUserId(Long userId);
     Long findOrderTotalCount();
 
@@ -28,19 +28,30 @@ public class OrderServiceImpl implements OrderService {
     private final OrderDao orderDao;
     private final UserDao userDao;
     private final GiftCertificateDao certificateDao;
+    private final TotalCountProvider totalCountProvider;
+    private final PopularTagIndex popularTagIndex;
+    private final OrderWriteBehind orderWriteBehind;
 
     /**
      * Constructor accepts UserDao object.
      *
-     * @param orderDao       OrderDao instance.
-     * @param userDao        UserDao instance.
-     * @param certificateDao GiftCertificateDao instance.
+     * @param orderDao           OrderDao instance.
+     * @param userDao            UserDao instance.
+     * @param certificateDao     GiftCertificateDao instance.
+     * @param totalCountProvider TotalCountProvider instance.
+     * @param popularTagIndex    PopularTagIndex instance.
+     * @param orderWriteBehind   OrderWriteBehind instance.
      */
     @Autowired
-    public OrderServiceImpl(OrderDao orderDao, UserDao userDao, GiftCertificateDao certificateDao) {
+    public OrderServiceImpl(OrderDao orderDao, UserDao userDao, GiftCertificateDao certificateDao,
+                            TotalCountProvider totalCountProvider, PopularTagIndex popularTagIndex,
+                            OrderWriteBehind orderWriteBehind) {
         this.orderDao = orderDao;
         this.userDao = userDao;
         this.certificateDao = certificateDao;
+        this.totalCountProvider = totalCountProvider;
+        this.popularTagIndex = popularTagIndex;
+        this.orderWriteBehind = orderWriteBehind;
     }
 
     /**
@@ -55,6 +66,18 @@ public class OrderServiceImpl implements OrderService {
         return orderDao.findAll(page, pageSize);
     }
 
+    /**
+     * Gets orders with id greater than the last seen one.
+     *
+     * @param lastId   Id of the last seen order.
+     * @param pageSize Count orders in response.
+     * @return Orders list.
+     */
+    @Override
+    public List<Order> getAllOrdersAfter(Long lastId, Long pageSize) {
+        return orderDao.findAllAfter(lastId, pageSize);
+    }
+
     /**
      * Create order on certificate.
      *
@@ -76,7 +99,12 @@ public class OrderServiceImpl implements OrderService {
                 .user(user)
                 .orderDate(ZonedDateTime.now())
                 .build();
+        if (orderWriteBehind.isStarted()) {
+            return orderWriteBehind.submit(order);
+        }
         Long orderId = orderDao.save(order);
+        totalCountProvider.orderAdded(userId);
+        popularTagIndex.orderAdded(userId, certificateId, order.getCost());
         Order orderFromDao = orderDao.find(orderId).orElseThrow(() -> new OrderNotFoundException(MessageFormat
                 .format("Order with id: {0} not found", orderId)));
         return orderFromDao;
@@ -102,9 +130,12 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     public void removeOrder(Long orderId) {
-        orderDao.find(orderId).orElseThrow(() -> new OrderNotFoundException(MessageFormat
+        Order order = orderDao.find(orderId).orElseThrow(() -> new OrderNotFoundException(MessageFormat
                 .format("Order with id: {0} not found", orderId)));
         orderDao.delete(orderId);
+        totalCountProvider.orderRemoved(order.getUser().getId());
+        popularTagIndex.orderRemoved(order.getUser().getId(),
+                order.getGiftCertificate() == null ? null : order.getGiftCertificate().getId(), order.getCost());
     }
 
 
@@ -123,6 +154,21 @@ public class OrderServiceImpl implements OrderService {
         return orderDao.getUserOrders(userId, page, pageSize);
     }
 
+    /**
+     * Gets user's orders with id greater than the last seen one.
+     *
+     * @param userId   User's id.
+     * @param lastId   Id of the last seen order.
+     * @param pageSize Count orders in response.
+     * @return List orders.
+     */
+    @Override
+    public List<Order> getUserOrdersAfter(Long userId, Long lastId, Long pageSize) {
+        userDao.find(userId).orElseThrow(() -> new UserNotFoundException(MessageFormat
+                .format("User with id: {0} not found", userId)));
+        return orderDao.getUserOrdersAfter(userId, lastId, pageSize);
+    }
+
     /**
      * Gets total count of user's orders.
      *
@@ -130,7 +176,7 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     public Long findOrderTotalCountByUserId(Long userId) {
-        return orderDao.findOrderTotalCountByUserId(userId);
+        return totalCountProvider.countUserOrders(userId);
     }
 
     /**
@@ -140,6 +186,6 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     public Long findOrderTotalCount() {
-        return orderDao.findOrderTotalCount();
+        return totalCountProvider.countOrders();
     }
 }
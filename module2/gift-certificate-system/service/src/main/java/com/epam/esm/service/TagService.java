@@ -7,6 +7,8 @@ public interface TagService {
 
     List<Tag> findAllTags(Long page, Long pageSize);
 
+    List<Tag> findAllTagsAfter(Long lastId, Long pageSize);
+
     Tag findTagById(Long id);
 
     Long saveTag(Tag tag);
@@ -25,17 +25,20 @@ public class TagServiceImpl implements TagService {
 
     private final TagDao tagDao;
     private final TagValidator tagValidator;
+    private final PopularTagIndex popularTagIndex;
 
     /**
      * Constructor accepts TagDao object.
      *
-     * @param tagDao       TagDao instance.
-     * @param tagValidator TagValidator instance.
+     * @param tagDao          TagDao instance.
+     * @param tagValidator    TagValidator instance.
+     * @param popularTagIndex PopularTagIndex instance.
      */
     @Autowired
-    public TagServiceImpl(TagDao tagDao, TagValidator tagValidator) {
+    public TagServiceImpl(TagDao tagDao, TagValidator tagValidator, PopularTagIndex popularTagIndex) {
         this.tagDao = tagDao;
         this.tagValidator = tagValidator;
+        this.popularTagIndex = popularTagIndex;
     }
 
     /**
@@ -48,6 +51,18 @@ public class TagServiceImpl implements TagService {
         return tagDao.findAll(page, pageSize);
     }
 
+    /**
+     * Gets tags with id greater than the last seen one.
+     *
+     * @param lastId   Id of the last seen tag.
+     * @param pageSize Count tags in response.
+     * @return Tags list.
+     */
+    @Override
+    public List<Tag> findAllTagsAfter(Long lastId, Long pageSize) {
+        return tagDao.findAllAfter(lastId, pageSize);
+    }
+
     /**
      * Gets tag by id.
      *
@@ -129,12 +144,15 @@ public class TagServiceImpl implements TagService {
         tagDao.find(id).orElseThrow(() ->
                 new TagNotFoundException(MessageFormat.format("Tag with id: {0} not found", id)));
         tagDao.delete(id);
+        popularTagIndex.tagRemoved(id);
     }
 
     @Override
     public Tag getUsersMostWidelyUsedTag() {
-        return tagDao.getUsersMostWidelyUsedTag().orElseThrow(() ->
-                new TagNotFoundException("Tag not found"));
+        Optional<Tag> tag = popularTagIndex.isReady()
+                ? popularTagIndex.findPopularTagId().flatMap(tagDao::find)
+                : tagDao.getUsersMostWidelyUsedTag();
+        return tag.orElseThrow(() -> new TagNotFoundException("Tag not found"));
     }
 
 }
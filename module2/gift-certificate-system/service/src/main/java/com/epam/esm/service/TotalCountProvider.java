@@ -0,0 +1,134 @@
+package com.epam.esm.service;
+
+import com.epam.esm.dao.OrderDao;
+import com.epam.esm.dao.UserDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Keeps total counts of orders and users in memory so that paged listings don't run a COUNT query per request.
+ * Each counter is loaded from the database on first use and then moved by the write operations after their
+ * transaction commits. Concurrent loads may leave a counter off by the writes that raced with them, and a write
+ * whose counter update is missed would keep it off, so a counter is loaded again once it is
+ * <i>total-counts.ttl</i> seconds old. At most <i>total-counts.cache-size</i> counters are kept, the least
+ * recently used one is dropped first.
+ */
+@Component
+public class TotalCountProvider {
+
+    private static final String ORDERS = "orders";
+    private static final String USERS = "users";
+    private static final String USER_ORDERS = "orders.user.";
+
+    private final OrderDao orderDao;
+    private final UserDao userDao;
+    private final long ttlMillis;
+    private final Map<String, Counter> counters;
+
+    /**
+     * Constructor accepts OrderDao and UserDao objects and the limits of the counters.
+     *
+     * @param orderDao  OrderDao instance.
+     * @param userDao   UserDao instance.
+     * @param cacheSize maximum number of counters.
+     * @param ttl       seconds after which a counter is loaded again.
+     */
+    @Autowired
+    public TotalCountProvider(OrderDao orderDao, UserDao userDao,
+                              @Value("${total-counts.cache-size:10000}") int cacheSize,
+                              @Value("${total-counts.ttl:60}") long ttl) {
+        this.orderDao = orderDao;
+        this.userDao = userDao;
+        this.ttlMillis = ttl * 1000;
+        this.counters = new LinkedHashMap<String, Counter>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Counter> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public Long countOrders() {
+        return count(ORDERS, orderDao::findOrderTotalCount);
+    }
+
+    public Long countUserOrders(Long userId) {
+        return count(USER_ORDERS + userId, () -> orderDao.findOrderTotalCountByUserId(userId));
+    }
+
+    public Long countUsers() {
+        return count(USERS, userDao::findUsersTotalCount);
+    }
+
+    public void orderAdded(Long userId) {
+        afterCommit(() -> {
+            add(ORDERS, 1);
+            add(USER_ORDERS + userId, 1);
+        });
+    }
+
+    public void orderRemoved(Long userId) {
+        afterCommit(() -> {
+            add(ORDERS, -1);
+            add(USER_ORDERS + userId, -1);
+        });
+    }
+
+    private Long count(String key, LongSupplier loader) {
+        long now = System.currentTimeMillis();
+        synchronized (counters) {
+            Counter counter = counters.get(key);
+            if (counter != null && counter.expiresAt > now) {
+                return counter.value.get();
+            }
+        }
+        long value = loader.getAsLong();
+        synchronized (counters) {
+            counters.put(key, new Counter(value, now + ttlMillis));
+        }
+        return value;
+    }
+
+    private void add(String key, long delta) {
+        Counter counter;
+        synchronized (counters) {
+            counter = counters.get(key);
+        }
+        if (counter != null) {
+            counter.value.addAndGet(delta);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static class Counter {
+        private final AtomicLong value;
+        private final long expiresAt;
+
+        private Counter(long value, long expiresAt) {
+            this.value = new AtomicLong(value);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
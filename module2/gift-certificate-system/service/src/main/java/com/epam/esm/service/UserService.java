@@ -9,6 +9,7 @@ import java.util.Optional;
 
 public interface UserService {
     List<User> getAllUsers(Long page, Long pageSize);
+    List<User> getAllUsersAfter(Long lastId, Long pageSize);
     User getUserById(Long id);
     Long findUsersTotalCount();
 }
@@ -18,15 +18,18 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserDao userDao;
+    private final TotalCountProvider totalCountProvider;
 
     /**
      * Constructor accepts UserDao object.
      *
-     * @param userDao UserDao instance.
+     * @param userDao            UserDao instance.
+     * @param totalCountProvider TotalCountProvider instance.
      */
     @Autowired
-    public UserServiceImpl(UserDao userDao) {
+    public UserServiceImpl(UserDao userDao, TotalCountProvider totalCountProvider) {
         this.userDao = userDao;
+        this.totalCountProvider = totalCountProvider;
     }
 
     /**
@@ -41,6 +44,18 @@ public class UserServiceImpl implements UserService {
         return userDao.findAll(page, pageSize);
     }
 
+    /**
+     * Gets users with id greater than the last seen one.
+     *
+     * @param lastId   Id of the last seen user.
+     * @param pageSize Count users in response.
+     * @return Users list.
+     */
+    @Override
+    public List<User> getAllUsersAfter(Long lastId, Long pageSize) {
+        return userDao.findAllAfter(lastId, pageSize);
+    }
+
     /**
      * Gets user by id.
      *
@@ -60,6 +75,6 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public Long findUsersTotalCount() {
-        return userDao.findUsersTotalCount();
+        return totalCountProvider.countUsers();
     }
 }
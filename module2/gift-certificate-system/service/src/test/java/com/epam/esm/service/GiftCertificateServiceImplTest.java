@@ -11,11 +11,15 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -37,7 +41,7 @@ class GiftCertificateServiceImplTest {
         this.giftCertificateValidator = mock(GiftCertificateValidator.class);
         this.tagValidator = mock(TagValidator.class);
         this.giftCertificateService = new GiftCertificateServiceImpl(giftCertificateDao, tagDao, orderDao,
-                giftCertificateValidator, tagValidator);
+                giftCertificateValidator, tagValidator, new PopularTagIndex(orderDao, giftCertificateDao));
 
     }
 
@@ -100,6 +104,48 @@ class GiftCertificateServiceImplTest {
         Mockito.verify(giftCertificateDao, Mockito.times(1)).update(certificate);
     }
 
+    @Test
+    void shouldResolveTagsInBulk() {
+        GiftCertificate certificate = new GiftCertificate();
+        List<Tag> tags = new ArrayList<>();
+        tags.add(Tag.builder().name("Apple").build());
+        tags.add(Tag.builder().name("New tag").build());
+        tags.add(Tag.builder().name("Apple").build());
+        certificate.setTags(tags);
+        certificate.setId(1L);
+        when(tagDao.findAllByTagNames(anyCollection())).thenReturn(Collections.singletonList(new Tag(1L, "Apple", null)));
+        when(tagDao.saveAll(anyList())).thenReturn(Collections.singletonList(new Tag(2L, "New tag", null)));
+
+        giftCertificateService.updateCertificate(certificate);
+
+        assertEquals(2, certificate.getTags().size());
+        assertEquals(1L, certificate.getTags().get(0).getId());
+        assertEquals(2L, certificate.getTags().get(1).getId());
+        Mockito.verify(tagDao, Mockito.times(1)).findAllByTagNames(anyCollection());
+        Mockito.verify(tagDao, Mockito.times(1)).saveAll(anyList());
+        Mockito.verify(tagDao, Mockito.never()).findByTagName(anyString());
+    }
+
+    @Test
+    void shouldReuseExistingTagOfAnotherCase() {
+        GiftCertificate certificate = new GiftCertificate();
+        List<Tag> tags = new ArrayList<>();
+        tags.add(Tag.builder().name("apple").build());
+        tags.add(Tag.builder().name("New tag").build());
+        tags.add(Tag.builder().name("NEW TAG").build());
+        certificate.setTags(tags);
+        certificate.setId(1L);
+        when(tagDao.findAllByTagNames(anyCollection())).thenReturn(Collections.singletonList(new Tag(1L, "Apple", null)));
+        when(tagDao.saveAll(anyList())).thenReturn(Collections.singletonList(new Tag(2L, "New tag", null)));
+
+        giftCertificateService.updateCertificate(certificate);
+
+        assertEquals(2, certificate.getTags().size());
+        assertEquals(1L, certificate.getTags().get(0).getId());
+        assertEquals(2L, certificate.getTags().get(1).getId());
+        Mockito.verify(tagDao, Mockito.times(1)).saveAll(Collections.singletonList(Tag.builder().name("New tag").build()));
+    }
+
     @Test
     void shouldDeleteCertificate() {
 
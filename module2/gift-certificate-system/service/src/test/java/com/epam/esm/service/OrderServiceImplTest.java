@@ -30,7 +30,8 @@ class OrderServiceImplTest {
         this.orderDao = mock(OrderDaoImpl.class);
         this.userDao = mock(UserDaoImpl.class);
         this.certificateDao = mock(GiftCertificateDaoImpl.class);
-        this.orderService = new OrderServiceImpl(orderDao, userDao, certificateDao);
+        this.orderService = new OrderServiceImpl(orderDao, userDao, certificateDao, new TotalCountProvider(orderDao, userDao, 10, 60),
+                new PopularTagIndex(orderDao, certificateDao), mock(OrderWriteBehind.class));
     }
 
     @Test
@@ -44,6 +45,18 @@ class OrderServiceImplTest {
         Mockito.verify(orderDao, Mockito.times(1)).findAll(1L, 20L);
     }
 
+    @Test
+    void shouldReturnOrdersAfterLastSeenId() {
+
+        List<Order> orders = mock(ArrayList.class);
+        when(orders.size()).thenReturn(20);
+        when(orderDao.findAllAfter(100L, 20L)).thenReturn(orders);
+
+        assertEquals(20, orderService.getAllOrdersAfter(100L, 20L).size());
+        Mockito.verify(orderDao, Mockito.times(1)).findAllAfter(100L, 20L);
+        Mockito.verify(orderDao, Mockito.never()).findAll(Mockito.anyLong(), Mockito.anyLong());
+    }
+
     @Test
     void shouldFindOrderById() {
 
@@ -69,11 +82,32 @@ class OrderServiceImplTest {
     @Test
     void shouldRemoveOrder() {
         Order order = mock(Order.class);
+        when(order.getUser()).thenReturn(mock(User.class));
         when(orderDao.find(1L)).thenReturn(Optional.ofNullable(order));
         orderService.removeOrder(1L);
         Mockito.verify(orderDao, Mockito.times(1)).delete(1L);
     }
 
+    @Test
+    void shouldCountOrdersOnceAndFollowRemovals() {
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(1L);
+        Order order = mock(Order.class);
+        when(order.getUser()).thenReturn(user);
+        when(orderDao.find(1L)).thenReturn(Optional.of(order));
+        when(orderDao.findOrderTotalCount()).thenReturn(10L);
+        when(orderDao.findOrderTotalCountByUserId(1L)).thenReturn(3L);
+
+        assertEquals(10L, orderService.findOrderTotalCount());
+        assertEquals(3L, orderService.findOrderTotalCountByUserId(1L));
+        orderService.removeOrder(1L);
+
+        assertEquals(9L, orderService.findOrderTotalCount());
+        assertEquals(2L, orderService.findOrderTotalCountByUserId(1L));
+        Mockito.verify(orderDao, Mockito.times(1)).findOrderTotalCount();
+        Mockito.verify(orderDao, Mockito.times(1)).findOrderTotalCountByUserId(1L);
+    }
+
     @Test
     void shouldReturnUsersOrders() {
 
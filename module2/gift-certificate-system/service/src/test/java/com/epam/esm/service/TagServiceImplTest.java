@@ -1,5 +1,9 @@
 package com.epam.esm.service;
 
+import com.epam.esm.dao.GiftCertificateDao;
+import com.epam.esm.dao.GiftCertificateDaoImpl;
+import com.epam.esm.dao.OrderDao;
+import com.epam.esm.dao.OrderDaoImpl;
 import com.epam.esm.dao.TagDao;
 import com.epam.esm.dao.TagDaoImpl;
 import com.epam.esm.exception.TagNotFoundException;
@@ -9,7 +13,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,12 +30,18 @@ class TagServiceImplTest {
 
     private TagDao tagDao;
     private TagValidator tagValidator;
+    private OrderDao orderDao;
+    private GiftCertificateDao certificateDao;
+    private PopularTagIndex popularTagIndex;
 
     @BeforeEach
     void setUp() {
         this.tagDao = mock(TagDaoImpl.class);
         this.tagValidator = mock(TagValidator.class);
-        this.tagService = new TagServiceImpl(tagDao, tagValidator);
+        this.orderDao = mock(OrderDaoImpl.class);
+        this.certificateDao = mock(GiftCertificateDaoImpl.class);
+        this.popularTagIndex = new PopularTagIndex(orderDao, certificateDao);
+        this.tagService = new TagServiceImpl(tagDao, tagValidator, popularTagIndex);
 
     }
 
@@ -143,4 +155,16 @@ class TagServiceImplTest {
         });
         Mockito.verify(tagDao, Mockito.times(1)).getUsersMostWidelyUsedTag();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldFindUsersMostWidelyUsedTagInIndex() {
+        Tag tag = mock(Tag.class);
+        when(certificateDao.findTagAssignments()).thenReturn(Collections.singletonList(new Object[]{2L, 1L}));
+        when(orderDao.findOrderTotals()).thenReturn(Collections.singletonList(new Object[]{1L, 1L, 3L, new BigDecimal("30")}));
+        when(tagDao.find(2L)).thenReturn(Optional.of(tag));
+        popularTagIndex.rebuild();
+
+        assertEquals(tag, tagService.getUsersMostWidelyUsedTag());
+        Mockito.verify(tagDao, Mockito.never()).getUsersMostWidelyUsedTag();
+    }
+}
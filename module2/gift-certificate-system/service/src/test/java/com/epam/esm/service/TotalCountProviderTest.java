@@ -0,0 +1,73 @@
+package com.epam.esm.service;
+
+import com.epam.esm.dao.OrderDao;
+import com.epam.esm.dao.OrderDaoImpl;
+import com.epam.esm.dao.UserDao;
+import com.epam.esm.dao.UserDaoImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TotalCountProviderTest {
+
+    private TotalCountProvider totalCountProvider;
+    private OrderDao orderDao;
+    private UserDao userDao;
+
+    @BeforeEach
+    void setUp() {
+        this.orderDao = mock(OrderDaoImpl.class);
+        this.userDao = mock(UserDaoImpl.class);
+        this.totalCountProvider = new TotalCountProvider(orderDao, userDao, 10, 60);
+    }
+
+    @Test
+    void shouldCountOrdersOnceAndFollowWrites() {
+        when(orderDao.findOrderTotalCount()).thenReturn(5L);
+        when(orderDao.findOrderTotalCountByUserId(2L)).thenReturn(4L);
+
+        assertEquals(5L, totalCountProvider.countOrders());
+        assertEquals(4L, totalCountProvider.countUserOrders(2L));
+
+        totalCountProvider.orderAdded(2L);
+        totalCountProvider.orderAdded(2L);
+        totalCountProvider.orderRemoved(2L);
+
+        assertEquals(6L, totalCountProvider.countOrders());
+        assertEquals(5L, totalCountProvider.countUserOrders(2L));
+        Mockito.verify(orderDao, Mockito.times(1)).findOrderTotalCount();
+        Mockito.verify(orderDao, Mockito.times(1)).findOrderTotalCountByUserId(2L);
+    }
+
+    @Test
+    void shouldDropLeastRecentlyUsedUserCounter() {
+        totalCountProvider = new TotalCountProvider(orderDao, userDao, 2, 60);
+        when(orderDao.findOrderTotalCountByUserId(1L)).thenReturn(1L);
+        when(orderDao.findOrderTotalCountByUserId(2L)).thenReturn(2L);
+        when(orderDao.findOrderTotalCountByUserId(3L)).thenReturn(3L);
+
+        totalCountProvider.countUserOrders(1L);
+        totalCountProvider.countUserOrders(2L);
+        totalCountProvider.countUserOrders(1L);
+        totalCountProvider.countUserOrders(3L);
+        totalCountProvider.countUserOrders(1L);
+        totalCountProvider.countUserOrders(2L);
+
+        Mockito.verify(orderDao, Mockito.times(1)).findOrderTotalCountByUserId(1L);
+        Mockito.verify(orderDao, Mockito.times(2)).findOrderTotalCountByUserId(2L);
+    }
+
+    @Test
+    void shouldLoadCountAgainAfterTtl() {
+        totalCountProvider = new TotalCountProvider(orderDao, userDao, 10, 0);
+        when(userDao.findUsersTotalCount()).thenReturn(3L, 4L);
+
+        assertEquals(3L, totalCountProvider.countUsers());
+        assertEquals(4L, totalCountProvider.countUsers());
+        Mockito.verify(userDao, Mockito.times(2)).findUsersTotalCount();
+    }
+}
@@ -1,5 +1,6 @@
 package com.epam.esm.service;
 
+import com.epam.esm.dao.OrderDaoImpl;
 import com.epam.esm.dao.UserDao;
 import com.epam.esm.dao.UserDaoImpl;
 import com.epam.esm.exception.UserNotFoundException;
@@ -26,7 +27,7 @@ class UserServiceImplTest {
     @BeforeEach
     void setUp() {
         this.userDao = mock(UserDaoImpl.class);
-        this.userService = new UserServiceImpl(userDao);
+        this.userService = new UserServiceImpl(userDao, new TotalCountProvider(mock(OrderDaoImpl.class), userDao, 10, 60));
     }
 
     @Test
@@ -5,15 +5,10 @@ import com.epam.esm.exception.InvalidInputDataException;
 import com.epam.esm.model.GiftCertificate;
 import com.epam.esm.model.Tag;
 import com.epam.esm.service.GiftCertificateService;
+import com.epam.esm.service.PatchService;
 import com.epam.esm.validator.CertificateSearchValidator;
 import com.epam.esm.validator.ValidationUtils;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.github.fge.jsonpatch.JsonPatch;
 import com.github.fge.jsonpatch.JsonPatchException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
@@ -28,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
+import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.List;
 import java.util.Optional;
@@ -47,18 +43,26 @@ public class GiftCertificateController {
 
     private final GiftCertificateService giftCertificateService;
     private final CertificateSearchValidator searchValidator;
+    private final LinkFactory linkFactory;
+    private final PatchService patchService;
 
     /**
      * Constructor accepts service layer objects and certificate validator.
      *
      * @param giftCertificateService GiftCertificateService instance.
      * @param searchValidator        CertificateSearchValidator instance.
+     * @param linkFactory            LinkFactory instance.
+     * @param patchService           PatchService instance.
      */
     @Autowired
     public GiftCertificateController(GiftCertificateService giftCertificateService,
-                                     CertificateSearchValidator searchValidator) {
+                                     CertificateSearchValidator searchValidator,
+                                     LinkFactory linkFactory,
+                                     PatchService patchService) {
         this.giftCertificateService = giftCertificateService;
         this.searchValidator = searchValidator;
+        this.linkFactory = linkFactory;
+        this.patchService = patchService;
     }
 
     /**
@@ -84,28 +88,28 @@ public class GiftCertificateController {
     /**
      * Updates gift certificate.
      * <p>
-     * First, finds a certificate by ID. Subsequently, if the certificate record is found, invokes
-     * the applyPatchToGiftCertificate(patch, giftCertificate) method. Then applies the JsonPatch to the certificate.
+     * First, finds a certificate by ID. Subsequently, if the certificate record is found, applies
+     * the JSON Patch to it through the <i>patchService</i>.
      * Is returning <i>ResponseEntity</i> with <i>HttpStatus.NO_CONTENT</i>.
      *
      * @param id        GiftCertificate id.
-     * @param patch     JsonPatch.
+     * @param patch     JSON Patch document.
      * @param ucBuilder UriComponentsBuilder instance.
      * @return ResponseEntity.
      */
     @PatchMapping(path = "certificates/{id}", consumes = "application/json-patch+json")
     public ResponseEntity<GiftCertificate> updateGiftCertificate(@PathVariable Long id,
-                                                                 @RequestBody JsonPatch patch,
+                                                                 @RequestBody JsonNode patch,
                                                                  UriComponentsBuilder ucBuilder) {
         try {
             GiftCertificate oldCertificate = giftCertificateService.findCertificateById(id);
-            GiftCertificate certificatePatched = applyPatchToGiftCertificate(patch, oldCertificate);
+            GiftCertificate certificatePatched = patchService.applyPatch(patch, oldCertificate, GiftCertificate.class);
             giftCertificateService.updateCertificate(certificatePatched);
             HttpHeaders headers = new HttpHeaders();
             headers.setLocation(ucBuilder.path("/certificates/{id}").buildAndExpand(certificatePatched.getId()).toUri());
             return new ResponseEntity<>(headers, HttpStatus.NO_CONTENT);
 
-        } catch (JsonPatchException | JsonProcessingException e) {
+        } catch (JsonPatchException | IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -156,12 +160,10 @@ public class GiftCertificateController {
         GiftCertificate certificate = giftCertificateService.findCertificateById(id);
         List<Tag> tags = certificate.getTags();
         tags.forEach(tag -> {
-            Link selfLink = linkTo(methodOn(TagController.class)
-                    .findTagById(tag.getId())).withSelfRel();
+            Link selfLink = linkFactory.tagLink(tag.getId());
             tag.add(selfLink);
         });
-        Link selfLink = linkTo(methodOn(GiftCertificateController.class)
-                .findCertificateById(certificate.getId())).withSelfRel();
+        Link selfLink = linkFactory.certificateLink(certificate.getId());
         certificate.add(selfLink);
         return certificate;
     }
@@ -179,6 +181,7 @@ public class GiftCertificateController {
      * @param sortOrder         value of "sort_order"
      * @param page              page's number
      * @param pageSize          page size
+     * @param after             cursor of the last seen certificate, switches the search to keyset mode
      * @return GiftCertificates list.
      */
     @GetMapping(value = "/certificates", produces = {"application/hal+json"})
@@ -189,7 +192,8 @@ public class GiftCertificateController {
                                                              @RequestParam(value = "sort") Optional<String> sortParameter,
                                                              @RequestParam(value = "sort_order") Optional<String> sortOrder,
                                                              @RequestParam(value = "page") Optional<Long> page,
-                                                             @RequestParam(value = "page_size") Optional<Long> pageSize
+                                                             @RequestParam(value = "page_size") Optional<Long> pageSize,
+                                                             @RequestParam(value = "after") Optional<String> after
     ) {
         Long pageNumber = page.orElse(DEFAULT_PAGE_NUMBER);
         Long pageSizeNumber = pageSize.orElse(DEFAULT_PAGE_SIZE);
@@ -213,34 +217,33 @@ public class GiftCertificateController {
             throw new InvalidInputDataException(MessageFormat.format("Unexpected certificate''s field: {0}, error code: {1}",
                     brokenField, errorCode));
         }
-        certificateList = giftCertificateService.getCertificates(query, pageNumber, pageSizeNumber);
+        if (after.isPresent()) {
+            PageCursor cursor = PageCursor.decode(after.get());
+            certificateList = giftCertificateService.getCertificatesAfter(query, cursor.getSortKey(), cursor.getId(), pageSizeNumber);
+        } else {
+            certificateList = giftCertificateService.getCertificates(query, pageNumber, pageSizeNumber);
+        }
 
         for (GiftCertificate certificate : certificateList) {
-            Link selfLink = linkTo(methodOn(GiftCertificateController.class)
-                    .findCertificateById(certificate.getId())).withSelfRel();
+            Link selfLink = linkFactory.certificateLink(certificate.getId());
             certificate.add(selfLink);
         }
         Link link = linkTo(GiftCertificateController.class).slash("certificates").withSelfRel();
-        return new CollectionModel<>(certificateList, link);
-    }
-
-    /**
-     * Applies JsonPatch to certificate.
-     * <p>
-     * This method applies the JsonPatch to the certificate.
-     *
-     * @param patch             JsonPatch
-     * @param targetCertificate GiftCertificate instance
-     * @return patched GiftCertificate instance.
-     */
-    private GiftCertificate applyPatchToGiftCertificate(JsonPatch patch, GiftCertificate targetCertificate)
-            throws JsonPatchException, JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        JsonNode patched = patch.apply(objectMapper.convertValue(targetCertificate, JsonNode.class));
-        return objectMapper.treeToValue(patched, GiftCertificate.class);
+        CollectionModel<GiftCertificate> collectionModel = new CollectionModel<>(certificateList, link);
+        if (certificateList.size() == pageSizeNumber) {
+            GiftCertificate last = certificateList.get(certificateList.size() - 1);
+            Object sortKey = last.getId();
+            if ("name".equals(query.getSortParameter())) {
+                sortKey = last.getName();
+            } else if ("createDate".equals(query.getSortParameter())) {
+                sortKey = last.getCreateDate();
+            }
+            String nextCursor = PageCursor.of(sortKey, last.getId()).encode();
+            collectionModel.add(linkTo(methodOn(GiftCertificateController.class)
+                    .findCertificates(tagName, partOfName, partOfDescription, sortParameter, sortOrder,
+                            Optional.empty(), Optional.of(pageSizeNumber), Optional.of(nextCursor))).withRel("next"));
+        }
+        return collectionModel;
     }
 
 
@@ -267,8 +270,7 @@ public class GiftCertificateController {
 
         List<GiftCertificate> certificates = giftCertificateService.findCertificatesByTags(tagNames, pageNumber, pageSizeNumber);
         for (GiftCertificate certificate : certificates) {
-            Link selfLink = linkTo(methodOn(GiftCertificateController.class)
-                    .findCertificateById(certificate.getId())).withSelfRel();
+            Link selfLink = linkFactory.certificateLink(certificate.getId());
             certificate.add(selfLink);
         }
         Link link = linkTo(GiftCertificateController.class).slash("certificates").withSelfRel();
@@ -294,12 +296,10 @@ public class GiftCertificateController {
         GiftCertificate certificate = giftCertificateService.updateSingleCertificateField(id, fieldName, fieldValue);
         List<Tag> tags = certificate.getTags();
         tags.forEach(tag -> {
-            Link selfLink = linkTo(methodOn(TagController.class)
-                    .findTagById(tag.getId())).withRel("tag");
+            Link selfLink = linkFactory.tagLink(tag.getId(), "tag");
             tag.add(selfLink);
         });
-        Link selfLink = linkTo(methodOn(GiftCertificateController.class)
-                .findCertificateById(certificate.getId())).withRel("certificate");
+        Link selfLink = linkFactory.certificateLink(certificate.getId(), "certificate");
         certificate.add(selfLink);
         return certificate;
     }
@@ -0,0 +1,70 @@
+package com.epam.esm.controller;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Builds links to single resources by appending the id to a path template. The base URI of the resource
+ * controllers is resolved once per request, instead of creating a <i>methodOn</i> invocation proxy and
+ * resolving the URI for every item of a page. The templates mirror the "{id}" mappings of the controllers.
+ */
+@Component
+public class LinkFactory {
+
+    private static final String BASE_URI_ATTRIBUTE = LinkFactory.class.getName() + ".baseUri";
+    private static final String CERTIFICATE_TEMPLATE = "/certificates/";
+    private static final String TAG_TEMPLATE = "/tags/";
+    private static final String ORDER_TEMPLATE = "/orders/";
+    private static final String USER_TEMPLATE = "/users/";
+
+    public Link certificateLink(Long id) {
+        return certificateLink(id, IanaLinkRelations.SELF.value());
+    }
+
+    public Link certificateLink(Long id, String rel) {
+        return Link.of(baseUri() + CERTIFICATE_TEMPLATE + id, rel);
+    }
+
+    public Link tagLink(Long id) {
+        return tagLink(id, IanaLinkRelations.SELF.value());
+    }
+
+    public Link tagLink(Long id, String rel) {
+        return Link.of(baseUri() + TAG_TEMPLATE + id, rel);
+    }
+
+    public Link orderLink(Long id, String rel) {
+        return Link.of(baseUri() + ORDER_TEMPLATE + id, rel);
+    }
+
+    public Link userLink(Long id, String rel) {
+        return Link.of(baseUri() + USER_TEMPLATE + id, rel);
+    }
+
+    /**
+     * All resource controllers share the class level mapping, so one base URI serves every template.
+     */
+    private String baseUri() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return resolveBaseUri();
+        }
+        String baseUri = (String) requestAttributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (baseUri == null) {
+            baseUri = resolveBaseUri();
+            requestAttributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+        }
+        return baseUri;
+    }
+
+    private String resolveBaseUri() {
+        return linkTo(GiftCertificateController.class).toUri().toString();
+    }
+}
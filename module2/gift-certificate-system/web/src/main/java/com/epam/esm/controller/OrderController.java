@@ -28,15 +28,19 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class OrderController {
 
     private final OrderService orderService;
+    private final LinkFactory linkFactory;
 
     /**
      * Accepts service layer objects.
      *
      * @param orderService OrderService instance.
+     * @param linkFactory  LinkFactory instance.
      */
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService,
+                           LinkFactory linkFactory) {
         this.orderService = orderService;
+        this.linkFactory = linkFactory;
     }
 
     /**
@@ -44,41 +48,64 @@ public class OrderController {
      *
      * @param page     page's number
      * @param pageSize page size
+     * @param after    cursor of the last seen order, switches the listing to keyset mode
      * @return Orders list.
      */
     @ResponseStatus(HttpStatus.OK)
     @GetMapping(value = "/orders", produces = {"application/hal+json"})
     public CollectionModel<Order> findAllOrders(@RequestParam(value = "page") Optional<Long> page,
-                                                @RequestParam(value = "page_size") Optional<Long> pageSize) {
+                                                @RequestParam(value = "page_size") Optional<Long> pageSize,
+                                                @RequestParam(value = "after") Optional<String> after) {
         long pageNumber = page.orElse(DEFAULT_PAGE_NUMBER);
         long pageSizeNumber = pageSize.orElse(DEFAULT_PAGE_SIZE);
         ValidationUtils.checkPaginationData(pageNumber, pageSizeNumber);
 
+        Link orders = linkTo(OrderController.class).slash("orders").withRel("ordersList");
+
+        if (after.isPresent()) {
+            List<Order> orderList = orderService.getAllOrdersAfter(PageCursor.decode(after.get()).getId(), pageSizeNumber);
+            addCurrentOrderLinks(orderList);
+            CollectionModel<Order> collectionModel = new CollectionModel(orderList, orders);
+            addNextCursorLink(collectionModel, orderList, pageSizeNumber);
+            return collectionModel;
+        }
+
         List<Order> orderList = orderService.getAllOrders(pageNumber, pageSizeNumber);
         long totalCount = orderService.findOrderTotalCount();
         double totalPages = Math.ceil((double) totalCount / (double) pageSizeNumber);
-        for (Order order : orderList) {
-            Link selfLink = linkTo(methodOn(OrderController.class)
-                    .findOrderById(order.getId())).withRel("currentOrder");
-            order.add(selfLink);
-        }
-
-        Link orders = linkTo(OrderController.class).slash("orders").withRel("ordersList");
+        addCurrentOrderLinks(orderList);
 
         CollectionModel<Order> collectionModel = new CollectionModel(orderList, orders);
         if (pageNumber > 1) {
             Link previousPage = linkTo(methodOn(OrderController.class)
-                    .findAllOrders(Optional.of(pageNumber - 1), pageSize)).withRel("previousPage");
+                    .findAllOrders(Optional.of(pageNumber - 1), pageSize, Optional.empty())).withRel("previousPage");
             collectionModel.add(previousPage);
         }
         if (pageNumber < totalPages) {
             Link nextPage = linkTo(methodOn(OrderController.class)
-                    .findAllOrders(Optional.of(pageNumber + 1), pageSize)).withRel("nextPage");
+                    .findAllOrders(Optional.of(pageNumber + 1), pageSize, Optional.empty())).withRel("nextPage");
             collectionModel.add(nextPage);
         }
+        addNextCursorLink(collectionModel, orderList, pageSizeNumber);
         return collectionModel;
     }
 
+    private void addCurrentOrderLinks(List<Order> orderList) {
+        for (Order order : orderList) {
+            Link selfLink = linkFactory.orderLink(order.getId(), "currentOrder");
+            order.add(selfLink);
+        }
+    }
+
+    private void addNextCursorLink(CollectionModel<Order> collectionModel, List<Order> orderList, long pageSize) {
+        if (orderList.size() == pageSize) {
+            Order last = orderList.get(orderList.size() - 1);
+            String after = PageCursor.of(last.getId(), last.getId()).encode();
+            collectionModel.add(linkTo(methodOn(OrderController.class)
+                    .findAllOrders(Optional.empty(), Optional.of(pageSize), Optional.of(after))).withRel("next"));
+        }
+    }
+
     /**
      * Gets order by id.
      *
@@ -104,10 +131,9 @@ public class OrderController {
     }
 
     private Order addHateoasLinksToOrder(Order order) {
-        Link selfLink = linkTo(methodOn(OrderController.class)
-                .findOrderById(order.getId())).withRel("currentOrder");
+        Link selfLink = linkFactory.orderLink(order.getId(), "currentOrder");
         Link ordersLink = linkTo(methodOn(OrderController.class)
-                .findAllOrders(Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE))).withRel("ordersList");
+                .findAllOrders(Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE), Optional.empty())).withRel("ordersList");
         order.add(ordersLink);
         order.add(selfLink);
         return order;
@@ -119,40 +145,64 @@ public class OrderController {
      * @param id       User id.
      * @param page     page's number
      * @param pageSize page size
+     * @param after    cursor of the last seen order, switches the listing to keyset mode
      * @return Order instance.
      */
     @ResponseStatus(HttpStatus.OK)
     @GetMapping(value = "/users/{id}/orders", produces = {"application/hal+json"})
     public CollectionModel<Order> getUserOrders(@PathVariable Long id,
                                                 @RequestParam(value = "page") Optional<Long> page,
-                                                @RequestParam(value = "page_size") Optional<Long> pageSize
+                                                @RequestParam(value = "page_size") Optional<Long> pageSize,
+                                                @RequestParam(value = "after") Optional<String> after
     ) {
         long pageNumber = page.orElse(DEFAULT_PAGE_NUMBER);
         long pageSizeNumber = pageSize.orElse(DEFAULT_PAGE_SIZE);
 
         ValidationUtils.checkPaginationData(pageNumber, pageSizeNumber);
+
+        Link orders = linkTo(OrderController.class).slash("orders").withRel("orders");
+
+        if (after.isPresent()) {
+            List<Order> orderList = orderService.getUserOrdersAfter(id, PageCursor.decode(after.get()).getId(), pageSizeNumber);
+            addUserOrderLinks(orderList);
+            CollectionModel<Order> collectionModel = new CollectionModel(orderList, orders);
+            addNextUserOrdersCursorLink(id, collectionModel, orderList, pageSizeNumber);
+            return collectionModel;
+        }
+
         List<Order> orderList = orderService.getUserOrders(id, pageNumber, pageSizeNumber);
         long totalCount = orderService.findOrderTotalCountByUserId(id);
         double totalPages = Math.ceil((double) totalCount / (double) pageSizeNumber);
-        for (Order order : orderList) {
-            Link selfLink = linkTo(methodOn(OrderController.class)
-                    .findOrderById(order.getId())).withRel("order");
-            order.add(selfLink);
-        }
-
-        Link orders = linkTo(OrderController.class).slash("orders").withRel("orders");
+        addUserOrderLinks(orderList);
 
         CollectionModel<Order> collectionModel = new CollectionModel(orderList, orders);
         if (pageNumber > 1) {
             Link previousPage = linkTo(methodOn(OrderController.class)
-                    .getUserOrders(id, Optional.of(pageNumber - 1), pageSize)).withRel("previousPage");
+                    .getUserOrders(id, Optional.of(pageNumber - 1), pageSize, Optional.empty())).withRel("previousPage");
             collectionModel.add(previousPage);
         }
         if (pageNumber < totalPages) {
             Link nextPage = linkTo(methodOn(OrderController.class)
-                    .getUserOrders(id, Optional.of(pageNumber + 1), pageSize)).withRel("nextPage");
+                    .getUserOrders(id, Optional.of(pageNumber + 1), pageSize, Optional.empty())).withRel("nextPage");
             collectionModel.add(nextPage);
         }
+        addNextUserOrdersCursorLink(id, collectionModel, orderList, pageSizeNumber);
         return collectionModel;
     }
+
+    private void addUserOrderLinks(List<Order> orderList) {
+        for (Order order : orderList) {
+            Link selfLink = linkFactory.orderLink(order.getId(), "order");
+            order.add(selfLink);
+        }
+    }
+
+    private void addNextUserOrdersCursorLink(Long userId, CollectionModel<Order> collectionModel, List<Order> orderList, long pageSize) {
+        if (orderList.size() == pageSize) {
+            Order last = orderList.get(orderList.size() - 1);
+            String after = PageCursor.of(last.getId(), last.getId()).encode();
+            collectionModel.add(linkTo(methodOn(OrderController.class)
+                    .getUserOrders(userId, Optional.empty(), Optional.of(pageSize), Optional.of(after))).withRel("next"));
+        }
+    }
 }
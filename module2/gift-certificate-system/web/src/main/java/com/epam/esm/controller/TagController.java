@@ -1,13 +1,10 @@
 package com.epam.esm.controller;
 
 import com.epam.esm.model.Tag;
+import com.epam.esm.service.PatchService;
 import com.epam.esm.service.TagService;
 import com.epam.esm.validator.ValidationUtils;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.fge.jsonpatch.JsonPatch;
 import com.github.fge.jsonpatch.JsonPatchException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
@@ -19,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,15 +35,23 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class TagController {
 
     private final TagService tagService;
+    private final LinkFactory linkFactory;
+    private final PatchService patchService;
 
     /**
      * Accepts service layer objects and tag validator.
      *
      * @param tagService            TagService instance.
+     * @param linkFactory           LinkFactory instance.
+     * @param patchService          PatchService instance.
      */
     @Autowired
-    public TagController(TagService tagService) {
+    public TagController(TagService tagService,
+                         LinkFactory linkFactory,
+                         PatchService patchService) {
         this.tagService = tagService;
+        this.linkFactory = linkFactory;
+        this.patchService = patchService;
     }
 
     /**
@@ -53,25 +59,36 @@ public class TagController {
      *
      * @param page  page's number
      * @param pageSize page size
+     * @param after cursor of the last seen tag, switches the listing to keyset mode
      * @return Tags list.
      */
     @ResponseStatus(HttpStatus.OK)
     @GetMapping(value = "/tags", produces = {"application/hal+json"})
     public CollectionModel<Tag> findAllTags(@RequestParam(value = "page") Optional<Long> page,
-                                             @RequestParam(value = "page_size") Optional<Long> pageSize) {
+                                             @RequestParam(value = "page_size") Optional<Long> pageSize,
+                                             @RequestParam(value = "after") Optional<String> after) {
         Long pageNumber = page.orElse(DEFAULT_PAGE_NUMBER);
         Long pageSizeNumber = pageSize.orElse(DEFAULT_PAGE_SIZE);
 
         ValidationUtils.checkPaginationData(pageNumber, pageSizeNumber);
 
-        List<Tag> tagList = tagService.findAllTags(pageNumber, pageSizeNumber);
+        List<Tag> tagList = after.isPresent()
+                ? tagService.findAllTagsAfter(PageCursor.decode(after.get()).getId(), pageSizeNumber)
+                : tagService.findAllTags(pageNumber, pageSizeNumber);
         for (Tag tag : tagList) {
-            Link selfLink = linkTo(methodOn(TagController.class)
-                    .findTagById(tag.getId())).withSelfRel();
+            Link selfLink = linkFactory.tagLink(tag.getId());
             tag.add(selfLink);
         }
         Link link = linkTo(TagController.class).slash("tags").withSelfRel();
-        return new CollectionModel<>(tagList, link);    }
+        CollectionModel<Tag> collectionModel = new CollectionModel<>(tagList, link);
+        if (tagList.size() == pageSizeNumber) {
+            Tag last = tagList.get(tagList.size() - 1);
+            String nextCursor = PageCursor.of(last.getId(), last.getId()).encode();
+            collectionModel.add(linkTo(methodOn(TagController.class)
+                    .findAllTags(Optional.empty(), Optional.of(pageSizeNumber), Optional.of(nextCursor))).withRel("next"));
+        }
+        return collectionModel;
+    }
 
     /**
      * Gets tag by id.
@@ -83,10 +100,9 @@ public class TagController {
     @GetMapping(value = "tags/{id}", produces = {"application/hal+json"})
     public Tag findTagById(@PathVariable Long id) {
         Tag tag = tagService.findTagById(id);
-        Link selfLink = linkTo(methodOn(TagController.class)
-                .findTagById(tag.getId())).withSelfRel();
+        Link selfLink = linkFactory.tagLink(tag.getId());
         Link tagsLink = linkTo(methodOn(TagController.class)
-                .findAllTags(Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE))).withRel("tags");
+                .findAllTags(Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE), Optional.empty())).withRel("tags");
         tag.add(tagsLink);
         tag.add(selfLink);
         return tag;
@@ -115,29 +131,29 @@ public class TagController {
     /**
      * Updates tag.
      *
-     * First, finds a tag by ID. Subsequently, if the tag record is found, invokes
-     * the applyPatchToTag(patch, tag) method. Then applies the JsonPatch to the tag.
+     * First, finds a tag by ID. Subsequently, if the tag record is found, applies
+     * the JSON Patch to it through the <i>patchService</i>.
      * After that the tag is updated through the <i>tagService</i>. Is returning <i>ResponseEntity</i> with <i>HttpStatus.CREATED</i>.
      *
      * @param id        Tag id.
-     * @param patch     JsonPatch.
+     * @param patch     JSON Patch document.
      * @param ucBuilder UriComponentsBuilder instance.
      * @return ResponseEntity.
      */
     @PatchMapping(path = "tags/{id}", consumes = "application/json-patch+json")
     public ResponseEntity<Tag> updateTag(@PathVariable Long id,
-                                         @RequestBody JsonPatch patch,
+                                         @RequestBody JsonNode patch,
                                          UriComponentsBuilder ucBuilder) {
         try {
             Tag oldTag = tagService.findTagById(id);
-            Tag tagPatched = applyPatchToTag(patch, oldTag);
+            Tag tagPatched = patchService.applyPatch(patch, oldTag, Tag.class);
 
                 tagService.updateTag(tagPatched);
                 HttpHeaders headers = new HttpHeaders();
                 headers.setLocation(ucBuilder.path("/tags/{id}").buildAndExpand(tagPatched.getId()).toUri());
                 return new ResponseEntity<>(headers, HttpStatus.CREATED);
 
-        } catch (JsonPatchException | JsonProcessingException e) {
+        } catch (JsonPatchException | IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -154,23 +170,6 @@ public class TagController {
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
-    /**
-     * Applies JsonPatch to tag.
-     *
-     * This method applies the JsonPatch to the tag.
-     *
-     * @param patch             JsonPatch
-     * @param targetTag         Tag instance
-     * @return patched Tag instance.
-     */
-    private Tag applyPatchToTag(
-            JsonPatch patch, Tag targetTag) throws JsonPatchException, JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
-
-        JsonNode patched = patch.apply(objectMapper.convertValue(targetTag, JsonNode.class));
-        return objectMapper.treeToValue(patched, Tag.class);
-    }
 
     /**
      * Gets tag by id.
@@ -181,10 +180,9 @@ public class TagController {
     @GetMapping(value = "/tags/popular", produces = {"application/hal+json"})
     public Tag getUsersMostWidelyUsedTag() {
         Tag tag = tagService.getUsersMostWidelyUsedTag();
-        Link selfLink = linkTo(methodOn(TagController.class)
-                .findTagById(tag.getId())).withSelfRel();
+        Link selfLink = linkFactory.tagLink(tag.getId());
         Link tagsLink = linkTo(methodOn(TagController.class)
-                .findAllTags(Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE))).withRel("tags");
+                .findAllTags(Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE), Optional.empty())).withRel("tags");
         tag.add(tagsLink);
         tag.add(selfLink);
         return tag;
@@ -27,15 +27,19 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class UserController {
 
     private final UserService userService;
+    private final LinkFactory linkFactory;
 
     /**
      * Constructor accepts service layer object.
      *
      * @param userService UserService instance.
+     * @param linkFactory LinkFactory instance.
      */
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService,
+                          LinkFactory linkFactory) {
         this.userService = userService;
+        this.linkFactory = linkFactory;
     }
 
     /**
@@ -45,43 +49,65 @@ public class UserController {
      *
      * @param page  page's number
      * @param pageSize page size
+     * @param after cursor of the last seen user, switches the listing to keyset mode
      * @return User list.
      */
     @ResponseStatus(HttpStatus.OK)
     @GetMapping(value = "/users", produces = {"application/hal+json"})
     public CollectionModel<User> findAllUsers(@RequestParam(value = "page") Optional<Long> page,
-                                              @RequestParam(value = "page_size") Optional<Long> pageSize) {
+                                              @RequestParam(value = "page_size") Optional<Long> pageSize,
+                                              @RequestParam(value = "after") Optional<String> after) {
         long pageNumber = page.orElse(DEFAULT_PAGE_NUMBER);
         long pageSizeNumber = pageSize.orElse(DEFAULT_PAGE_SIZE);
 
         ValidationUtils.checkPaginationData(pageNumber, pageSizeNumber);
 
-        List<User> userList = userService.getAllUsers(pageNumber, pageSizeNumber);
-        long totalCount = userService.findUsersTotalCount();
-        double totalPages = Math.ceil((double) totalCount / (double) pageSizeNumber);
+        Link usersLink = linkTo(UserController.class).slash("users").withRel("usersList");
 
-        for (User user : userList) {
-            Link selfLink = linkTo(methodOn(UserController.class)
-                    .findUserById(user.getId())).withRel("currentUser");
-            user.add(selfLink);
+        if (after.isPresent()) {
+            List<User> userList = userService.getAllUsersAfter(PageCursor.decode(after.get()).getId(), pageSizeNumber);
+            addCurrentUserLinks(userList);
+            CollectionModel<User> collectionModel = new CollectionModel(userList, usersLink);
+            addNextCursorLink(collectionModel, userList, pageSizeNumber);
+            return collectionModel;
         }
 
-        Link usersLink = linkTo(UserController.class).slash("users").withRel("usersList");
+        List<User> userList = userService.getAllUsers(pageNumber, pageSizeNumber);
+        long totalCount = userService.findUsersTotalCount();
+        double totalPages = Math.ceil((double) totalCount / (double) pageSizeNumber);
+        addCurrentUserLinks(userList);
 
         CollectionModel<User> collectionModel = new CollectionModel(userList, usersLink);
         if (pageNumber > 1) {
             Link previousPage = linkTo(methodOn(UserController.class)
-                    .findAllUsers(Optional.of(pageNumber - 1), pageSize)).withRel("previousPage");
+                    .findAllUsers(Optional.of(pageNumber - 1), pageSize, Optional.empty())).withRel("previousPage");
             collectionModel.add(previousPage);
         }
         if (pageNumber < totalPages) {
             Link nextPage = linkTo(methodOn(UserController.class)
-                    .findAllUsers(Optional.of(pageNumber + 1), pageSize)).withRel("nextPage");
+                    .findAllUsers(Optional.of(pageNumber + 1), pageSize, Optional.empty())).withRel("nextPage");
             collectionModel.add(nextPage);
         }
+        addNextCursorLink(collectionModel, userList, pageSizeNumber);
         return collectionModel;
     }
 
+    private void addCurrentUserLinks(List<User> userList) {
+        for (User user : userList) {
+            Link selfLink = linkFactory.userLink(user.getId(), "currentUser");
+            user.add(selfLink);
+        }
+    }
+
+    private void addNextCursorLink(CollectionModel<User> collectionModel, List<User> userList, long pageSize) {
+        if (userList.size() == pageSize) {
+            User last = userList.get(userList.size() - 1);
+            String after = PageCursor.of(last.getId(), last.getId()).encode();
+            collectionModel.add(linkTo(methodOn(UserController.class)
+                    .findAllUsers(Optional.empty(), Optional.of(pageSize), Optional.of(after))).withRel("next"));
+        }
+    }
+
     /**
      * Gets user by id.
      *
@@ -92,10 +118,9 @@ public class UserController {
     @GetMapping(value = "/users/{id}", produces = {"application/hal+json"})
     public User findUserById(@PathVariable Long id) {
         User user = userService.getUserById(id);
-        Link selfLink = linkTo(methodOn(UserController.class)
-                .findUserById(user.getId())).withRel("currentUser");
+        Link selfLink = linkFactory.userLink(user.getId(), "currentUser");
         Link ordersLink = linkTo(methodOn(OrderController.class)
-                .getUserOrders(user.getId(), Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE))).withRel("usersOrders");
+                .getUserOrders(user.getId(), Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE), Optional.empty())).withRel("usersOrders");
         user.add(ordersLink);
         user.add(selfLink);
         return user;
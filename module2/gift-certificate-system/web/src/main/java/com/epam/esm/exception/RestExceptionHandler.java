@@ -108,6 +108,18 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(apiError, INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(OrderQueueFullException.class)
+    protected ResponseEntity<Object> handleOrderQueueFull(OrderQueueFullException ex,
+                                                          WebRequest request) {
+        ApiError apiError = new ApiError(SERVICE_UNAVAILABLE, ex);
+        apiError.setMessage("OrderQueueFullException");
+        apiError.setDebugMessage(ex.getMessage());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return new ResponseEntity<>(apiError, headers, SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(InvalidInputDataException.class)
     protected ResponseEntity<Object> handleTagNotFound(InvalidInputDataException ex,
                                                        WebRequest request) {
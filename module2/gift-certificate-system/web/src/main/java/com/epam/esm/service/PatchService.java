@@ -0,0 +1,22 @@
+package com.epam.esm.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.fge.jsonpatch.JsonPatchException;
+
+import java.io.IOException;
+
+public interface PatchService {
+
+    /**
+     * Applies a JSON Patch (RFC 6902) document to the object.
+     *
+     * @param patch  array of patch operations.
+     * @param target patched object, may be changed in place.
+     * @param type   type of the object.
+     * @param <T>    type of the object.
+     * @return patched object.
+     * @throws JsonPatchException if an operation can not be applied.
+     * @throws IOException        if the patch or the patched values can not be read.
+     */
+    <T> T applyPatch(JsonNode patch, T target, Class<T> type) throws JsonPatchException, IOException;
+}
@@ -0,0 +1,89 @@
+package com.epam.esm.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.fge.jsonpatch.JsonPatch;
+import com.github.fge.jsonpatch.JsonPatchException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Applies JSON Patch documents with one shared mapper. Patches made only of "add" and "replace" operations on
+ * top-level properties, which is what the catalog edits send, are written straight into the object through
+ * <i>readerForUpdating</i>. Any other patch goes through the json-patch engine on the JSON tree of the object.
+ */
+@Service
+public class PatchServiceImpl implements PatchService {
+
+    private static final String OPERATION = "op";
+    private static final String PATH = "path";
+    private static final String VALUE = "value";
+    private static final String ADD = "add";
+    private static final String REPLACE = "replace";
+    private static final char POINTER_SEPARATOR = '/';
+    private static final char POINTER_ESCAPE = '~';
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final Map<Class<?>, Set<String>> propertiesByType = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> T applyPatch(JsonNode patch, T target, Class<T> type) throws JsonPatchException, IOException {
+        ObjectNode propertyValues = toPropertyValues(patch, type);
+        if (propertyValues != null) {
+            return objectMapper.readerForUpdating(target).readValue(propertyValues);
+        }
+        JsonNode patched = JsonPatch.fromJson(patch).apply(objectMapper.valueToTree(target));
+        return objectMapper.treeToValue(patched, type);
+    }
+
+    /**
+     * Collects new values of top-level properties.
+     *
+     * @return values by property name, or null if the patch has other operations or paths.
+     */
+    private ObjectNode toPropertyValues(JsonNode patch, Class<?> type) {
+        if (!patch.isArray()) {
+            return null;
+        }
+        Set<String> properties = propertiesByType.computeIfAbsent(type, this::findProperties);
+        ObjectNode propertyValues = objectMapper.createObjectNode();
+        for (JsonNode operation : patch) {
+            String op = operation.path(OPERATION).asText();
+            String path = operation.path(PATH).asText();
+            if (!(ADD.equals(op) || REPLACE.equals(op)) || !operation.has(VALUE)
+                    || path.lastIndexOf(POINTER_SEPARATOR) != 0 || path.indexOf(POINTER_ESCAPE) >= 0) {
+                return null;
+            }
+            String property = path.substring(1);
+            if (!properties.contains(property)) {
+                return null;
+            }
+            propertyValues.set(property, operation.get(VALUE));
+        }
+        return propertyValues;
+    }
+
+    private Set<String> findProperties(Class<?> type) {
+        return objectMapper.getDeserializationConfig()
+                .introspect(objectMapper.constructType(type))
+                .findProperties().stream()
+                .filter(property -> property.couldDeserialize() && property.couldSerialize())
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toSet());
+    }
+}
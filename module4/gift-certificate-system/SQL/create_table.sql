@@ -2,6 +2,8 @@
 -- Wed Nov 11 01:23:14 2020
 -- Model: New Model    Version: 1.0
 -- MySQL Workbench Forward Engineering
+-- The schema of the application is created by api/src/main/resources/db/migration,
+-- databases created with this script are baselined by Flyway as version 1
 
 SET @OLD_UNIQUE_CHECKS=@@UNIQUE_CHECKS, UNIQUE_CHECKS=0;
 SET @OLD_FOREIGN_KEY_CHECKS=@@FOREIGN_KEY_CHECKS, FOREIGN_KEY_CHECKS=0;
@@ -0,0 +1,39 @@
+package com.epam.esm.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Metrics of the connection pool in addition to the <i>hikaricp.connections.*</i> ones published by the actuator:
+ * <i>hikaricp.connections.saturation</i> is the share of the connections in use, with the
+ * <i>hikaricp.connections.pending</i> threads and the <i>hikaricp.connections.acquire</i> wait times it shows
+ * whether a pool is too small. The pool is configured by the <i>spring.datasource.hikari.*</i> properties, the
+ * replica pool of {@link ReplicaDataSourceConfig} gets the gauge as well.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public MeterBinder connectionPoolSaturation(ObjectProvider<HikariDataSource> dataSources) {
+        return registry -> dataSources.orderedStream().forEach(dataSource ->
+                Gauge.builder("hikaricp.connections.saturation", dataSource, DataSourceConfig::saturation)
+                        .description("Share of the connections in use")
+                        .tag("pool", String.valueOf(dataSource.getPoolName()))
+                        .register(registry));
+    }
+
+    private static double saturation(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0;
+        }
+        return (double) pool.getActiveConnections() / dataSource.getMaximumPoolSize();
+    }
+}
@@ -0,0 +1,44 @@
+package com.epam.esm.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Configuration of the <i>fast-start</i> profile. The profile turns on lazy initialization of all beans, here the
+ * controllers and controller advices are made eager again, so that they and the services they use are ready for
+ * the first request. The other beans are created when they are used first.
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    @Bean
+    public static BeanFactoryPostProcessor eagerWebBeans() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+                if (isWebBean(beanDefinition)) {
+                    beanDefinition.setLazyInit(false);
+                }
+            }
+        };
+    }
+
+    private static boolean isWebBean(BeanDefinition beanDefinition) {
+        if (!(beanDefinition instanceof AnnotatedBeanDefinition)) {
+            return false;
+        }
+        AnnotatedBeanDefinition annotatedBeanDefinition = (AnnotatedBeanDefinition) beanDefinition;
+        return annotatedBeanDefinition.getFactoryMethodMetadata() == null
+                && (annotatedBeanDefinition.getMetadata().isAnnotated(Controller.class.getName())
+                || annotatedBeanDefinition.getMetadata().isAnnotated(ControllerAdvice.class.getName()));
+    }
+}
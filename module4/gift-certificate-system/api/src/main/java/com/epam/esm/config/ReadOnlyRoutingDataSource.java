@@ -0,0 +1,35 @@
+package com.epam.esm.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Gives connections of the replica to read-only transactions and connections of the primary to everything else.
+ * The transaction is known only after it has begun, so the data source has to be wrapped into a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which asks for the connection
+ * when the first statement is executed.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    public ReadOnlyRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource) {
+        Map<Object, Object> dataSources = new HashMap<>();
+        dataSources.put(PRIMARY, primaryDataSource);
+        dataSources.put(REPLICA, replicaDataSource);
+        setTargetDataSources(dataSources);
+        setDefaultTargetDataSource(primaryDataSource);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? REPLICA : PRIMARY;
+    }
+}
@@ -0,0 +1,63 @@
+package com.epam.esm.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Sends read-only transactions to a replica of the database when <i>spring.datasource.replica.jdbc-url</i> is set.
+ * The primary pool is configured by <i>spring.datasource.*</i> as before, the replica pool by the HikariCP
+ * properties under <i>spring.datasource.replica</i>. Writes, the migrations and the work outside of transactions
+ * use the primary. A replica lags behind the primary, so a read right after a write may miss it.
+ */
+@Configuration
+@ConditionalOnProperty("spring.datasource.replica.jdbc-url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(properties.getName())) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    /**
+     * The pools are injected lazily and the proxy is given the defaults of the connections instead of asking a pool
+     * for them: Spring Boot initializes the database as soon as a data source bean is created and asks for this one,
+     * which would still be in creation. The defaults are the ones of the pools and of InnoDB.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Lazy @Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Lazy @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        ReadOnlyRoutingDataSource routingDataSource = new ReadOnlyRoutingDataSource(primaryDataSource, replicaDataSource);
+        routingDataSource.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(routingDataSource);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        return dataSource;
+    }
+}
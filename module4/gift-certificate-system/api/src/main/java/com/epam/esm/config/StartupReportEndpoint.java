@@ -0,0 +1,112 @@
+package com.epam.esm.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Startup times of the application, read from the <i>startup</i> actuator endpoint to compare the boot time of
+ * the releases. Times are milliseconds since the start of the JVM: <i>started</i> when the context is refreshed
+ * and the web server runs, <i>ready</i> after the listeners of the ready event. The slowest
+ * <i>startup.report.beans</i> beans are listed with the time of their creation, which includes the creation of
+ * the beans they depend on. Lazy beans are listed when they are created.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "startup")
+public class StartupReportEndpoint implements InstantiationAwareBeanPostProcessor {
+
+    private final Map<String, Long> creationStarts = new ConcurrentHashMap<>();
+    private final Map<String, Long> creationTimes = new ConcurrentHashMap<>();
+    private final Environment environment;
+    private final ObjectProvider<BuildProperties> buildProperties;
+    private volatile Long startedTime;
+    private volatile Long readyTime;
+
+    @Value("${startup.report.beans:20}")
+    private int reportedBeans;
+
+    public StartupReportEndpoint(Environment environment, ObjectProvider<BuildProperties> buildProperties) {
+        this.environment = environment;
+        this.buildProperties = buildProperties;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+        creationStarts.putIfAbsent(beanName, System.nanoTime());
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Long creationStart = creationStarts.remove(beanName);
+        if (creationStart != null) {
+            creationTimes.put(beanName, (System.nanoTime() - creationStart) / 1_000_000);
+        }
+        return bean;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void started() {
+        startedTime = uptime();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void ready() {
+        readyTime = uptime();
+        log.info("IN ready - started in {} ms, ready in {} ms", startedTime, readyTime);
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        BuildProperties build = buildProperties.getIfAvailable();
+        report.put("version", build != null ? build.getVersion() : null);
+        report.put("profiles", Arrays.asList(environment.getActiveProfiles()));
+        report.put("jvmStart", Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime()));
+        report.put("started", startedTime);
+        report.put("ready", readyTime);
+        report.put("beans", slowestBeans());
+        return report;
+    }
+
+    private List<Map<String, Object>> slowestBeans() {
+        return creationTimes.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(reportedBeans)
+                .map(creationTime -> {
+                    Map<String, Object> bean = new LinkedHashMap<>();
+                    bean.put("name", creationTime.getKey());
+                    bean.put("time", creationTime.getValue());
+                    return bean;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private long uptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
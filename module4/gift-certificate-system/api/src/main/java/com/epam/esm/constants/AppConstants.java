@@ -3,5 +3,9 @@ package com.epam.esm.constants;
 public class AppConstants {
     public static final int DEFAULT_PAGE_NUMBER = 1;
     public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int IMPORT_CHUNK_SIZE = 500;
+    public static final int DEFAULT_SALES_DAYS = 30;
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
 
 }
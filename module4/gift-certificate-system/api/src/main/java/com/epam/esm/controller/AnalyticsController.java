@@ -0,0 +1,152 @@
+package com.epam.esm.controller;
+
+import com.epam.esm.dto.DailySalesDTO;
+import com.epam.esm.dto.SalesDTO;
+import com.epam.esm.service.AnalyticsService;
+import com.epam.esm.validator.ValidationUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static com.epam.esm.constants.AppConstants.DEFAULT_PAGE_NUMBER;
+import static com.epam.esm.constants.AppConstants.DEFAULT_PAGE_SIZE;
+import static com.epam.esm.constants.AppConstants.DEFAULT_SALES_DAYS;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Sales reports on path "/api/analytics". Every report covers the days from "from" to "to" inclusive,
+ * by default the last <i>DEFAULT_SALES_DAYS</i> days.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+    private final LinkFactory linkFactory;
+
+    /**
+     * Accepts service layer objects.
+     *
+     * @param analyticsService AnalyticsService instance.
+     * @param linkFactory      LinkFactory instance.
+     */
+    @Autowired
+    public AnalyticsController(AnalyticsService analyticsService, LinkFactory linkFactory) {
+        this.analyticsService = analyticsService;
+        this.linkFactory = linkFactory;
+    }
+
+    /**
+     * Gets orders and revenue of every sold certificate, the best selling first.
+     *
+     * @param from     first day of the period
+     * @param to       last day of the period
+     * @param page     page's number
+     * @param pageSize page size
+     * @return Sales list.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(value = "/certificates", produces = {"application/hal+json"})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public CollectionModel<SalesDTO> getCertificateSales(@RequestParam(value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> from,
+                                                         @RequestParam(value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> to,
+                                                         @RequestParam(value = "page") Optional<Integer> page,
+                                                         @RequestParam(value = "page_size") Optional<Integer> pageSize) {
+        LocalDate lastDay = to.orElse(LocalDate.now());
+        LocalDate firstDay = from.orElse(lastDay.minusDays(DEFAULT_SALES_DAYS - 1));
+        int pageNumber = page.orElse(DEFAULT_PAGE_NUMBER);
+        int pageSizeNumber = pageSize.orElse(DEFAULT_PAGE_SIZE);
+        ValidationUtils.checkPeriod(firstDay, lastDay);
+        ValidationUtils.checkPaginationData(pageNumber, pageSizeNumber);
+
+        Page<SalesDTO> sales = analyticsService.getCertificateSales(firstDay, lastDay, pageNumber - 1, pageSizeNumber);
+        sales.forEach(certificateSales -> certificateSales.add(linkFactory.certificateLink(certificateSales.getId(), "certificate")));
+        CollectionModel<SalesDTO> collectionModel = new CollectionModel<>(sales.getContent());
+        if (pageNumber > 1) {
+            collectionModel.add(linkTo(methodOn(AnalyticsController.class).getCertificateSales(Optional.of(firstDay),
+                    Optional.of(lastDay), Optional.of(pageNumber - 1), Optional.of(pageSizeNumber))).withRel("previousPage"));
+        }
+        if (sales.hasNext()) {
+            collectionModel.add(linkTo(methodOn(AnalyticsController.class).getCertificateSales(Optional.of(firstDay),
+                    Optional.of(lastDay), Optional.of(pageNumber + 1), Optional.of(pageSizeNumber))).withRel("nextPage"));
+        }
+        return collectionModel;
+    }
+
+    /**
+     * Gets orders and revenue of certificates of every sold tag, the best selling first.
+     *
+     * @param from     first day of the period
+     * @param to       last day of the period
+     * @param page     page's number
+     * @param pageSize page size
+     * @return Sales list.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(value = "/tags", produces = {"application/hal+json"})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public CollectionModel<SalesDTO> getTagSales(@RequestParam(value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> from,
+                                                 @RequestParam(value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> to,
+                                                 @RequestParam(value = "page") Optional<Integer> page,
+                                                 @RequestParam(value = "page_size") Optional<Integer> pageSize) {
+        LocalDate lastDay = to.orElse(LocalDate.now());
+        LocalDate firstDay = from.orElse(lastDay.minusDays(DEFAULT_SALES_DAYS - 1));
+        int pageNumber = page.orElse(DEFAULT_PAGE_NUMBER);
+        int pageSizeNumber = pageSize.orElse(DEFAULT_PAGE_SIZE);
+        ValidationUtils.checkPeriod(firstDay, lastDay);
+        ValidationUtils.checkPaginationData(pageNumber, pageSizeNumber);
+
+        Page<SalesDTO> sales = analyticsService.getTagSales(firstDay, lastDay, pageNumber - 1, pageSizeNumber);
+        sales.forEach(tagSales -> tagSales.add(linkFactory.tagLink(tagSales.getId(), "tag")));
+        CollectionModel<SalesDTO> collectionModel = new CollectionModel<>(sales.getContent());
+        if (pageNumber > 1) {
+            collectionModel.add(linkTo(methodOn(AnalyticsController.class).getTagSales(Optional.of(firstDay),
+                    Optional.of(lastDay), Optional.of(pageNumber - 1), Optional.of(pageSizeNumber))).withRel("previousPage"));
+        }
+        if (sales.hasNext()) {
+            collectionModel.add(linkTo(methodOn(AnalyticsController.class).getTagSales(Optional.of(firstDay),
+                    Optional.of(lastDay), Optional.of(pageNumber + 1), Optional.of(pageSizeNumber))).withRel("nextPage"));
+        }
+        return collectionModel;
+    }
+
+    /**
+     * Gets orders and revenue of every day with sales.
+     *
+     * @param from first day of the period
+     * @param to   last day of the period
+     * @return Sales list ordered by day.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping(value = "/days")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public List<DailySalesDTO> getDailySales(@RequestParam(value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> from,
+                                             @RequestParam(value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> to) {
+        LocalDate lastDay = to.orElse(LocalDate.now());
+        LocalDate firstDay = from.orElse(lastDay.minusDays(DEFAULT_SALES_DAYS - 1));
+        ValidationUtils.checkPeriod(firstDay, lastDay);
+        return analyticsService.getDailySales(firstDay, lastDay);
+    }
+
+    /**
+     * Recomputes the sales rollups from all orders.
+     */
+    @PostMapping(value = "/rebuild")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Void> rebuildSales() {
+        analyticsService.rebuildSales();
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+}
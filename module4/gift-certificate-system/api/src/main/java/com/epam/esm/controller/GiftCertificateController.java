@@ -1,40 +1,61 @@
 package com.epam.esm.controller;
 
 import com.epam.esm.dto.GiftCertificateDTO;
+import com.epam.esm.dto.ImportErrorDTO;
+import com.epam.esm.dto.ImportReportDTO;
+import com.epam.esm.dto.PageCursor;
 import com.epam.esm.dto.TagDTO;
 import com.epam.esm.exception.InvalidInputDataException;
 import com.epam.esm.repository.CertificateSearchQuery;
 import com.epam.esm.service.GiftCertificateService;
+import com.epam.esm.service.PatchService;
 import com.epam.esm.validator.CertificateSearchValidator;
 import com.epam.esm.validator.ValidationUtils;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.github.fge.jsonpatch.JsonPatch;
 import com.github.fge.jsonpatch.JsonPatchException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.epam.esm.constants.AppConstants.DEFAULT_PAGE_NUMBER;
 import static com.epam.esm.constants.AppConstants.DEFAULT_PAGE_SIZE;
+import static com.epam.esm.constants.AppConstants.IMPORT_CHUNK_SIZE;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
@@ -47,20 +68,42 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping("/api")
 public class GiftCertificateController {
 
+    private static final String TAG_MATCH_ALL = "all";
+    private static final String TAG_MATCH_ANY = "any";
+    private static final ObjectReader CERTIFICATE_READER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .readerFor(GiftCertificateDTO.class);
+    private static final ObjectWriter CERTIFICATE_WRITER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .addMixIn(RepresentationModel.class, WithoutLinks.class)
+            .writerFor(GiftCertificateDTO.class);
+
     private final GiftCertificateService giftCertificateService;
     private final CertificateSearchValidator searchValidator;
+    private final PaginationUtil paginationUtil;
+    private final LinkFactory linkFactory;
+    private final PatchService patchService;
 
     /**
      * Constructor accepts service layer objects and certificate validator.
      *
      * @param giftCertificateService GiftCertificateService instance.
      * @param searchValidator        CertificateSearchValidator instance.
+     * @param paginationUtil         PaginationUtil instance.
+     * @param linkFactory            LinkFactory instance.
+     * @param patchService           PatchService instance.
      */
     @Autowired
     public GiftCertificateController(GiftCertificateService giftCertificateService,
-                                     CertificateSearchValidator searchValidator) {
+                                     CertificateSearchValidator searchValidator,
+                                     PaginationUtil paginationUtil,
+                                     LinkFactory linkFactory,
+                                     PatchService patchService) {
         this.giftCertificateService = giftCertificateService;
         this.searchValidator = searchValidator;
+        this.paginationUtil = paginationUtil;
+        this.linkFactory = linkFactory;
+        this.patchService = patchService;
     }
 
     /**
@@ -80,28 +123,110 @@ public class GiftCertificateController {
         return giftCertificateService.saveCertificate(giftCertificateDTO);
     }
 
+    /**
+     * Imports a batch of gift certificates sent as a JSON array.
+     * <p>
+     * Certificates are saved through <i>giftCertificateService</i> in chunks, rejected rows are listed
+     * in the returned report and don't stop the import of the others.
+     *
+     * @param certificateDTOs list of GiftCertificate instances.
+     * @return ImportReportDTO instance.
+     */
+    @PostMapping(path = "/certificates/batch", consumes = "application/json", produces = "application/json")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @ResponseStatus(HttpStatus.OK)
+    public ImportReportDTO importGiftCertificates(@RequestBody List<GiftCertificateDTO> certificateDTOs) {
+        return giftCertificateService.importCertificates(certificateDTOs);
+    }
+
+    /**
+     * Imports a batch of gift certificates sent as NDJSON, one certificate per line.
+     * <p>
+     * Blank lines are skipped. Rows are numbered in the report in the order of the non-blank lines, a line which
+     * is not a valid certificate JSON is reported as rejected. The lines are read and saved by chunks of
+     * <i>IMPORT_CHUNK_SIZE</i>, so the upload is never held in memory as a whole.
+     *
+     * @param body request body stream.
+     * @return ImportReportDTO instance.
+     */
+    @PostMapping(path = "/certificates/batch", consumes = "application/x-ndjson", produces = "application/json")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @ResponseStatus(HttpStatus.OK)
+    public ImportReportDTO importGiftCertificatesStream(InputStream body) throws IOException {
+        ImportReportDTO report = new ImportReportDTO();
+        Map<Integer, GiftCertificateDTO> chunk = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        int row = 0;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            row++;
+            try {
+                chunk.put(row, CERTIFICATE_READER.readValue(line));
+            } catch (JsonProcessingException e) {
+                report.addError(row, MessageFormat.format("Malformed JSON: {0}", e.getOriginalMessage()));
+            }
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                giftCertificateService.importCertificates(chunk, report);
+                chunk = new LinkedHashMap<>();
+            }
+        }
+        giftCertificateService.importCertificates(chunk, report);
+        report.getErrors().sort(Comparator.comparingInt(ImportErrorDTO::getRow));
+        return report;
+    }
+
+    /**
+     * Exports all gift certificates with their tags as NDJSON, one certificate per line.
+     * <p>
+     * The response is written while the certificates are read from <i>giftCertificateService</i>,
+     * so the catalog is never loaded into memory as a whole.
+     *
+     * @return ResponseEntity with streaming body.
+     */
+    @GetMapping(path = "/certificates/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportGiftCertificates() {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            giftCertificateService.exportCertificates(certificate -> {
+                try {
+                    writer.write(CERTIFICATE_WRITER.writeValueAsString(certificate));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     /**
      * Updates gift certificate.
      * <p>
-     * First, finds a certificate by ID. Subsequently, if the certificate record is found, invokes
-     * the applyPatchToGiftCertificate(patch, giftCertificate) method. Then applies the JsonPatch to the certificate.
+     * First, finds a certificate by ID. Subsequently, if the certificate record is found, applies
+     * the JSON Patch to it through the <i>patchService</i>.
      * Is returning <i>ResponseEntity</i> with <i>HttpStatus.CREATED</i>.
      *
      * @param id        GiftCertificate id.
-     * @param patch     JsonPatch.
+     * @param patch     JSON Patch document.
      * @return ResponseEntity.
      */
     @PatchMapping(path = "certificates/{id}", consumes = "application/json-patch+json")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<GiftCertificateDTO> updateGiftCertificate(@PathVariable Long id,
-                                                                    @RequestBody JsonPatch patch) {
+                                                                    @RequestBody JsonNode patch) {
         try {
             GiftCertificateDTO oldCertificate = giftCertificateService.findCertificateById(id);
-            GiftCertificateDTO certificatePatched = applyPatchToGiftCertificate(patch, oldCertificate);
+            GiftCertificateDTO certificatePatched = patchService.applyPatch(patch, oldCertificate, GiftCertificateDTO.class);
             GiftCertificateDTO updatedCertificate = giftCertificateService.updateCertificate(certificatePatched);
             return new ResponseEntity<>(updatedCertificate, HttpStatus.CREATED);
 
-        } catch (JsonPatchException | JsonProcessingException e) {
+        } catch (JsonPatchException | IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -130,12 +255,10 @@ public class GiftCertificateController {
         GiftCertificateDTO certificateDTO = giftCertificateService.findCertificateById(id);
         List<TagDTO> tags = certificateDTO.getTags();
         tags.forEach(tag -> {
-            Link selfLink = linkTo(methodOn(TagController.class)
-                    .findTagById(tag.getId())).withSelfRel();
+            Link selfLink = linkFactory.tagLink(tag.getId());
             tag.add(selfLink);
         });
-        Link selfLink = linkTo(methodOn(GiftCertificateController.class)
-                .findCertificateById(certificateDTO.getId())).withSelfRel();
+        Link selfLink = linkFactory.certificateLink(certificateDTO.getId());
         certificateDTO.add(selfLink);
         return certificateDTO;
     }
@@ -145,7 +268,11 @@ public class GiftCertificateController {
      * <p>
      * First, creates an instance of CertificateSearchQuery. Then method checks if the input parameters required for searching
      * and sorting certificates are not empty, sets their values to the queue object, validates and passes it to the giftCertificateService.
+     * If the "after" cursor is passed, certificates are read in keyset mode starting right after the cursor
+     * and the "page" parameter is ignored. With "with_total=false" the total count of certificates is not requested.
+     * If "text" is passed, certificates are found by the full-text index and ordered by relevance.
      *
+     * @param text              value of "text"
      * @param tagName           value of "tag_name"
      * @param partOfName        value of "part_of_name"
      * @param partOfDescription value of "part_of_description"
@@ -153,17 +280,22 @@ public class GiftCertificateController {
      * @param sortOrder         value of "sort_order"
      * @param page              page's number
      * @param pageSize          page size
+     * @param after             cursor of the last seen certificate
+     * @param withTotal         whether the total count of certificates is needed
      * @return GiftCertificates list.
      */
     @GetMapping(value = "/certificates", produces = {"application/hal+json"})
     @ResponseStatus(HttpStatus.OK)
-    public CollectionModel<GiftCertificateDTO> findCertificates(@RequestParam(value = "tag_name") Optional<String> tagName,
+    public CollectionModel<GiftCertificateDTO> findCertificates(@RequestParam(value = "text") Optional<String> text,
+                                                                @RequestParam(value = "tag_name") Optional<String> tagName,
                                                                 @RequestParam(value = "part_of_name") Optional<String> partOfName,
                                                                 @RequestParam(value = "part_of_description") Optional<String> partOfDescription,
                                                                 @RequestParam(value = "sort") Optional<String> sortParameter,
                                                                 @RequestParam(value = "sort_order") Optional<String> sortOrder,
                                                                 @RequestParam(value = "page") Optional<Integer> page,
-                                                                @RequestParam(value = "page_size") Optional<Integer> pageSize
+                                                                @RequestParam(value = "page_size") Optional<Integer> pageSize,
+                                                                @RequestParam(value = "after") Optional<String> after,
+                                                                @RequestParam(value = "with_total") Optional<Boolean> withTotal
     ) {
         int pageNumber = page.orElse(DEFAULT_PAGE_NUMBER);
         int pageSizeNumber = pageSize.orElse(DEFAULT_PAGE_SIZE);
@@ -171,6 +303,7 @@ public class GiftCertificateController {
         ValidationUtils.checkPaginationData(pageNumber, pageSizeNumber);
 
         CertificateSearchQuery query = new CertificateSearchQuery();
+        text.ifPresent(query::setText);
         tagName.ifPresent(query::setTagName);
         partOfName.ifPresent(query::setPartOfName);
         partOfDescription.ifPresent(query::setPartOfDescription);
@@ -185,57 +318,56 @@ public class GiftCertificateController {
             throw new InvalidInputDataException(MessageFormat.format("Unexpected certificate''s field: {0}, error code: {1}",
                     brokenField, errorCode));
         }
-        Page<GiftCertificateDTO> certificateDTOPage
-                = giftCertificateService.getCertificates(query, pageNumber - 1, pageSizeNumber);
+        Link link = linkTo(GiftCertificateController.class).slash("certificates").withSelfRel();
 
-        for (GiftCertificateDTO certificate : certificateDTOPage) {
-            Link selfLink = linkTo(methodOn(GiftCertificateController.class)
-                    .findCertificateById(certificate.getId())).withSelfRel();
-            certificate.add(selfLink);
+        if (after.isPresent()) {
+            if (query.hasText()) {
+                throw new InvalidInputDataException("Cursor pagination is not supported for full-text search");
+            }
+            Slice<GiftCertificateDTO> certificateSlice
+                    = giftCertificateService.getCertificatesAfter(query, PageCursor.decode(after.get()), pageSizeNumber);
+            addCertificateSelfLinks(certificateSlice);
+            CollectionModel<GiftCertificateDTO> collectionModel = new CollectionModel(certificateSlice.getContent(), link);
+            paginationUtil.addCursorLinkToCertificateDTO(collectionModel, certificateSlice, query, pageSizeNumber);
+            return collectionModel;
         }
-        Link link = linkTo(GiftCertificateController.class).slash("certificates").withSelfRel();
+
+        Slice<GiftCertificateDTO> certificateDTOPage = withTotal.orElse(true)
+                ? giftCertificateService.getCertificates(query, pageNumber - 1, pageSizeNumber)
+                : giftCertificateService.getCertificatesSlice(query, pageNumber - 1, pageSizeNumber);
+        addCertificateSelfLinks(certificateDTOPage);
 
         CollectionModel<GiftCertificateDTO> collectionModel = new CollectionModel(certificateDTOPage, link);
 
         if (pageNumber > 1) {
             Link previousPage = linkTo(methodOn(GiftCertificateController.class)
-                    .findCertificates(tagName, partOfName, partOfDescription, sortParameter, sortOrder, Optional.of(pageNumber - 1), Optional.of(pageSizeNumber))).withRel("previousPage");
+                    .findCertificates(text, tagName, partOfName, partOfDescription, sortParameter, sortOrder, Optional.of(pageNumber - 1), Optional.of(pageSizeNumber), Optional.empty(), Optional.empty())).withRel("previousPage");
             collectionModel.add(previousPage);
         }
-        if (pageNumber < certificateDTOPage.getTotalPages()) {
+        if (certificateDTOPage.hasNext()) {
             Link nextPage = linkTo(methodOn(GiftCertificateController.class)
-                    .findCertificates(tagName, partOfName, partOfDescription, sortParameter, sortOrder, Optional.of(pageNumber - 1), Optional.of(pageSizeNumber))).withRel("previousPage");
+                    .findCertificates(text, tagName, partOfName, partOfDescription, sortParameter, sortOrder, Optional.of(pageNumber - 1), Optional.of(pageSizeNumber), Optional.empty(), Optional.empty())).withRel("previousPage");
             collectionModel.add(nextPage);
         }
+        paginationUtil.addCursorLinkToCertificateDTO(collectionModel, certificateDTOPage, query, pageSizeNumber);
         return collectionModel;
     }
 
-    /**
-     * Applies JsonPatch to certificate.
-     * <p>
-     * This method applies the JsonPatch to the certificate.
-     *
-     * @param patch             JsonPatch
-     * @param targetCertificate GiftCertificate instance
-     * @return patched GiftCertificate instance.
-     */
-    private GiftCertificateDTO applyPatchToGiftCertificate(JsonPatch patch, GiftCertificateDTO targetCertificate)
-            throws JsonPatchException, JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        JsonNode patched = patch.apply(objectMapper.convertValue(targetCertificate, JsonNode.class));
-        return objectMapper.treeToValue(patched, GiftCertificateDTO.class);
+    private void addCertificateSelfLinks(Slice<GiftCertificateDTO> certificates) {
+        for (GiftCertificateDTO certificate : certificates) {
+            Link selfLink = linkFactory.certificateLink(certificate.getId());
+            certificate.add(selfLink);
+        }
     }
 
 
     /**
      * Searches gift certificates by several tags.
      * <p>
-     * Searches gift certificates by several tags.
+     * Searches gift certificates by several tags, having all of them or, with <i>tag_match=any</i>, at least one.
      *
      * @param tagNames list of tag names
+     * @param tagMatch all or any
      * @param page     page's number
      * @param pageSize page size
      * @return GiftCertificates list.
@@ -243,21 +375,26 @@ public class GiftCertificateController {
     @GetMapping(value = "/certificates/search", produces = {"application/hal+json"})
     @ResponseStatus(HttpStatus.OK)
     public CollectionModel<GiftCertificateDTO> findCertificates(@RequestParam(value = "tag_name", defaultValue = "") List<String> tagNames,
+                                                                @RequestParam(value = "tag_match", defaultValue = TAG_MATCH_ALL) String tagMatch,
                                                                 @RequestParam(value = "page") Optional<Integer> page,
                                                                 @RequestParam(value = "page_size") Optional<Integer> pageSize
     ) {
         if (tagNames.isEmpty()) {
             throw new InvalidInputDataException("Search query mustn't be empty");
         }
+        if (!TAG_MATCH_ALL.equals(tagMatch) && !TAG_MATCH_ANY.equals(tagMatch)) {
+            throw new InvalidInputDataException(MessageFormat.format("Unexpected tag_match: {0}, expected all or any", tagMatch));
+        }
         int pageNumber = page.orElse(DEFAULT_PAGE_NUMBER);
         int pageSizeNumber = pageSize.orElse(DEFAULT_PAGE_SIZE);
 
         ValidationUtils.checkPaginationData(pageNumber, pageSizeNumber);
 
-        Page<GiftCertificateDTO> certificates = giftCertificateService.findCertificatesByTags(tagNames, pageNumber - 1, pageSizeNumber);
+        Page<GiftCertificateDTO> certificates = TAG_MATCH_ALL.equals(tagMatch)
+                ? giftCertificateService.findCertificatesByTags(tagNames, pageNumber - 1, pageSizeNumber)
+                : giftCertificateService.findCertificatesByAnyTag(tagNames, pageNumber - 1, pageSizeNumber);
         for (GiftCertificateDTO certificate : certificates) {
-            Link selfLink = linkTo(methodOn(GiftCertificateController.class)
-                    .findCertificateById(certificate.getId())).withSelfRel();
+            Link selfLink = linkFactory.certificateLink(certificate.getId());
             certificate.add(selfLink);
         }
         Link link = linkTo(GiftCertificateController.class).slash("certificates").withSelfRel();
@@ -265,12 +402,12 @@ public class GiftCertificateController {
 
         if (pageNumber > 1) {
             Link previousPage = linkTo(methodOn(GiftCertificateController.class)
-                    .findCertificates(tagNames, Optional.of(pageNumber - 1), Optional.of(pageSizeNumber))).withRel("previousPage");
+                    .findCertificates(tagNames, tagMatch, Optional.of(pageNumber - 1), Optional.of(pageSizeNumber))).withRel("previousPage");
             collectionModel.add(previousPage);
         }
         if (pageNumber < certificates.getTotalPages()) {
             Link nextPage = linkTo(methodOn(GiftCertificateController.class)
-                    .findCertificates(tagNames, Optional.of(pageNumber - 1), Optional.of(pageSizeNumber))).withRel("previousPage");
+                    .findCertificates(tagNames, tagMatch, Optional.of(pageNumber - 1), Optional.of(pageSizeNumber))).withRel("previousPage");
             collectionModel.add(nextPage);
         }
         return collectionModel;
@@ -296,13 +433,18 @@ public class GiftCertificateController {
         GiftCertificateDTO certificate = giftCertificateService.updateSingleCertificateField(id, fieldName, fieldValue);
         List<TagDTO> tags = certificate.getTags();
         tags.forEach(tag -> {
-            Link selfLink = linkTo(methodOn(TagController.class)
-                    .findTagById(tag.getId())).withRel("tag");
+            Link selfLink = linkFactory.tagLink(tag.getId(), "tag");
             tag.add(selfLink);
         });
-        Link selfLink = linkTo(methodOn(GiftCertificateController.class)
-                .findCertificateById(certificate.getId())).withRel("certificate");
+        Link selfLink = linkFactory.certificateLink(certificate.getId(), "certificate");
         certificate.add(selfLink);
         return certificate;
     }
+
+    /**
+     * Drops the HATEOAS links of certificates and their tags from the export lines, they are empty there anyway.
+     */
+    @JsonIgnoreProperties("links")
+    private abstract static class WithoutLinks {
+    }
 }
@@ -1,6 +1,7 @@
 package com.epam.esm.controller;
 
 import com.epam.esm.dto.OrderDTO;
+import com.epam.esm.dto.PageCursor;
 import com.epam.esm.exception.InvalidInputDataException;
 import com.epam.esm.model.Order;
 import com.epam.esm.security.AuthorizationComponent;
@@ -8,6 +9,7 @@ import com.epam.esm.service.OrderService;
 import com.epam.esm.validator.ValidationUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
@@ -19,6 +21,7 @@ import java.util.Optional;
 
 import static com.epam.esm.constants.AppConstants.DEFAULT_PAGE_NUMBER;
 import static com.epam.esm.constants.AppConstants.DEFAULT_PAGE_SIZE;
+import static com.epam.esm.constants.AppConstants.IDEMPOTENCY_KEY_HEADER;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
@@ -33,59 +36,84 @@ public class OrderController {
 
     private final OrderService orderService;
     private final PaginationUtil paginationUtil;
+    private final LinkFactory linkFactory;
 
 
     /**
      * Accepts service layer objects.
      *
      * @param orderService OrderService instance.
+     * @param paginationUtil PaginationUtil instance.
+     * @param linkFactory LinkFactory instance.
      */
     @Autowired
-    public OrderController(OrderService orderService, PaginationUtil paginationUtil) {
+    public OrderController(OrderService orderService, PaginationUtil paginationUtil,
+                           LinkFactory linkFactory) {
         this.orderService = orderService;
         this.paginationUtil = paginationUtil;
+        this.linkFactory = linkFactory;
     }
 
     /**
      * Gets list of all orders.
+     * <p>
+     * If the "after" cursor is passed, the list is read in keyset mode starting right after the cursor
+     * and the "page" parameter is ignored. With "with_total=false" the total count of orders is not requested.
      *
-     * @param page     page's number
-     * @param pageSize page size
+     * @param page      page's number
+     * @param pageSize  page size
+     * @param after     cursor of the last seen order
+     * @param withTotal whether the total count of orders is needed
      * @return Orders list.
      */
     @ResponseStatus(HttpStatus.OK)
     @GetMapping(value = "/orders", produces = {"application/hal+json"})
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public CollectionModel<OrderDTO> findAllOrders(@RequestParam(value = "page") Optional<Integer> page,
-                                                @RequestParam(value = "page_size") Optional<Integer> pageSize) {
+                                                @RequestParam(value = "page_size") Optional<Integer> pageSize,
+                                                @RequestParam(value = "after") Optional<String> after,
+                                                @RequestParam(value = "with_total") Optional<Boolean> withTotal) {
         int pageNumber = page.orElse(DEFAULT_PAGE_NUMBER);
         int pageSizeNumber = pageSize.orElse(DEFAULT_PAGE_SIZE);
         ValidationUtils.checkPaginationData(pageNumber, pageSizeNumber);
 
-        Page<OrderDTO> orderList = orderService.getAllOrders(pageNumber-1, pageSizeNumber);
+        Link orders = linkTo(OrderController.class).slash("orders").withRel("ordersList");
 
-        for (OrderDTO orderDTO : orderList) {
-            Link selfLink = linkTo(methodOn(OrderController.class)
-                    .findOrderById(orderDTO.getId())).withRel("currentOrder");
-            orderDTO.add(selfLink);
+        if (after.isPresent()) {
+            Slice<OrderDTO> orderSlice = orderService.getAllOrdersAfter(PageCursor.decode(after.get()), pageSizeNumber);
+            addCurrentOrderLinks(orderSlice);
+            CollectionModel<OrderDTO> collectionModel = new CollectionModel(orderSlice.getContent(), orders);
+            paginationUtil.addCursorLinkToOrderDTO(collectionModel, orderSlice, pageSizeNumber);
+            return collectionModel;
         }
 
-        Link orders = linkTo(OrderController.class).slash("orders").withRel("ordersList");
+        Slice<OrderDTO> orderList = withTotal.orElse(true)
+                ? orderService.getAllOrders(pageNumber-1, pageSizeNumber)
+                : orderService.getAllOrdersSlice(pageNumber-1, pageSizeNumber);
+        addCurrentOrderLinks(orderList);
 
         CollectionModel<OrderDTO> collectionModel = new CollectionModel(orderList, orders);
         if (pageNumber > 1) {
             Link previousPage = linkTo(methodOn(OrderController.class)
-                    .findAllOrders(Optional.of(pageNumber - 1), Optional.of(pageSizeNumber))).withRel("previousPage");
+                    .findAllOrders(Optional.of(pageNumber - 1), Optional.of(pageSizeNumber), Optional.empty(), Optional.empty())).withRel("previousPage");
             collectionModel.add(previousPage);
         }
-        if (pageNumber < orderList.getTotalPages()) {
+        if (orderList.hasNext()) {
             Link nextPage = linkTo(methodOn(OrderController.class)
-                    .findAllOrders(Optional.of(pageNumber + 1), Optional.of(pageSizeNumber))).withRel("nextPage");
+                    .findAllOrders(Optional.of(pageNumber + 1), Optional.of(pageSizeNumber), Optional.empty(), Optional.empty())).withRel("nextPage");
             collectionModel.add(nextPage);
         }
+        paginationUtil.addCursorLinkToOrderDTO(collectionModel, orderList, pageSizeNumber);
         return collectionModel;
     }
 
+    private void addCurrentOrderLinks(Slice<OrderDTO> orders) {
+        for (OrderDTO orderDTO : orders) {
+            Link selfLink = linkFactory.orderLink(orderDTO.getId(), "currentOrder");
+            orderDTO.add(selfLink);
+        }
+    }
+
     /**
      * Gets order by id.
      *
@@ -104,17 +132,20 @@ public class OrderController {
     @PostMapping(value = "/orders")
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN') && @authorizationComponentImpl.userHasAccess(principal, #userId)")
     public OrderDTO makeOrder(@RequestParam(value = "user_id") Long userId,
-                           @RequestParam(value = "certificate_id") Long certificateId) {
+                           @RequestParam(value = "certificate_id") Long certificateId,
+                           @RequestHeader(value = IDEMPOTENCY_KEY_HEADER) Optional<String> idempotencyKey) {
         ValidationUtils.checkId(userId, certificateId);
-        OrderDTO orderDTO = orderService.makeOrder(userId, certificateId);
+        idempotencyKey.ifPresent(ValidationUtils::checkIdempotencyKey);
+        OrderDTO orderDTO = idempotencyKey.isPresent()
+                ? orderService.makeOrder(userId, certificateId, idempotencyKey.get())
+                : orderService.makeOrder(userId, certificateId);
         return addHateoasLinksToOrder(orderDTO);
     }
 
     private OrderDTO addHateoasLinksToOrder(OrderDTO orderDTO) {
-        Link selfLink = linkTo(methodOn(OrderController.class)
-                .findOrderById(orderDTO.getId())).withRel("currentOrder");
+        Link selfLink = linkFactory.orderLink(orderDTO.getId(), "currentOrder");
         Link ordersLink = linkTo(methodOn(OrderController.class)
-                .findAllOrders(Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE))).withRel("ordersList");
+                .findAllOrders(Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE), Optional.empty(), Optional.empty())).withRel("ordersList");
         orderDTO.add(ordersLink);
         orderDTO.add(selfLink);
         return orderDTO;
@@ -125,7 +156,9 @@ public class OrderController {
      *
      * @param id       User id.
      * @param page     page's number
-     * @param pageSize page size
+     * @param pageSize  page size
+     * @param after     cursor of the last seen order
+     * @param withTotal whether the total count of user's orders is needed
      * @return Order instance.
      */
     @ResponseStatus(HttpStatus.OK)
@@ -133,20 +166,36 @@ public class OrderController {
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN') && @authorizationComponentImpl.userHasAccess(principal, #id)")
     public CollectionModel<OrderDTO> getUserOrders(@PathVariable Long id,
                                                 @RequestParam(value = "page") Optional<Integer> page,
-                                                @RequestParam(value = "page_size") Optional<Integer> pageSize
+                                                @RequestParam(value = "page_size") Optional<Integer> pageSize,
+                                                @RequestParam(value = "after") Optional<String> after,
+                                                @RequestParam(value = "with_total") Optional<Boolean> withTotal
     ) {
         int pageNumber = page.orElse(DEFAULT_PAGE_NUMBER);
         int pageSizeNumber = pageSize.orElse(DEFAULT_PAGE_SIZE);
 
         ValidationUtils.checkPaginationData(pageNumber, pageSizeNumber);
-        Page<OrderDTO> orderDTOPage = orderService.getUserOrders(id, pageNumber-1, pageSizeNumber);
 
-        for (OrderDTO orderDTO : orderDTOPage) {
-            Link selfLink = linkTo(methodOn(OrderController.class)
-                    .findOrderById(orderDTO.getId())).withRel("order");
-            orderDTO.add(selfLink);
+        if (after.isPresent()) {
+            Slice<OrderDTO> orderSlice = orderService.getUserOrdersAfter(id, PageCursor.decode(after.get()), pageSizeNumber);
+            addUserOrderLinks(orderSlice);
+            CollectionModel<OrderDTO> collectionModel = new CollectionModel(orderSlice.getContent());
+            paginationUtil.addCursorLinkToUserOrderDTO(id, collectionModel, orderSlice, pageSizeNumber);
+            return collectionModel;
         }
 
+        if (!withTotal.orElse(true)) {
+            Slice<OrderDTO> orderSlice = orderService.getUserOrdersSlice(id, pageNumber-1, pageSizeNumber);
+            addUserOrderLinks(orderSlice);
+            CollectionModel<OrderDTO> collectionModel = new CollectionModel(orderSlice.getContent());
+            paginationUtil.addPaginationLinksToOrderDTO(id, collectionModel, pageNumber, orderSlice, pageSizeNumber);
+            paginationUtil.addCursorLinkToUserOrderDTO(id, collectionModel, orderSlice, pageSizeNumber);
+            return collectionModel;
+        }
+
+        Page<OrderDTO> orderDTOPage = orderService.getUserOrders(id, pageNumber-1, pageSizeNumber);
+
+        addUserOrderLinks(orderDTOPage);
+
         CollectionModel<OrderDTO> collectionModel = new CollectionModel(orderDTOPage);
         paginationUtil.addPaginationLinksToOrderDTO(
                 id,
@@ -155,6 +204,14 @@ public class OrderController {
                 orderDTOPage.getTotalPages(),
                 pageSizeNumber
         );
+        paginationUtil.addCursorLinkToUserOrderDTO(id, collectionModel, orderDTOPage, pageSizeNumber);
         return collectionModel;
     }
+
+    private void addUserOrderLinks(Slice<OrderDTO> orders) {
+        for (OrderDTO orderDTO : orders) {
+            Link selfLink = linkFactory.orderLink(orderDTO.getId(), "order");
+            orderDTO.add(selfLink);
+        }
+    }
 }
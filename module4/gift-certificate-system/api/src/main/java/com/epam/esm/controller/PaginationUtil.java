@@ -2,7 +2,11 @@ package com.epam.esm.controller;
 
 import com.epam.esm.dto.GiftCertificateDTO;
 import com.epam.esm.dto.OrderDTO;
+import com.epam.esm.dto.PageCursor;
+import com.epam.esm.dto.TagDTO;
 import com.epam.esm.dto.UserDTO;
+import com.epam.esm.repository.CertificateSearchQuery;
+import org.springframework.data.domain.Slice;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.Link;
 import org.springframework.stereotype.Service;
@@ -19,6 +23,7 @@ public class PaginationUtil {
     private static final String PREV_PAGE = "prevPage";
     private static final String FIRST_PAGE = "firstPage";
     private static final String LAST_PAGE = "lastPage";
+    private static final String NEXT_CURSOR = "next";
 
 
     void addPaginationLinksToOrderDTO(
@@ -62,12 +67,114 @@ public class PaginationUtil {
         }
     }
 
+    void addPaginationLinksToOrderDTO(
+            Long userId,
+            CollectionModel<OrderDTO> orderDTOS,
+            final int pageNumber,
+            Slice<OrderDTO> slice,
+            final int pageSize) {
+
+        if (slice.hasNext()) {
+            orderDTOS.add(getLinkToFindUserOrdersMethod(userId, pageNumber + 1, pageSize, NEXT_PAGE));
+        }
+        if (hasPreviousPage(pageNumber)) {
+            orderDTOS.add(getLinkToFindUserOrdersMethod(userId, pageNumber - 1, pageSize, PREV_PAGE));
+        }
+        if (hasFirstPage(pageNumber)) {
+            orderDTOS.add(getLinkToFindUserOrdersMethod(userId, 1, pageSize, FIRST_PAGE));
+        }
+    }
+
+    void addPaginationLinksToUserDTO(
+            CollectionModel<UserDTO> userDTOS,
+            final int pageNumber,
+            Slice<UserDTO> slice,
+            final int pageSize) {
+
+        if (slice.hasNext()) {
+            userDTOS.add(getLinkToFindAllUsersMethod(pageNumber + 1, pageSize, NEXT_PAGE));
+        }
+        if (hasPreviousPage(pageNumber)) {
+            userDTOS.add(getLinkToFindAllUsersMethod(pageNumber - 1, pageSize, PREV_PAGE));
+        }
+        if (hasFirstPage(pageNumber)) {
+            userDTOS.add(getLinkToFindAllUsersMethod(1, pageSize, FIRST_PAGE));
+        }
+    }
+
+    void addCursorLinkToOrderDTO(CollectionModel<OrderDTO> orderDTOS, Slice<OrderDTO> slice, final int pageSize) {
+        if (hasNextCursor(slice)) {
+            OrderDTO last = lastOf(slice);
+            String after = PageCursor.of(last.getId(), last.getId()).encode();
+            orderDTOS.add(linkTo(methodOn(OrderController.class)
+                    .findAllOrders(Optional.empty(), Optional.of(pageSize), Optional.of(after), Optional.empty())).withRel(NEXT_CURSOR));
+        }
+    }
+
+    void addCursorLinkToUserOrderDTO(Long userId, CollectionModel<OrderDTO> orderDTOS, Slice<OrderDTO> slice, final int pageSize) {
+        if (hasNextCursor(slice)) {
+            OrderDTO last = lastOf(slice);
+            String after = PageCursor.of(last.getId(), last.getId()).encode();
+            orderDTOS.add(linkTo(methodOn(OrderController.class)
+                    .getUserOrders(userId, Optional.empty(), Optional.of(pageSize), Optional.of(after), Optional.empty())).withRel(NEXT_CURSOR));
+        }
+    }
+
+    void addCursorLinkToUserDTO(CollectionModel<UserDTO> userDTOS, Slice<UserDTO> slice, final int pageSize) {
+        if (hasNextCursor(slice)) {
+            UserDTO last = lastOf(slice);
+            String after = PageCursor.of(last.getId(), last.getId()).encode();
+            userDTOS.add(linkTo(methodOn(UserController.class)
+                    .findAllUsers(Optional.empty(), Optional.of(pageSize), Optional.of(after), Optional.empty())).withRel(NEXT_CURSOR));
+        }
+    }
+
+    void addCursorLinkToTagDTO(CollectionModel<TagDTO> tagDTOS, Slice<TagDTO> slice, final int pageSize) {
+        if (hasNextCursor(slice)) {
+            TagDTO last = lastOf(slice);
+            String after = PageCursor.of(last.getId(), last.getId()).encode();
+            tagDTOS.add(linkTo(methodOn(TagController.class)
+                    .findAllTags(Optional.empty(), Optional.of(pageSize), Optional.of(after), Optional.empty())).withRel(NEXT_CURSOR));
+        }
+    }
+
+    void addCursorLinkToCertificateDTO(
+            CollectionModel<GiftCertificateDTO> certificateDTOS,
+            Slice<GiftCertificateDTO> slice,
+            CertificateSearchQuery query,
+            final int pageSize) {
+
+        if (hasNextCursor(slice) && !query.hasText()) {
+            GiftCertificateDTO last = lastOf(slice);
+            Object sortKey = last.getId();
+            if ("name".equals(query.getSortParameter())) {
+                sortKey = last.getName();
+            } else if ("createDate".equals(query.getSortParameter())) {
+                sortKey = last.getCreateDate();
+            }
+            String after = PageCursor.of(sortKey, last.getId()).encode();
+            certificateDTOS.add(linkTo(methodOn(GiftCertificateController.class)
+                    .findCertificates(Optional.ofNullable(query.getText()), Optional.ofNullable(query.getTagName()), Optional.ofNullable(query.getPartOfName()),
+                            Optional.ofNullable(query.getPartOfDescription()), Optional.ofNullable(query.getSortParameter()),
+                            Optional.ofNullable(query.getSortOrder()), Optional.empty(), Optional.of(pageSize),
+                            Optional.of(after), Optional.empty())).withRel(NEXT_CURSOR));
+        }
+    }
+
     private Link getLinkToFindUserOrdersMethod(Long id, Integer pageSize, Integer pageNumber, String linkName) {
-        return linkTo(methodOn(OrderController.class).getUserOrders(id, Optional.of(pageSize), Optional.of(pageNumber))).withSelfRel().withName(linkName);
+        return linkTo(methodOn(OrderController.class).getUserOrders(id, Optional.of(pageSize), Optional.of(pageNumber), Optional.empty(), Optional.empty())).withSelfRel().withName(linkName);
     }
 
     private Link getLinkToFindAllUsersMethod(Integer pageSize, Integer pageNumber, String linkName) {
-        return linkTo(methodOn(UserController.class).findAllUsers(Optional.of(pageSize), Optional.of(pageNumber))).withSelfRel().withName(linkName);
+        return linkTo(methodOn(UserController.class).findAllUsers(Optional.of(pageSize), Optional.of(pageNumber), Optional.empty(), Optional.empty())).withSelfRel().withName(linkName);
+    }
+
+    private boolean hasNextCursor(Slice<?> slice) {
+        return slice.hasNext() && slice.hasContent();
+    }
+
+    private <T> T lastOf(Slice<T> slice) {
+        return slice.getContent().get(slice.getNumberOfElements() - 1);
     }
 
     private boolean hasNextPage(final int pageNumber, final int totalPages) {
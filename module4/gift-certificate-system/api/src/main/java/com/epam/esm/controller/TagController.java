@@ -1,18 +1,16 @@
 package com.epam.esm.controller;
 
+import com.epam.esm.dto.PageCursor;
 import com.epam.esm.dto.TagDTO;
 import com.epam.esm.dto.UserDTO;
 import com.epam.esm.model.Tag;
+import com.epam.esm.service.PatchService;
 import com.epam.esm.service.TagService;
 import com.epam.esm.validator.ValidationUtils;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.fge.jsonpatch.JsonPatch;
 import com.github.fge.jsonpatch.JsonPatchException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.Link;
 import org.springframework.http.HttpHeaders;
@@ -23,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,53 +40,86 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class TagController {
 
     private final TagService tagService;
+    private final PaginationUtil paginationUtil;
+    private final LinkFactory linkFactory;
+    private final PatchService patchService;
 
     /**
      * Accepts service layer objects and tag validator.
      *
      * @param tagService            TagService instance.
+     * @param paginationUtil        PaginationUtil instance.
+     * @param linkFactory           LinkFactory instance.
+     * @param patchService          PatchService instance.
      */
     @Autowired
-    public TagController(TagService tagService) {
+    public TagController(TagService tagService, PaginationUtil paginationUtil,
+                         LinkFactory linkFactory,
+                         PatchService patchService) {
         this.tagService = tagService;
+        this.paginationUtil = paginationUtil;
+        this.linkFactory = linkFactory;
+        this.patchService = patchService;
     }
 
     /**
      * Gets list of all tags.
+     * <p>
+     * If the "after" cursor is passed, the list is read in keyset mode starting right after the cursor
+     * and the "page" parameter is ignored. With "with_total=false" the total count of tags is not requested.
      *
      * @param page  page's number
      * @param pageSize page size
+     * @param after cursor of the last seen tag
+     * @param withTotal whether the total count of tags is needed
      * @return Tags list.
      */
     @ResponseStatus(HttpStatus.OK)
     @GetMapping(value = "/tags", produces = {"application/hal+json"})
     public CollectionModel<TagDTO> findAllTags(@RequestParam(value = "page") Optional<Integer> page,
-                                               @RequestParam(value = "page_size") Optional<Integer> pageSize) {
+                                               @RequestParam(value = "page_size") Optional<Integer> pageSize,
+                                               @RequestParam(value = "after") Optional<String> after,
+                                               @RequestParam(value = "with_total") Optional<Boolean> withTotal) {
         int pageNumber = page.orElse(DEFAULT_PAGE_NUMBER);
         int pageSizeNumber = pageSize.orElse(DEFAULT_PAGE_SIZE);
 
         ValidationUtils.checkPaginationData(pageNumber, pageSizeNumber);
 
-        Page<TagDTO> tagDTOList = tagService.findAllTags(pageNumber-1, pageSizeNumber);
-        for (TagDTO tagDTO : tagDTOList) {
-            Link selfLink = linkTo(methodOn(TagController.class)
-                    .findTagById(tagDTO.getId())).withSelfRel();
-            tagDTO.add(selfLink);
-        }
         Link tagLink = linkTo(TagController.class).slash("tags").withSelfRel();
+
+        if (after.isPresent()) {
+            Slice<TagDTO> tagSlice = tagService.findAllTagsAfter(PageCursor.decode(after.get()), pageSizeNumber);
+            addTagSelfLinks(tagSlice);
+            CollectionModel<TagDTO> collectionModel = new CollectionModel(tagSlice.getContent(), tagLink);
+            paginationUtil.addCursorLinkToTagDTO(collectionModel, tagSlice, pageSizeNumber);
+            return collectionModel;
+        }
+
+        Slice<TagDTO> tagDTOList = withTotal.orElse(true)
+                ? tagService.findAllTags(pageNumber-1, pageSizeNumber)
+                : tagService.findAllTagsSlice(pageNumber-1, pageSizeNumber);
+        addTagSelfLinks(tagDTOList);
         CollectionModel<TagDTO> collectionModel = new CollectionModel(tagDTOList, tagLink);
         if (pageNumber > 1) {
             Link previousPage = linkTo(methodOn(TagController.class)
-                    .findAllTags(Optional.of(pageNumber - 1), Optional.of(pageSizeNumber))).withRel("previousPage");
+                    .findAllTags(Optional.of(pageNumber - 1), Optional.of(pageSizeNumber), Optional.empty(), Optional.empty())).withRel("previousPage");
             collectionModel.add(previousPage);
         }
-        if (pageNumber < tagDTOList.getTotalPages()) {
+        if (tagDTOList.hasNext()) {
             Link nextPage = linkTo(methodOn(TagController.class)
-                    .findAllTags(Optional.of(pageNumber + 1), Optional.of(pageSizeNumber))).withRel("nextPage");
+                    .findAllTags(Optional.of(pageNumber + 1), Optional.of(pageSizeNumber), Optional.empty(), Optional.empty())).withRel("nextPage");
             collectionModel.add(nextPage);
         }
+        paginationUtil.addCursorLinkToTagDTO(collectionModel, tagDTOList, pageSizeNumber);
         return collectionModel;    }
 
+    private void addTagSelfLinks(Slice<TagDTO> tags) {
+        for (TagDTO tagDTO : tags) {
+            Link selfLink = linkFactory.tagLink(tagDTO.getId());
+            tagDTO.add(selfLink);
+        }
+    }
+
     /**
      * Gets tag by id.
      *
@@ -98,10 +130,9 @@ public class TagController {
     @GetMapping(value = "tags/{id}", produces = {"application/hal+json"})
     public TagDTO findTagById(@PathVariable Long id) {
         TagDTO tagDTO = tagService.findTagById(id);
-        Link selfLink = linkTo(methodOn(TagController.class)
-                .findTagById(tagDTO.getId())).withSelfRel();
+        Link selfLink = linkFactory.tagLink(tagDTO.getId());
         Link tagsLink = linkTo(methodOn(TagController.class)
-                .findAllTags(Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE))).withRel("tags");
+                .findAllTags(Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE), Optional.empty(), Optional.empty())).withRel("tags");
         tagDTO.add(tagsLink);
         tagDTO.add(selfLink);
         return tagDTO;
@@ -127,26 +158,26 @@ public class TagController {
     /**
      * Updates tag.
      *
-     * First, finds a tag by ID. Subsequently, if the tag record is found, invokes
-     * the applyPatchToTag(patch, tag) method. Then applies the JsonPatch to the tag.
+     * First, finds a tag by ID. Subsequently, if the tag record is found, applies
+     * the JSON Patch to it through the <i>patchService</i>.
      * After that the tag is updated through the <i>tagService</i>. Is returning <i>ResponseEntity</i> with <i>HttpStatus.CREATED</i>.
      *
      * @param id        Tag id.
-     * @param patch     JsonPatch.
+     * @param patch     JSON Patch document.
      * @return ResponseEntity.
      */
     @PatchMapping(path = "tags/{id}", consumes = "application/json-patch+json")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<TagDTO> updateTag(@PathVariable Long id,
-                                         @RequestBody JsonPatch patch) {
+                                         @RequestBody JsonNode patch) {
         try {
             TagDTO oldTag = tagService.findTagById(id);
-            TagDTO tagPatched = applyPatchToTag(patch, oldTag);
+            TagDTO tagPatched = patchService.applyPatch(patch, oldTag, TagDTO.class);
 
             TagDTO tagDTOUpdated = tagService.updateTag(tagPatched);
                 return new ResponseEntity<>(tagDTOUpdated, HttpStatus.CREATED);
 
-        } catch (JsonPatchException | JsonProcessingException e) {
+        } catch (JsonPatchException | IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -164,24 +195,6 @@ public class TagController {
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
-    /**
-     * Applies JsonPatch to tag.
-     *
-     * This method applies the JsonPatch to the tag.
-     *
-     * @param patch             JsonPatch
-     * @param targetTag         Tag instance
-     * @return patched Tag instance.
-     */
-    private TagDTO applyPatchToTag(
-            JsonPatch patch, TagDTO targetTag) throws JsonPatchException, JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
-
-        JsonNode patched = patch.apply(objectMapper.convertValue(targetTag, JsonNode.class));
-        return objectMapper.treeToValue(patched, TagDTO.class);
-    }
-
     /**
      * Gets tag by id.
      * Get the most widely used tag of a user with the highest cost of all orders.
@@ -191,10 +204,9 @@ public class TagController {
     @GetMapping(value = "/tags/popular", produces = {"application/hal+json"})
     public TagDTO getUsersMostWidelyUsedTag() {
         TagDTO tagDTO = tagService.getUsersMostWidelyUsedTag();
-        Link selfLink = linkTo(methodOn(TagController.class)
-                .findTagById(tagDTO.getId())).withSelfRel();
+        Link selfLink = linkFactory.tagLink(tagDTO.getId());
         Link tagsLink = linkTo(methodOn(TagController.class)
-                .findAllTags(Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE))).withRel("tags");
+                .findAllTags(Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE), Optional.empty(), Optional.empty())).withRel("tags");
         tagDTO.add(tagsLink);
         tagDTO.add(selfLink);
         return tagDTO;
@@ -1,5 +1,6 @@
 package com.epam.esm.controller;
 
+import com.epam.esm.dto.PageCursor;
 import com.epam.esm.dto.UserDTO;
 import com.epam.esm.model.User;
 import com.epam.esm.service.UserService;
@@ -8,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
@@ -33,46 +35,69 @@ public class UserController {
 
     private final UserService userService;
     private final PaginationUtil paginationUtil;
+    private final LinkFactory linkFactory;
 
     /**
      * Constructor accepts service layer object.
      *
      * @param userService UserService instance.
+     * @param paginationUtil PaginationUtil instance.
+     * @param linkFactory LinkFactory instance.
      */
     @Autowired
-    public UserController(UserService userService, PaginationUtil paginationUtil) {
+    public UserController(UserService userService, PaginationUtil paginationUtil,
+                          LinkFactory linkFactory) {
         this.userService = userService;
         this.paginationUtil = paginationUtil;
+        this.linkFactory = linkFactory;
     }
 
     /**
      * Get users list.
      * <p>
-     * Getting users list.
+     * Getting users list. If the "after" cursor is passed, the list is read in keyset mode
+     * starting right after the cursor and the "page" parameter is ignored. With "with_total=false"
+     * the total count of users is not requested.
      *
      * @param page  page's number
      * @param pageSize page size
+     * @param after cursor of the last seen user
+     * @param withTotal whether the total count of users is needed
      * @return User list.
      */
     @ResponseStatus(HttpStatus.OK)
     @GetMapping(value = "/users", produces = {"application/hal+json"})
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public CollectionModel<UserDTO> findAllUsers(@RequestParam(value = "page") Optional<Integer> page,
-                                              @RequestParam(value = "page_size") Optional<Integer> pageSize) {
+                                              @RequestParam(value = "page_size") Optional<Integer> pageSize,
+                                              @RequestParam(value = "after") Optional<String> after,
+                                              @RequestParam(value = "with_total") Optional<Boolean> withTotal) {
         int pageNumber = page.orElse(DEFAULT_PAGE_NUMBER);
         int pageSizeNumber = pageSize.orElse(DEFAULT_PAGE_SIZE);
 
         ValidationUtils.checkPaginationData(pageNumber, pageSizeNumber);
 
-        Page<UserDTO> userDTOPage = userService.getAllUsers(pageNumber-1, pageSizeNumber);
+        Link usersLink = linkTo(UserController.class).slash("users").withRel("usersList");
 
-        for (UserDTO userDTO : userDTOPage) {
-            Link selfLink = linkTo(methodOn(UserController.class)
-                    .findUserById(userDTO.getId())).withRel("currentUser");
-            userDTO.add(selfLink);
+        if (after.isPresent()) {
+            Slice<UserDTO> userSlice = userService.getAllUsersAfter(PageCursor.decode(after.get()), pageSizeNumber);
+            addCurrentUserLinks(userSlice);
+            CollectionModel<UserDTO> collectionModel = new CollectionModel(userSlice.getContent(), usersLink);
+            paginationUtil.addCursorLinkToUserDTO(collectionModel, userSlice, pageSizeNumber);
+            return collectionModel;
         }
 
-        Link usersLink = linkTo(UserController.class).slash("users").withRel("usersList");
+        if (!withTotal.orElse(true)) {
+            Slice<UserDTO> userSlice = userService.getAllUsersSlice(pageNumber-1, pageSizeNumber);
+            addCurrentUserLinks(userSlice);
+            CollectionModel<UserDTO> collectionModel = new CollectionModel(userSlice.getContent(), usersLink);
+            paginationUtil.addPaginationLinksToUserDTO(collectionModel, pageNumber, userSlice, pageSizeNumber);
+            paginationUtil.addCursorLinkToUserDTO(collectionModel, userSlice, pageSizeNumber);
+            return collectionModel;
+        }
+
+        Page<UserDTO> userDTOPage = userService.getAllUsers(pageNumber-1, pageSizeNumber);
+        addCurrentUserLinks(userDTOPage);
 
         CollectionModel<UserDTO> collectionModel = new CollectionModel(userDTOPage, usersLink);
         paginationUtil.addPaginationLinksToUserDTO(
@@ -81,9 +106,17 @@ public class UserController {
                 userDTOPage.getTotalPages(),
                 pageSizeNumber
         );
+        paginationUtil.addCursorLinkToUserDTO(collectionModel, userDTOPage, pageSizeNumber);
         return collectionModel;
     }
 
+    private void addCurrentUserLinks(Slice<UserDTO> users) {
+        for (UserDTO userDTO : users) {
+            Link selfLink = linkFactory.userLink(userDTO.getId(), "currentUser");
+            userDTO.add(selfLink);
+        }
+    }
+
     /**
      * Gets user by id.
      *
@@ -95,10 +128,9 @@ public class UserController {
     @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN') && @authorizationComponentImpl.userHasAccess(principal, #id)")
     public UserDTO findUserById(@PathVariable Long id) {
         UserDTO userDTO = userService.getUserById(id);
-        Link selfLink = linkTo(methodOn(UserController.class)
-                .findUserById(userDTO.getId())).withRel("currentUser");
+        Link selfLink = linkFactory.userLink(userDTO.getId(), "currentUser");
         Link ordersLink = linkTo(methodOn(OrderController.class)
-                .getUserOrders(userDTO.getId(), Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE))).withRel("usersOrders");
+                .getUserOrders(userDTO.getId(), Optional.of(DEFAULT_PAGE_NUMBER), Optional.of(DEFAULT_PAGE_SIZE), Optional.empty(), Optional.empty())).withRel("usersOrders");
         userDTO.add(ordersLink);
         userDTO.add(selfLink);
         return userDTO;
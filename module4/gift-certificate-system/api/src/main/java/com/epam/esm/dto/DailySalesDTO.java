@@ -0,0 +1,23 @@
+package com.epam.esm.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Number of orders and revenue of all certificates on one day.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class DailySalesDTO implements Serializable {
+    private static final long serialVersionUID = -1L;
+    private LocalDate salesDate;
+    private long orderCount;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,21 @@
+package com.epam.esm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Failure of a single row of the certificates import. Rows are numbered from 1 in the order they were sent.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO implements Serializable {
+    private static final long serialVersionUID = -1L;
+    private int row;
+    private String message;
+}
@@ -0,0 +1,27 @@
+package com.epam.esm.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Result of the certificates import: number of saved certificates and the rows that were rejected.
+ */
+@Data
+public class ImportReportDTO implements Serializable {
+    private static final long serialVersionUID = -1L;
+    private int imported;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    public void addError(int row, String message) {
+        errors.add(new ImportErrorDTO(row, message));
+    }
+}
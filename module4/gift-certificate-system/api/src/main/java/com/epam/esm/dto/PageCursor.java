@@ -0,0 +1,44 @@
+package com.epam.esm.dto;
+
+import com.epam.esm.exception.InvalidInputDataException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Base64;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Keyset pagination cursor: sort key and id of the last row seen by the client.
+ * Travels over the wire as an opaque url-safe token in the "after" request parameter.
+ */
+@Data
+@AllArgsConstructor
+public class PageCursor {
+
+    private static final char SEPARATOR = '\n';
+
+    private String sortKey;
+    private Long id;
+
+    public static PageCursor of(Object sortKey, Long id) {
+        return new PageCursor(String.valueOf(sortKey), id);
+    }
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            return new PageCursor(raw.substring(0, separatorIndex), Long.valueOf(raw.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidInputDataException(MessageFormat.format("Invalid cursor: {0}", token), e);
+        }
+    }
+}
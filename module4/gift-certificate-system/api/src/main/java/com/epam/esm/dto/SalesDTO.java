@@ -0,0 +1,25 @@
+package com.epam.esm.dto;
+
+import lombok.*;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Number of orders and revenue of a certificate or a tag over the requested period.
+ */
+@EqualsAndHashCode(callSuper = true)
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class SalesDTO extends RepresentationModel<SalesDTO> implements Serializable {
+    private static final long serialVersionUID = -1L;
+    private Long id;
+    private String name;
+    private long orderCount;
+    private BigDecimal revenue;
+}
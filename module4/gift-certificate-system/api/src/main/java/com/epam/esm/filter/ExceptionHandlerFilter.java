@@ -4,6 +4,7 @@ import com.epam.esm.exception.ApiError;
 import com.epam.esm.exception.JwtAuthenticationException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
@@ -23,6 +24,8 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 @Order(value = HIGHEST_PRECEDENCE)
 public class ExceptionHandlerFilter extends OncePerRequestFilter {
 
+    private static final ObjectWriter JSON_WRITER = new ObjectMapper().writer();
+
     @Override
     public void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         try {
@@ -42,7 +45,6 @@ public class ExceptionHandlerFilter extends OncePerRequestFilter {
         if (object == null) {
             return null;
         }
-        ObjectMapper mapper = new ObjectMapper();
-        return mapper.writeValueAsString(object);
+        return JSON_WRITER.writeValueAsString(object);
     }
 }
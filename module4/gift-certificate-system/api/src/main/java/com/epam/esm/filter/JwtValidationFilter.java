@@ -39,7 +39,7 @@ public class JwtValidationFilter extends OncePerRequestFilter {
         if (requestTokenHeader != null && requestTokenHeader.startsWith(BEARER)) {
             String jwtToken = requestTokenHeader.substring(BEARER_HEADER_OFFSET);
             try {
-                if (!jwtTokenProvider.validateToken(jwtTokenProvider.resolveToken(request))) {
+                if (!jwtTokenProvider.validateToken(jwtToken)) {
                     throw new JwtAuthenticationException("JWT token is expired or invalid");
                 }
                 String username = jwtTokenProvider.getUsernameFromToken(jwtToken);
@@ -1,39 +1,43 @@
 package com.epam.esm.security;
 
-import com.epam.esm.dto.RoleDTO;
-import com.epam.esm.dto.UserDTO;
 import com.epam.esm.exception.InvalidInputDataException;
-import com.epam.esm.exception.UserAccessDeniedException;
-import com.epam.esm.model.Role;
-import com.epam.esm.model.User;
-import com.epam.esm.service.UserService;
+import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import javax.annotation.Nonnull;
 import java.util.Collection;
-import java.util.Set;
+import java.util.function.BooleanSupplier;
 
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Ownership checks used in the <i>PreAuthorize</i> expressions. Each check is a single existence query
+ * and its result is remembered for the rest of the current request.
+ */
 @Component
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class AuthorizationComponentImpl implements AuthorizationComponent {
 
-    private final UserService userService;
+    private static final String DECISION_ATTRIBUTE_PREFIX = AuthorizationComponentImpl.class.getName() + ".";
+
+    private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
 
     @Override
     public boolean userHasAccess(@Nonnull UserDetails principal, @Nonnull Long id) {
         if (id == null) {
             throw new InvalidInputDataException("The given id must not be null!");
         }
-        UserDTO user = userService.getUserById(id);
-        Collection<? extends GrantedAuthority> roles = principal.getAuthorities();
-        if (roles.stream().anyMatch(r -> r.getAuthority().contains("ROLE_ADMIN"))) {
-            return true;
-        } else if (principal.getUsername().equals(user.getUsername())) {
+        if (isAdmin(principal) || decide("user." + principal.getUsername() + "." + id,
+                () -> isPrincipalId(principal, id) || userRepository.existsByIdAndUsername(id, principal.getUsername()))) {
             return true;
         } else {
             throw new AccessDeniedException("You don't have access to view the resource!");
@@ -42,14 +46,37 @@ public class AuthorizationComponentImpl implements AuthorizationComponent {
 
     @Override
     public boolean isUsersOrder(@Nonnull UserDetails principal, @Nonnull Long id) {
-        User user = userService.findByUsername(principal.getUsername());
-        Collection<? extends GrantedAuthority> roles = principal.getAuthorities();
-        if (roles.stream().anyMatch(r -> r.getAuthority().contains("ROLE_ADMIN"))) {
-            return true;
-        } else if (user.getOrders().stream().anyMatch(o -> o.getId().equals(id))) {
+        if (isAdmin(principal) || decide("order." + principal.getUsername() + "." + id,
+                () -> orderRepository.existsByIdAndUserUsername(id, principal.getUsername()))) {
             return true;
         } else {
             throw new AccessDeniedException("You don't have access to view the resource");
         }
     }
+
+    private boolean isAdmin(UserDetails principal) {
+        Collection<? extends GrantedAuthority> roles = principal.getAuthorities();
+        return roles.stream().anyMatch(r -> r.getAuthority().contains("ROLE_ADMIN"));
+    }
+
+    private boolean isPrincipalId(UserDetails principal, Long id) {
+        return principal instanceof UserDetailsEntity && id.equals(((UserDetailsEntity) principal).getUser().getId());
+    }
+
+    /**
+     * Makes the decision once per request, later checks of the same key within the request reuse it.
+     */
+    private boolean decide(String key, BooleanSupplier decision) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return decision.getAsBoolean();
+        }
+        String attribute = DECISION_ATTRIBUTE_PREFIX + key;
+        Boolean decided = (Boolean) requestAttributes.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+        if (decided == null) {
+            decided = decision.getAsBoolean();
+            requestAttributes.setAttribute(attribute, decided, RequestAttributes.SCOPE_REQUEST);
+        }
+        return decided;
+    }
 }
@@ -1,33 +1,69 @@
 package com.epam.esm.security;
 
 import com.epam.esm.exception.JwtAuthenticationException;
+import com.epam.esm.model.Role;
+import com.epam.esm.model.User;
 import io.jsonwebtoken.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletRequest;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
-
+import java.util.stream.Collectors;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Issues and verifies JWT tokens. Tokens carry the user id and role names, so in the stateless mode
+ * (<i>jwt.stateless</i>, on by default) the authentication is built from the token alone. When
+ * <i>jwt.user-details.cache-ttl</i> is set, the user is still loaded from the database, but at most once
+ * per that many seconds, so that removed users and changed roles are noticed. Tokens without these claims
+ * always fall back to loading the user.
+ */
 @Component
 public class JwtTokenProvider {
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+
     @Value("${jwt.expiration.time}")
     private long jwtTokenValidity;
     @Value("${jwt.token.secret}")
     private String secret;
+    @Value("${jwt.verified-tokens.cache-size:10000}")
+    private int verifiedTokensCacheSize;
+    @Value("${jwt.stateless:true}")
+    private boolean stateless;
+    @Value("${jwt.user-details.cache-ttl:0}")
+    private long userDetailsCacheTtl;
+
+    private VerifiedTokenCache verifiedTokens;
+    private UserDetailsCache userDetailsCache;
 
     @Qualifier("jwtUserDetailsService")
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @PostConstruct
+    private void init() {
+        verifiedTokens = new VerifiedTokenCache(verifiedTokensCacheSize);
+        if (userDetailsCacheTtl > 0) {
+            userDetailsCache = new UserDetailsCache(userDetailsCacheTtl * 1000, verifiedTokensCacheSize);
+        }
+    }
+
     public String getUsernameFromToken(String token) {
         String userName;
         try {
@@ -47,11 +83,19 @@ public class JwtTokenProvider {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies the token signature once and then serves its claims from the cache until the token expires.
+     */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(secret)
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = verifiedTokens.get(token);
+        if (claims == null) {
+            claims = Jwts.parser()
+                    .setSigningKey(secret)
+                    .parseClaimsJws(token)
+                    .getBody();
+            verifiedTokens.put(token, claims);
+        }
+        return claims;
     }
 
     private Boolean isTokenExpired(String token) {
@@ -61,6 +105,12 @@ public class JwtTokenProvider {
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof UserDetailsEntity) {
+            claims.put(USER_ID_CLAIM, ((UserDetailsEntity) userDetails).getUser().getId());
+        }
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList()));
         return doGenerateToken(claims, userDetails.getUsername());
     }
 
@@ -90,23 +140,59 @@ public class JwtTokenProvider {
 
     public boolean validateToken(String token) {
         try {
-            Jws<Claims> claims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token);
-
-            return !claims.getBody().getExpiration().before(new Date());
+            return !isTokenExpired(token);
         } catch (JwtException | IllegalArgumentException e) {
             throw new JwtAuthenticationException("JWT token is expired or invalid");
         }
     }
 
     public Authentication getAuthentication(String token) {
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(getUsername(token));
+        UserDetails userDetails = loadUserDetails(token);
         return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
     }
 
+    private UserDetails loadUserDetails(String token) {
+        Claims claims;
+        try {
+            claims = getAllClaimsFromToken(token);
+        } catch (Exception e) {
+            throw new JwtAuthenticationException("JWT token is expired or invalid");
+        }
+        String username = claims.getSubject();
+        if (!stateless || !claims.containsKey(USER_ID_CLAIM) || !claims.containsKey(ROLES_CLAIM)) {
+            return userDetailsService.loadUserByUsername(username);
+        }
+        if (userDetailsCache != null) {
+            return userDetailsCache.get(username, this::loadDetachedUserDetails);
+        }
+        @SuppressWarnings("unchecked")
+        Collection<String> roleNames = (Collection<String>) claims.get(ROLES_CLAIM);
+        return principal(((Number) claims.get(USER_ID_CLAIM)).longValue(), username, roleNames);
+    }
+
+    private UserDetails loadDetachedUserDetails(String username) {
+        UserDetailsEntity userDetails = (UserDetailsEntity) userDetailsService.loadUserByUsername(username);
+        List<String> roleNames = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+        return principal(userDetails.getUser().getId(), username, roleNames);
+    }
+
+    private UserDetails principal(Long userId, String username, Collection<String> roleNames) {
+        User user = User.builder()
+                .id(userId)
+                .username(username)
+                .roles(roleNames.stream()
+                        .map(roleName -> Role.builder().name(roleName).build())
+                        .collect(Collectors.toSet()))
+                .build();
+        return new UserDetailsEntity(user);
+    }
+
     public String getUsername(String token) {
         String userName;
         try {
-            userName = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody().getSubject();
+            userName = getClaimFromToken(token, Claims::getSubject);
         } catch (Exception e) {
             throw new JwtAuthenticationException("JWT token is expired or invalid");
         }
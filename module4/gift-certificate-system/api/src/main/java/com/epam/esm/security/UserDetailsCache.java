@@ -0,0 +1,55 @@
+package com.epam.esm.security;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Users loaded from the database, kept for <i>ttlMillis</i> and then loaded again. Lets the stateless
+ * authentication notice removed users and changed roles within the time to live, while hitting the database
+ * at most once per user and period. Holds at most <i>maxSize</i> users, the least recently used one is dropped first.
+ */
+class UserDetailsCache {
+
+    private final long ttlMillis;
+    private final Map<String, CachedUserDetails> usersByName;
+
+    UserDetailsCache(long ttlMillis, int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.usersByName = new LinkedHashMap<String, CachedUserDetails>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUserDetails> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    UserDetails get(String username, Function<String, UserDetails> loader) {
+        long now = System.currentTimeMillis();
+        synchronized (usersByName) {
+            CachedUserDetails cached = usersByName.get(username);
+            if (cached != null && cached.expiresAt > now) {
+                return cached.userDetails;
+            }
+        }
+        UserDetails userDetails = loader.apply(username);
+        synchronized (usersByName) {
+            usersByName.put(username, new CachedUserDetails(userDetails, now + ttlMillis));
+        }
+        return userDetails;
+    }
+
+    private static class CachedUserDetails {
+        private final UserDetails userDetails;
+        private final long expiresAt;
+
+        private CachedUserDetails(UserDetails userDetails, long expiresAt) {
+            this.userDetails = userDetails;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
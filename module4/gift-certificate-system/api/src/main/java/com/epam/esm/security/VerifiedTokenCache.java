@@ -0,0 +1,97 @@
+package com.epam.esm.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Claims of tokens whose signature has already been verified, keyed by the SHA-256 hash of the token so that
+ * raw tokens are not kept in memory. The entries are split into up to <i>16</i> stripes by the hash, each with
+ * a lock of its own, so that concurrent requests don't wait for each other. A stripe holds its share of
+ * <i>maxSize</i> entries, the least recently used one is dropped first. An entry is dropped as soon as it is read
+ * after the token expiration time.
+ */
+class VerifiedTokenCache {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int MAX_STRIPES = 16;
+    private static final int MIN_STRIPE_SIZE = 64;
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Map<String, Claims>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    VerifiedTokenCache(int maxSize) {
+        int stripeCount = Math.max(1, Math.min(MAX_STRIPES, maxSize / MIN_STRIPE_SIZE));
+        int stripeSize = (maxSize + stripeCount - 1) / stripeCount;
+        this.stripes = new Map[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new LinkedHashMap<String, Claims>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                    return size() > stripeSize;
+                }
+            };
+        }
+    }
+
+    /**
+     * Gets claims of a verified token.
+     *
+     * @param token JWT token.
+     * @return claims, or null if the token was not verified yet or has expired.
+     */
+    Claims get(String token) {
+        byte[] digest = hash(token);
+        String tokenHash = Base64.getEncoder().encodeToString(digest);
+        Map<String, Claims> stripe = stripe(digest);
+        synchronized (stripe) {
+            Claims claims = stripe.get(tokenHash);
+            if (claims != null && isExpired(claims)) {
+                stripe.remove(tokenHash);
+                return null;
+            }
+            return claims;
+        }
+    }
+
+    void put(String token, Claims claims) {
+        if (isExpired(claims)) {
+            return;
+        }
+        byte[] digest = hash(token);
+        String tokenHash = Base64.getEncoder().encodeToString(digest);
+        Map<String, Claims> stripe = stripe(digest);
+        synchronized (stripe) {
+            stripe.put(tokenHash, claims);
+        }
+    }
+
+    private Map<String, Claims> stripe(byte[] digest) {
+        int hash = ((digest[0] & 0xff) << 8) | (digest[1] & 0xff);
+        return stripes[hash % stripes.length];
+    }
+
+    private boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration == null || expiration.before(new Date());
+    }
+
+    private byte[] hash(String token) {
+        return DIGEST.get().digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,19 @@
+package com.epam.esm.service;
+
+import com.epam.esm.dto.DailySalesDTO;
+import com.epam.esm.dto.SalesDTO;
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AnalyticsService {
+
+    Page<SalesDTO> getCertificateSales(LocalDate from, LocalDate to, int page, int pageSize);
+
+    Page<SalesDTO> getTagSales(LocalDate from, LocalDate to, int page, int pageSize);
+
+    List<DailySalesDTO> getDailySales(LocalDate from, LocalDate to);
+
+    void rebuildSales();
+}
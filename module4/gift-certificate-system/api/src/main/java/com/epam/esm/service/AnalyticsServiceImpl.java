@@ -0,0 +1,118 @@
+package com.epam.esm.service;
+
+import com.epam.esm.dto.DailySalesDTO;
+import com.epam.esm.dto.SalesDTO;
+import com.epam.esm.exception.DaoException;
+import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.model.Tag;
+import com.epam.esm.repository.CertificateSalesRepository;
+import com.epam.esm.repository.GiftCertificateRepository;
+import com.epam.esm.repository.SalesTotal;
+import com.epam.esm.repository.TagRepository;
+import com.epam.esm.repository.TagSalesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Sales reports read from the daily rollups maintained by <i>SalesRollupPipeline</i>, orders themselves
+ * are never loaded. Orders of the last <i>analytics.rollup.flush-interval</i> milliseconds may be missing.
+ */
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private final CertificateSalesRepository certificateSalesRepository;
+    private final TagSalesRepository tagSalesRepository;
+    private final GiftCertificateRepository giftCertificateRepository;
+    private final TagRepository tagRepository;
+    private final SalesRollupPipeline salesRollupPipeline;
+
+    @Autowired
+    public AnalyticsServiceImpl(CertificateSalesRepository certificateSalesRepository, TagSalesRepository tagSalesRepository,
+                                GiftCertificateRepository giftCertificateRepository, TagRepository tagRepository,
+                                SalesRollupPipeline salesRollupPipeline) {
+        this.certificateSalesRepository = certificateSalesRepository;
+        this.tagSalesRepository = tagSalesRepository;
+        this.giftCertificateRepository = giftCertificateRepository;
+        this.tagRepository = tagRepository;
+        this.salesRollupPipeline = salesRollupPipeline;
+    }
+
+    @Override
+    public Page<SalesDTO> getCertificateSales(LocalDate from, LocalDate to, int page, int pageSize) {
+        try {
+            Page<SalesTotal> totals = certificateSalesRepository.findTotals(from, to, PageRequest.of(page, pageSize));
+            Map<Long, String> names = new HashMap<>();
+            for (GiftCertificate certificate : giftCertificateRepository.findAllById(ids(totals))) {
+                names.put(certificate.getId(), certificate.getName());
+            }
+            return totals.map(total -> toDTO(total, names));
+        } catch (Exception e) {
+            log.error("IN getCertificateSales - Unable to get sales of certificates: {}", e.getMessage());
+            throw new DaoException("Unable to get sales of certificates");
+        }
+    }
+
+    @Override
+    public Page<SalesDTO> getTagSales(LocalDate from, LocalDate to, int page, int pageSize) {
+        try {
+            Page<SalesTotal> totals = tagSalesRepository.findTotals(from, to, PageRequest.of(page, pageSize));
+            Map<Long, String> names = new HashMap<>();
+            for (Tag tag : tagRepository.findAllById(ids(totals))) {
+                names.put(tag.getId(), tag.getName());
+            }
+            return totals.map(total -> toDTO(total, names));
+        } catch (Exception e) {
+            log.error("IN getTagSales - Unable to get sales of tags: {}", e.getMessage());
+            throw new DaoException("Unable to get sales of tags");
+        }
+    }
+
+    @Override
+    public List<DailySalesDTO> getDailySales(LocalDate from, LocalDate to) {
+        try {
+            return certificateSalesRepository.findDailyTotals(from, to).stream()
+                    .map(total -> new DailySalesDTO(total.getSalesDate(), total.getOrderCount(), total.getRevenue()))
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            log.error("IN getDailySales - Unable to get daily sales: {}", e.getMessage());
+            throw new DaoException("Unable to get daily sales");
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildSales() {
+        salesRollupPipeline.rebuild();
+    }
+
+    private List<Long> ids(Page<SalesTotal> totals) {
+        List<Long> ids = new ArrayList<>();
+        totals.forEach(total -> ids.add(total.getId()));
+        return ids;
+    }
+
+    private SalesDTO toDTO(SalesTotal total, Map<Long, String> names) {
+        return SalesDTO.builder()
+                .id(total.getId())
+                .name(names.get(total.getId()))
+                .orderCount(total.getOrderCount())
+                .revenue(total.getRevenue())
+                .build();
+    }
+}
@@ -1,18 +1,29 @@
 package com.epam.esm.service;
 
 import com.epam.esm.dto.GiftCertificateDTO;
+import com.epam.esm.dto.ImportReportDTO;
+import com.epam.esm.dto.PageCursor;
 import com.epam.esm.repository.CertificateSearchQuery;
 import com.epam.esm.model.GiftCertificate;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface GiftCertificateService {
 
     Page<GiftCertificateDTO> getCertificates(CertificateSearchQuery query, int page, int pageSize);
+    Slice<GiftCertificateDTO> getCertificatesSlice(CertificateSearchQuery query, int page, int pageSize);
+    Slice<GiftCertificateDTO> getCertificatesAfter(CertificateSearchQuery query, PageCursor after, int pageSize);
     Page<GiftCertificateDTO> findCertificatesByTags(List<String> tagNames, int page, int pageSize);
+    Page<GiftCertificateDTO> findCertificatesByAnyTag(List<String> tagNames, int page, int pageSize);
     GiftCertificateDTO findCertificateById(Long id);
     GiftCertificateDTO saveCertificate(GiftCertificateDTO giftCertificateDTO);
+    ImportReportDTO importCertificates(List<GiftCertificateDTO> certificateDTOs);
+    void importCertificates(Map<Integer, GiftCertificateDTO> rows, ImportReportDTO report);
+    void exportCertificates(Consumer<GiftCertificateDTO> action);
     GiftCertificateDTO updateCertificate(GiftCertificateDTO giftCertificateDTO);
     void deleteCertificate(Long id);
     GiftCertificateDTO updateSingleCertificateField(Long id, String fieldName,String fieldValue);
@@ -2,6 +2,9 @@ package com.epam.esm.service;
 
 import com.epam.esm.converter.GiftCertificateConverter;
 import com.epam.esm.dto.GiftCertificateDTO;
+import com.epam.esm.dto.ImportErrorDTO;
+import com.epam.esm.dto.ImportReportDTO;
+import com.epam.esm.dto.PageCursor;
 import com.epam.esm.exception.DaoException;
 import com.epam.esm.exception.GiftCertificateNotFoundException;
 import com.epam.esm.exception.InvalidInputDataException;
@@ -9,53 +12,210 @@ import com.epam.esm.model.GiftCertificate;
 import com.epam.esm.model.Order;
 import com.epam.esm.model.Tag;
 import com.epam.esm.repository.*;
+import com.epam.esm.search.CertificateSearchIndex;
 import com.epam.esm.validator.GiftCertificateValidator;
 import com.epam.esm.validator.TagValidator;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
 
+import javax.persistence.criteria.Predicate;
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.text.MessageFormat;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static com.epam.esm.constants.AppConstants.IMPORT_CHUNK_SIZE;
 
 @Service
 @Transactional
 @Slf4j
 public class GiftCertificateServiceImpl implements GiftCertificateService {
 
+    private static final String SQL_INSERT_CERTIFICATE = "INSERT INTO gift_certificate (name, description, price, " +
+            "create_date, last_update_date, duration, created_by, created_date, last_modified_by, last_modified_date) " +
+            "VALUES (:name, :description, :price, :createDate, :lastUpdateDate, :duration, :auditor, :now, :auditor, :now)";
+    private static final String SQL_SELECT_IDS_BY_NAMES = "SELECT certificate_id, name FROM gift_certificate " +
+            "WHERE name IN (:names)";
+    private static final String SQL_INSERT_CERTIFICATE_TAG = "INSERT INTO tag_has_gift_certificate (tag_id, " +
+            "gift_certificate_id) VALUES (:tagId, :certificateId)";
+
     private final GiftCertificateRepository giftCertificateRepository;
     private final TagRepository tagRepository;
     private final OrderRepository orderRepository;
     private final GiftCertificateValidator certificateValidator;
     private final GiftCertificateConverter certificateConverter;
     private final TagValidator tagValidator;
+    private final TransactionTemplate transactionTemplate;
+    private final CertificateSearchIndex searchIndex;
+    private final TagCertificateIndex tagIndex;
+    private final PopularTagIndex popularTagIndex;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final AuditorAware<String> auditorAware;
 
     @Autowired
-    public GiftCertificateServiceImpl(GiftCertificateRepository giftCertificateRepository, TagRepository tagRepository, OrderRepository orderRepository, GiftCertificateValidator certificateValidator, GiftCertificateConverter certificateConverter, TagValidator tagValidator) {
+    public GiftCertificateServiceImpl(GiftCertificateRepository giftCertificateRepository, TagRepository tagRepository, OrderRepository orderRepository, GiftCertificateValidator certificateValidator, GiftCertificateConverter certificateConverter, TagValidator tagValidator, PlatformTransactionManager transactionManager, CertificateSearchIndex searchIndex, TagCertificateIndex tagIndex, PopularTagIndex popularTagIndex, NamedParameterJdbcTemplate namedParameterJdbcTemplate, AuditorAware<String> auditorAware) {
         this.giftCertificateRepository = giftCertificateRepository;
         this.tagRepository = tagRepository;
         this.orderRepository = orderRepository;
         this.certificateValidator = certificateValidator;
         this.certificateConverter = certificateConverter;
         this.tagValidator = tagValidator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.searchIndex = searchIndex;
+        this.tagIndex = tagIndex;
+        this.popularTagIndex = popularTagIndex;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.auditorAware = auditorAware;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<GiftCertificateDTO> getCertificates(CertificateSearchQuery query, int page, int pageSize) {
-        GiftCertificateSpecification specification = new GiftCertificateSpecification();
-        Sort.Direction direction = Sort.Direction.ASC;
-        String sortProperty = "id";
+        try {
+            if (query.hasText() && searchIndex.isReady()) {
+                return searchByText(query.getText(), page, pageSize).map(certificateConverter::convertFromEntity);
+            }
+            return fetchTags(giftCertificateRepository.findAll(searchSpecification(query),
+                    PageRequest.of(page, pageSize, Sort.by(sortDirection(query), sortProperty(query)))))
+                    .map(certificateConverter::convertFromEntity);
+        } catch (InvalidInputDataException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("IN getCertificates - Unable to get the list of Gift certificates: {}", e.getMessage());
+            throw new DaoException("Unable to get the list of Gift certificates");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<GiftCertificateDTO> getCertificatesSlice(CertificateSearchQuery query, int page, int pageSize) {
+        try {
+            if (query.hasText() && searchIndex.isReady()) {
+                return searchByText(query.getText(), page, pageSize).map(certificateConverter::convertFromEntity);
+            }
+            return fetchTags(giftCertificateRepository.findSlice(searchSpecification(query),
+                    PageRequest.of(page, pageSize, Sort.by(sortDirection(query), sortProperty(query)))))
+                    .map(certificateConverter::convertFromEntity);
+        } catch (InvalidInputDataException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("IN getCertificatesSlice - Unable to get the list of Gift certificates: {}", e.getMessage());
+            throw new DaoException("Unable to get the list of Gift certificates");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<GiftCertificateDTO> getCertificatesAfter(CertificateSearchQuery query, PageCursor after, int pageSize) {
+        String sortProperty = sortProperty(query);
+        Sort.Direction direction = sortDirection(query);
+        Specification<GiftCertificate> specification = buildSpecification(query);
+        if (after != null) {
+            specification = new KeysetSpecification<>(specification, sortProperty,
+                    parseSortKey(sortProperty, after.getSortKey()), after.getId(), direction.isDescending());
+        }
+        Sort sort = Sort.by(direction, sortProperty);
+        if (!"id".equals(sortProperty)) {
+            sort = sort.and(Sort.by(direction, "id"));
+        }
+        try {
+            return fetchTags(giftCertificateRepository.findSlice(specification, PageRequest.of(0, pageSize, sort)))
+                    .map(certificateConverter::convertFromEntity);
+        } catch (Exception e) {
+            log.error("IN getCertificatesAfter - Unable to get the list of Gift certificates: {}", e.getMessage());
+            throw new DaoException("Unable to get the list of Gift certificates");
+        }
+    }
+
+    /**
+     * Finds certificates through the full-text index and loads them with their tags in the order of relevance.
+     * Other search parameters are not applied to the full-text search.
+     */
+    private Page<GiftCertificate> searchByText(String text, int page, int pageSize) {
+        Page<Long> ids = searchIndex.search(text, PageRequest.of(page, pageSize));
+        Map<Long, GiftCertificate> certificates = new HashMap<>();
+        if (ids.hasContent()) {
+            giftCertificateRepository.findWithTagsByIdIn(ids.getContent())
+                    .forEach(certificate -> certificates.put(certificate.getId(), certificate));
+        }
+        List<GiftCertificate> content = new ArrayList<>();
+        for (Long id : ids) {
+            if (certificates.containsKey(id)) {
+                content.add(certificates.get(id));
+            }
+        }
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
+    }
 
+    /**
+     * Loads tags of all certificates of the page with one query, so that converting the page
+     * doesn't initialize each tag collection separately.
+     */
+    private <S extends Slice<GiftCertificate>> S fetchTags(S certificates) {
+        if (certificates.hasContent()) {
+            giftCertificateRepository.findWithTagsByIdIn(certificates.map(GiftCertificate::getId).getContent());
+        }
+        return certificates;
+    }
+
+    private List<Long> tagIds(GiftCertificate certificate) {
+        List<Long> tagIds = new ArrayList<>();
+        certificate.getTags().forEach(tag -> tagIds.add(tag.getId()));
+        return tagIds;
+    }
+
+    private Specification<GiftCertificate> searchSpecification(CertificateSearchQuery query) {
+        return query.hasText() ? textSpecification(query.getText()) : buildSpecification(query);
+    }
+
+    /**
+     * Finds certificates containing every word of the text in the name or in the description with <i>LIKE</i>,
+     * used while the full-text index is not built yet. The results are sorted as other listings, not by relevance.
+     */
+    private Specification<GiftCertificate> textSpecification(String text) {
+        String[] words = text.trim().toLowerCase().split("\\s+");
+        if (words[0].isEmpty()) {
+            throw new InvalidInputDataException(MessageFormat.format("Invalid search text: {0}", text));
+        }
+        return (root, criteriaQuery, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            for (String word : words) {
+                String pattern = "%" + word + "%";
+                predicates.add(builder.or(builder.like(builder.lower(root.get("name")), pattern),
+                        builder.like(builder.lower(root.get("description")), pattern)));
+            }
+            return builder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private GiftCertificateSpecification buildSpecification(CertificateSearchQuery query) {
+        GiftCertificateSpecification specification = new GiftCertificateSpecification();
         if (query.hasPartOfName()) {
             specification.add(new SearchCriteria("name", query.getPartOfName(), SearchOperation.MATCH));
         }
@@ -65,36 +225,93 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
 //        if (query.hasTagName()) {
 //            specification.add(new SearchCriteria("tags.name", query.getPartOfName(), SearchOperation.EQUAL));
 //        }
-        if (query.hasSortParameter()) {
-            sortProperty = query.getSortParameter();
-        }
-        if (query.hasSortOrder()) {
-            if (query.getSortOrder().equals("DESC")) {
-                direction = Sort.Direction.DESC;
+        return specification;
+    }
+
+    private String sortProperty(CertificateSearchQuery query) {
+        return query.hasSortParameter() ? query.getSortParameter() : "id";
+    }
+
+    private Sort.Direction sortDirection(CertificateSearchQuery query) {
+        return query.hasSortOrder() && query.getSortOrder().equals("DESC") ? Sort.Direction.DESC : Sort.Direction.ASC;
+    }
+
+    private Comparable<?> parseSortKey(String sortProperty, String sortKey) {
+        try {
+            switch (sortProperty) {
+                case "name":
+                    return sortKey;
+                case "createDate":
+                    return ZonedDateTime.parse(sortKey);
+                default:
+                    return Long.valueOf(sortKey);
             }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new InvalidInputDataException(MessageFormat.format("Cursor does not match sort parameter: {0}", sortProperty));
         }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<GiftCertificateDTO> findCertificatesByTags(List<String> tagNames, int page, int pageSize) {
         try {
-            return giftCertificateRepository.findAll(specification,
-                    PageRequest.of(page, pageSize, Sort.by(direction, sortProperty)))
+            if (tagIndex.isReady()) {
+                return findByTagIndex(tagNames, true, PageRequest.of(page, pageSize)).map(certificateConverter::convertFromEntity);
+            }
+            return fetchTags(giftCertificateRepository.getGiftCertificatesByTagsNames(tagNames, tagNames.size(), PageRequest.of(page, pageSize)))
                     .map(certificateConverter::convertFromEntity);
         } catch (Exception e) {
-            log.error("IN getCertificates - Unable to get the list of Gift certificates: {}", e.getMessage());
+            log.error("IN findCertificatesByTags - Unable to get the list of Gift certificates: {}", e.getMessage());
             throw new DaoException("Unable to get the list of Gift certificates");
         }
     }
 
     @Override
-    public Page<GiftCertificateDTO> findCertificatesByTags(List<String> tagNames, int page, int pageSize) {
+    @Transactional(readOnly = true)
+    public Page<GiftCertificateDTO> findCertificatesByAnyTag(List<String> tagNames, int page, int pageSize) {
         try {
-            return giftCertificateRepository.getGiftCertificatesByTagsNames(tagNames, tagNames.size(), PageRequest.of(page, pageSize))
+            if (tagIndex.isReady()) {
+                return findByTagIndex(tagNames, false, PageRequest.of(page, pageSize)).map(certificateConverter::convertFromEntity);
+            }
+            return fetchTags(giftCertificateRepository.getGiftCertificatesByAnyTagName(tagNames, PageRequest.of(page, pageSize)))
                     .map(certificateConverter::convertFromEntity);
         } catch (Exception e) {
-            log.error("IN findCertificatesByTags - Unable to get the list of Gift certificates: {}", e.getMessage());
+            log.error("IN findCertificatesByAnyTag - Unable to get the list of Gift certificates: {}", e.getMessage());
             throw new DaoException("Unable to get the list of Gift certificates");
         }
     }
 
+    /**
+     * Intersects (<i>matchAll</i>) or unites bitmaps of the tags in <i>tagIndex</i> and loads only the certificates
+     * of the requested page, ordered by id.
+     */
+    private Page<GiftCertificate> findByTagIndex(List<String> tagNames, boolean matchAll, Pageable pageable) {
+        Set<String> names = new HashSet<>(tagNames);
+        List<Long> tagIds = new ArrayList<>();
+        tagRepository.findAllByNameIn(names).forEach(tag -> tagIds.add(tag.getId()));
+        if (tagIds.isEmpty() || matchAll && tagIds.size() < names.size()) {
+            return Page.empty(pageable);
+        }
+        RoaringBitmap certificateIds = matchAll ? tagIndex.findCertificatesWithAllTags(tagIds)
+                : tagIndex.findCertificatesWithAnyTag(tagIds);
+        List<Long> pageIds = new ArrayList<>();
+        if (pageable.getOffset() < certificateIds.getLongCardinality()) {
+            PeekableIntIterator iterator = certificateIds.getIntIterator();
+            iterator.advanceIfNeeded(certificateIds.select(Math.toIntExact(pageable.getOffset())));
+            while (iterator.hasNext() && pageIds.size() < pageable.getPageSize()) {
+                pageIds.add((long) iterator.next());
+            }
+        }
+        List<GiftCertificate> content = new ArrayList<>();
+        if (!pageIds.isEmpty()) {
+            content = new ArrayList<>(giftCertificateRepository.findWithTagsByIdIn(pageIds));
+            content.sort(Comparator.comparing(GiftCertificate::getId));
+        }
+        return new PageImpl<>(content, pageable, certificateIds.getLongCardinality());
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public GiftCertificateDTO findCertificateById(Long id) {
         try {
             GiftCertificate certificate = giftCertificateRepository.findById(id).orElseThrow(() -> new GiftCertificateNotFoundException(MessageFormat
@@ -126,22 +343,14 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
             if (giftCertificateRepository.getCertificateByName(certificate.getName()).isPresent()) {
                 throw new IllegalArgumentException(MessageFormat.format("Certificate with name: {0} already exists", certificate.getName()));
             }
-            List<Tag> oldTags = certificate.getTags();
-            List<Tag> newTags = new ArrayList<>();
-            for (Tag tag : oldTags) {
-                BindingResult resultTagValidation = new BeanPropertyBindingResult(tag, "tag");
-                tagValidator.validate(tag, result);
-                Optional<Tag> currentTag = tagRepository.findByName(tag.getName());
-                if (currentTag.isPresent()) {
-                    tag.setId(currentTag.get().getId());
-                } else checkTag(result, tag, resultTagValidation);
-                newTags.add(tag);
-            }
+            List<Tag> newTags = resolveTags(certificate.getTags());
             certificate.setTags(new ArrayList<>());
             GiftCertificate newCertificate = giftCertificateRepository.save(certificate);
             certificate.setTags(newTags);
         try {
             newCertificate = giftCertificateRepository.save(certificate);
+            tagIndex.certificateSaved(newCertificate.getId(), tagIds(newCertificate));
+            popularTagIndex.certificateSaved(newCertificate.getId(), tagIds(newCertificate));
             return certificateConverter.convertFromEntity(newCertificate);
         } catch (Exception e) {
             log.error("IN saveCertificate - Unable to save new Gift certificate: {}", e.getMessage());
@@ -149,23 +358,234 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
         }
     }
 
-    private void checkTag(BindingResult result, Tag tag, BindingResult resultTagValidation) {
-        if (resultTagValidation.hasErrors()) {
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCertificates(Consumer<GiftCertificateDTO> action) {
+        giftCertificateRepository.scrollAllWithTags(certificate -> action.accept(certificateConverter.convertFromEntity(certificate)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportReportDTO importCertificates(List<GiftCertificateDTO> certificateDTOs) {
+        ImportReportDTO report = new ImportReportDTO();
+        Map<Integer, GiftCertificateDTO> chunk = new LinkedHashMap<>();
+        for (int row = 1; row <= certificateDTOs.size(); row++) {
+            chunk.put(row, certificateDTOs.get(row - 1));
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                importCertificates(chunk, report);
+                chunk = new LinkedHashMap<>();
+            }
+        }
+        importCertificates(chunk, report);
+        report.getErrors().sort(Comparator.comparingInt(ImportErrorDTO::getRow));
+        return report;
+    }
+
+    /**
+     * Validates the rows, drops names which already exist, resolves the tags and saves the rest with JDBC batches.
+     * A row which fails the batch is saved again on its own, so that only that row is reported as rejected.
+     * Certificates saved by the previous chunks are committed already, so their names are rejected as existing.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void importCertificates(Map<Integer, GiftCertificateDTO> rows, ImportReportDTO report) {
+        Map<Integer, GiftCertificateDTO> certificates = new LinkedHashMap<>();
+        Set<String> names = new HashSet<>();
+        Set<String> tagNames = new LinkedHashSet<>();
+        rows.forEach((row, certificateDTO) -> {
+            try {
+                validateImportedCertificate(certificateDTO);
+                if (!names.add(certificateDTO.getName())) {
+                    throw new IllegalArgumentException(MessageFormat.format("Certificate with name: {0} already exists",
+                            certificateDTO.getName()));
+                }
+                certificateDTO.getTags().forEach(tag -> tagNames.add(tag.getName()));
+                certificates.put(row, certificateDTO);
+            } catch (InvalidInputDataException | IllegalArgumentException e) {
+                report.addError(row, e.getMessage());
+            }
+        });
+        if (certificates.isEmpty()) {
+            return;
+        }
+        Map<String, Long> tagIds = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<String> existingNames = giftCertificateRepository.findExistingNames(names);
+                certificates.entrySet().removeIf(row -> {
+                    if (existingNames.contains(row.getValue().getName())) {
+                        report.addError(row.getKey(), MessageFormat.format("Certificate with name: {0} already exists",
+                                row.getValue().getName()));
+                        return true;
+                    }
+                    return false;
+                });
+                resolveTagNames(tagNames).forEach((name, tag) -> tagIds.put(name, tag.getId()));
+            });
+        } catch (Exception e) {
+            log.error("IN importCertificates - Unable to save new Tags: {}", e.getMessage());
+            throw new DaoException("Unable to import Gift certificates");
+        }
+        List<Map.Entry<Integer, GiftCertificateDTO>> chunk = new ArrayList<>(certificates.entrySet());
+        try {
+            transactionTemplate.executeWithoutResult(status -> saveChunk(chunk, tagIds));
+            report.addImported(chunk.size());
+        } catch (Exception e) {
+            log.error("IN importCertificates - Unable to save chunk of Gift certificates: {}", e.getMessage());
+            for (Map.Entry<Integer, GiftCertificateDTO> row : chunk) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> saveChunk(Collections.singletonList(row), tagIds));
+                    report.addImported(1);
+                } catch (Exception rowException) {
+                    String cause = NestedExceptionUtils.getMostSpecificCause(rowException).getMessage();
+                    log.error("IN importCertificates - Unable to save new Gift certificate: {}", cause);
+                    report.addError(row.getKey(), MessageFormat.format("Unable to save new Gift certificate: {0}", cause));
+                }
+            }
+        }
+    }
+
+    private void validateImportedCertificate(GiftCertificateDTO giftCertificateDTO) {
+        if (giftCertificateDTO == null) {
+            throw new InvalidInputDataException("Empty certificate");
+        }
+        giftCertificateDTO.setId(null);
+        giftCertificateDTO.setCreateDate(ZonedDateTime.now());
+        giftCertificateDTO.setLastUpdateDate(ZonedDateTime.now());
+        if (giftCertificateDTO.getTags() == null) {
+            giftCertificateDTO.setTags(new ArrayList<>());
+        }
+        GiftCertificate certificate = certificateConverter.convertFromDTO(giftCertificateDTO);
+        BindingResult result = new BeanPropertyBindingResult(certificate, "giftCertificate");
+        certificateValidator.validate(certificate, result);
+        if (result.hasErrors()) {
             String brokenField = result.getFieldErrors().get(0).getField();
             String errorCode = result.getFieldErrors().get(0).getCode();
-            throw new InvalidInputDataException(MessageFormat.format("Unexpected tag''s field: {0}, error code: {1}",
+            throw new InvalidInputDataException(MessageFormat.format("Unexpected certificate''s field: {0}, error code: {1}",
                     brokenField, errorCode));
-        } else {
-            try {
-                Tag newTag = tagRepository.save(tag);
-                tag.setId(newTag.getId());
-            } catch (Exception e) {
-                log.error("IN checkTag - Unable to save new Tag: {}", e.getMessage());
-                throw new DaoException("Unable to save new Tag");
+        }
+        validateTags(certificate.getTags());
+    }
+
+    /**
+     * Saves certificates of the chunk in the current transaction with two JDBC batches, one of the certificates
+     * and one of their tags. Hibernate can't batch inserts of entities with IDENTITY ids, so the rows bypass it:
+     * the ids are read back by the unique names, and the search and tag indexes are updated here instead of
+     * by the entity listeners.
+     */
+    private void saveChunk(List<Map.Entry<Integer, GiftCertificateDTO>> chunk, Map<String, Long> tagIds) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        String auditor = auditorAware.getCurrentAuditor().orElse(null);
+        List<GiftCertificate> certificates = new ArrayList<>();
+        List<SqlParameterSource> certificateRows = new ArrayList<>();
+        for (Map.Entry<Integer, GiftCertificateDTO> row : chunk) {
+            GiftCertificate certificate = certificateConverter.convertFromDTO(row.getValue());
+            certificates.add(certificate);
+            certificateRows.add(new MapSqlParameterSource()
+                    .addValue("name", certificate.getName())
+                    .addValue("description", certificate.getDescription())
+                    .addValue("price", certificate.getPrice())
+                    .addValue("createDate", Timestamp.from(certificate.getCreateDate().toInstant()))
+                    .addValue("lastUpdateDate", Timestamp.from(certificate.getLastUpdateDate().toInstant()))
+                    .addValue("duration", certificate.getDuration())
+                    .addValue("auditor", auditor)
+                    .addValue("now", now));
+        }
+        namedParameterJdbcTemplate.batchUpdate(SQL_INSERT_CERTIFICATE, certificateRows.toArray(new SqlParameterSource[0]));
+
+        List<String> names = new ArrayList<>();
+        certificates.forEach(certificate -> names.add(certificate.getName()));
+        Map<String, Long> certificateIds = new HashMap<>();
+        namedParameterJdbcTemplate.query(SQL_SELECT_IDS_BY_NAMES, new MapSqlParameterSource("names", names),
+                resultSet -> {
+                    certificateIds.put(resultSet.getString("name"), resultSet.getLong("certificate_id"));
+                });
+        List<SqlParameterSource> tagRows = new ArrayList<>();
+        Map<Long, List<Long>> certificateTagIds = new LinkedHashMap<>();
+        for (GiftCertificate certificate : certificates) {
+            certificate.setId(certificateIds.get(certificate.getName()));
+            Set<Long> tagIdsOfCertificate = new LinkedHashSet<>();
+            certificate.getTags().forEach(tag -> tagIdsOfCertificate.add(tagIds.get(tag.getName())));
+            tagIdsOfCertificate.forEach(tagId -> tagRows.add(new MapSqlParameterSource()
+                    .addValue("tagId", tagId)
+                    .addValue("certificateId", certificate.getId())));
+            certificateTagIds.put(certificate.getId(), new ArrayList<>(tagIdsOfCertificate));
+        }
+        namedParameterJdbcTemplate.batchUpdate(SQL_INSERT_CERTIFICATE_TAG, tagRows.toArray(new SqlParameterSource[0]));
+
+        certificateTagIds.forEach((certificateId, tagIdsOfCertificate) -> {
+            tagIndex.certificateSaved(certificateId, tagIdsOfCertificate);
+            popularTagIndex.certificateSaved(certificateId, tagIdsOfCertificate);
+        });
+        List<GiftCertificate> indexed = new ArrayList<>(certificates);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                indexed.forEach(searchIndex::index);
+            }
+        });
+    }
+
+    /**
+     * Replaces tags of the certificate with persistent ones: existing tags are looked up by name with a single query,
+     * the missing ones are inserted together.
+     */
+    private List<Tag> resolveTags(List<Tag> tags) {
+        validateTags(tags);
+        Set<String> tagNames = new LinkedHashSet<>();
+        tags.forEach(tag -> tagNames.add(tag.getName()));
+        if (tagNames.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return new ArrayList<>(new LinkedHashSet<>(resolveTagNames(tagNames).values()));
+        } catch (Exception e) {
+            log.error("IN resolveTags - Unable to save new Tag: {}", e.getMessage());
+            throw new DaoException("Unable to save new Tag");
+        }
+    }
+
+    private void validateTags(List<Tag> tags) {
+        for (Tag tag : tags) {
+            BindingResult resultTagValidation = new BeanPropertyBindingResult(tag, "tag");
+            tagValidator.validate(tag, resultTagValidation);
+            if (resultTagValidation.hasErrors()) {
+                String brokenField = resultTagValidation.getFieldErrors().get(0).getField();
+                String errorCode = resultTagValidation.getFieldErrors().get(0).getCode();
+                throw new InvalidInputDataException(MessageFormat.format("Unexpected tag''s field: {0}, error code: {1}",
+                        brokenField, errorCode));
             }
         }
     }
 
+    /**
+     * Finds or inserts the tags of the names. Names are compared ignoring case, as the MySQL collation of the unique
+     * tag name does, so a name in another case gets the existing tag instead of a duplicate key error.
+     */
+    private Map<String, Tag> resolveTagNames(Set<String> tagNames) {
+        Map<String, Tag> resolvedTags = new LinkedHashMap<>();
+        if (tagNames.isEmpty()) {
+            return resolvedTags;
+        }
+        Map<String, Tag> existingTags = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Tag tag : tagRepository.findAllByNameIn(tagNames)) {
+            existingTags.put(tag.getName(), tag);
+        }
+        Map<String, Tag> missingTags = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String name : tagNames) {
+            if (!existingTags.containsKey(name)) {
+                missingTags.putIfAbsent(name, Tag.builder().name(name).build());
+            }
+        }
+        for (Tag tag : tagRepository.saveAll(missingTags.values())) {
+            existingTags.put(tag.getName(), tag);
+        }
+        for (String name : tagNames) {
+            resolvedTags.put(name, existingTags.get(name));
+        }
+        return resolvedTags;
+    }
+
     @Override
     public GiftCertificateDTO updateCertificate(GiftCertificateDTO giftCertificateDTO) {
         giftCertificateDTO.setLastUpdateDate(ZonedDateTime.now());
@@ -181,23 +601,12 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
             throw new InvalidInputDataException(MessageFormat.format("Unexpected certificate''s field: {0}, error code: {1}",
                     brokenField, errorCode));
         } else {
-            List<Tag> oldTags = giftCertificate.getTags();
-            List<Tag> newTags = new ArrayList<>();
-            for (Tag tag : oldTags) {
-                BindingResult resultTagValidation = new BeanPropertyBindingResult(tag, "tag");
-                tagValidator.validate(tag, result);
-                Optional<Tag> currentTag = tagRepository.findByName(tag.getName());
-                if (currentTag.isPresent()) {
-                    tag.setId(currentTag.get().getId());
-                } else {
-                    checkTag(result, tag, resultTagValidation);
-                }
-                newTags.add(tag);
-            }
-            giftCertificate.setTags(newTags);
+            giftCertificate.setTags(resolveTags(giftCertificate.getTags()));
             giftCertificate.setLastUpdateDate(ZonedDateTime.now());
             try {
                 GiftCertificate updatedCertificate = giftCertificateRepository.save(giftCertificate);
+                tagIndex.certificateSaved(updatedCertificate.getId(), tagIds(updatedCertificate));
+                popularTagIndex.certificateSaved(updatedCertificate.getId(), tagIds(updatedCertificate));
                 return certificateConverter.convertFromEntity(updatedCertificate);
             } catch (Exception e) {
                 log.error("IN updateCertificate - Unable to update Gift certificate: {}", e.getMessage());
@@ -217,6 +626,8 @@ public class GiftCertificateServiceImpl implements GiftCertificateService {
                     orderRepository.save(order);
                 }
                 giftCertificateRepository.delete(certificate.get());
+                tagIndex.certificateRemoved(id);
+                popularTagIndex.certificateRemoved(id);
             } catch (Exception e) {
                 log.error("IN deleteCertificate - Unable to delete Gift certificate: {}", e.getMessage());
                 throw new DaoException("Unable to delete Gift certificate");
@@ -0,0 +1,247 @@
+package com.epam.esm.service;
+
+import com.epam.esm.converter.OrderConverter;
+import com.epam.esm.dto.OrderDTO;
+import com.epam.esm.exception.InvalidInputDataException;
+import com.epam.esm.model.OrderRequest;
+import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.OrderRequestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.text.MessageFormat;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Remembers the order placed for an idempotency key of a user, so that a retried request gets the same order
+ * instead of a new one. Orders are kept in memory for <i>orders.idempotency.ttl</i> seconds, at most
+ * <i>orders.idempotency.cache-size</i> of them, the least recently used are dropped first. Requests with a key
+ * which is being placed wait for it. With <i>orders.idempotency.table.enabled</i> every key is also inserted into
+ * the <i>order_request</i> table in the transaction of its order, so that the keys survive restarts and a key
+ * placed concurrently on another instance rolls the second order back. In write-behind mode the table doesn't
+ * roll back queued orders.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private final OrderRequestRepository orderRequestRepository;
+    private final OrderRepository orderRepository;
+    private final OrderConverter orderConverter;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, CompletableFuture<OrderDTO>> placing = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Map<String, PlacedOrder> entries;
+
+    @Value("${orders.idempotency.cache-size:10000}")
+    private int cacheSize;
+    @Value("${orders.idempotency.ttl:86400}")
+    private long ttl;
+    @Value("${orders.idempotency.table.enabled:false}")
+    private boolean tableEnabled;
+
+    @Autowired
+    public IdempotencyStore(OrderRequestRepository orderRequestRepository, OrderRepository orderRepository,
+                            OrderConverter orderConverter, PlatformTransactionManager transactionManager) {
+        this.orderRequestRepository = orderRequestRepository;
+        this.orderRepository = orderRepository;
+        this.orderConverter = orderConverter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        entries = new LinkedHashMap<String, PlacedOrder>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PlacedOrder> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        if (tableEnabled) {
+            executor.scheduleWithFixedDelay(this::purge, ttl, ttl, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the order placed for the key, or places it with <i>placeOrder</i> and remembers it.
+     *
+     * @param userId        user of the request.
+     * @param certificateId certificate of the request, a key can't be used for another certificate.
+     * @param key           idempotency key of the client.
+     * @param placeOrder    places the order, calls <i>record</i> in its transaction.
+     * @return new copy of the order without links.
+     */
+    public OrderDTO computeIfAbsent(Long userId, Long certificateId, String key, Supplier<OrderDTO> placeOrder) {
+        String requestKey = requestKey(userId, key);
+        Optional<OrderDTO> placed = find(requestKey, certificateId);
+        if (placed.isPresent()) {
+            return copy(placed.get());
+        }
+        CompletableFuture<OrderDTO> placement = new CompletableFuture<>();
+        CompletableFuture<OrderDTO> otherPlacement = placing.putIfAbsent(requestKey, placement);
+        if (otherPlacement != null) {
+            OrderDTO order = await(otherPlacement);
+            return copy(find(requestKey, certificateId).orElse(order));
+        }
+        try {
+            OrderDTO order = findCached(requestKey, certificateId).orElseGet(() -> place(requestKey, certificateId, placeOrder));
+            placement.complete(order);
+            return copy(order);
+        } catch (RuntimeException e) {
+            placement.completeExceptionally(e);
+            throw e;
+        } finally {
+            placing.remove(requestKey, placement);
+        }
+    }
+
+    /**
+     * Inserts the key of the placed order into the table, must be called in the transaction of the order.
+     */
+    public void record(Long userId, Long certificateId, String key, Long orderId) {
+        if (!tableEnabled) {
+            return;
+        }
+        String requestKey = requestKey(userId, key);
+        Instant now = Instant.now();
+        orderRequestRepository.deleteExpired(requestKey, now.minusSeconds(ttl));
+        orderRequestRepository.insert(requestKey, certificateId, orderId, now);
+    }
+
+    private OrderDTO place(String requestKey, Long certificateId, Supplier<OrderDTO> placeOrder) {
+        OrderDTO order;
+        try {
+            order = placeOrder.get();
+        } catch (DataIntegrityViolationException e) {
+            log.info("IN place - order for key {} has been placed concurrently", requestKey);
+            return findInTable(requestKey, certificateId).orElseThrow(() -> e);
+        }
+        synchronized (entries) {
+            entries.put(requestKey, new PlacedOrder(certificateId, order, System.currentTimeMillis() + ttl * 1000));
+        }
+        return order;
+    }
+
+    private Optional<OrderDTO> find(String requestKey, Long certificateId) {
+        Optional<OrderDTO> order = findCached(requestKey, certificateId);
+        return order.isPresent() || !tableEnabled ? order : findInTable(requestKey, certificateId);
+    }
+
+    private Optional<OrderDTO> findCached(String requestKey, Long certificateId) {
+        PlacedOrder entry;
+        synchronized (entries) {
+            entry = entries.get(requestKey);
+        }
+        if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        checkCertificate(requestKey, entry.certificateId, certificateId);
+        return Optional.of(entry.order);
+    }
+
+    private Optional<OrderDTO> findInTable(String requestKey, Long certificateId) {
+        Optional<OrderRequest> request = orderRequestRepository.findById(requestKey)
+                .filter(found -> found.getCreatedDate().isAfter(Instant.now().minusSeconds(ttl)));
+        if (!request.isPresent()) {
+            return Optional.empty();
+        }
+        checkCertificate(requestKey, request.get().getCertificateId(), certificateId);
+        OrderDTO order = orderRepository.findById(request.get().getOrderId())
+                .map(orderConverter::convertFromEntity)
+                .orElseGet(() -> OrderDTO.builder().id(request.get().getOrderId()).build());
+        synchronized (entries) {
+            entries.put(requestKey, new PlacedOrder(certificateId, order,
+                    request.get().getCreatedDate().plusSeconds(ttl).toEpochMilli()));
+        }
+        return Optional.of(order);
+    }
+
+    private void purge() {
+        try {
+            int purged = transactionTemplate.execute(status ->
+                    orderRequestRepository.deleteAllExpired(Instant.now().minusSeconds(ttl)));
+            log.info("IN purge - {} expired idempotency keys removed", purged);
+        } catch (Exception e) {
+            log.error("IN purge - Unable to remove expired idempotency keys: {}", e.getMessage());
+        }
+    }
+
+    private void checkCertificate(String requestKey, Long placedCertificateId, Long certificateId) {
+        if (placedCertificateId != null && !placedCertificateId.equals(certificateId)) {
+            throw new InvalidInputDataException(MessageFormat.format(
+                    "Idempotency key {0} has been used for an order of certificate {1}", requestKey, placedCertificateId));
+        }
+    }
+
+    private OrderDTO await(CompletableFuture<OrderDTO> placement) {
+        try {
+            return placement.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Cached orders are shared, so every response gets its own copy for the links.
+     */
+    private OrderDTO copy(OrderDTO order) {
+        return OrderDTO.builder()
+                .id(order.getId())
+                .userDTO(order.getUserDTO())
+                .giftCertificateDTO(order.getGiftCertificateDTO())
+                .cost(order.getCost())
+                .orderDate(order.getOrderDate())
+                .build();
+    }
+
+    private String requestKey(Long userId, String key) {
+        return userId + ":" + key;
+    }
+
+    private static class PlacedOrder {
+        private final Long certificateId;
+        private final OrderDTO order;
+        private final long expiresAt;
+
+        private PlacedOrder(Long certificateId, OrderDTO order, long expiresAt) {
+            this.certificateId = certificateId;
+            this.order = order;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.epam.esm.service;
+
+import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.model.Order;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Published by <i>OrderService</i> when an order is placed or removed. Carries what the sales rollups need,
+ * so that listeners don't read the order again: a removed order is counted with <i>orderCount</i> -1.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class OrderEvent {
+    private final LocalDate salesDate;
+    private final Long certificateId;
+    private final List<Long> tagIds;
+    private final BigDecimal cost;
+    private final int orderCount;
+
+    public static OrderEvent placed(Order order) {
+        return of(order, 1);
+    }
+
+    public static OrderEvent removed(Order order) {
+        return of(order, -1);
+    }
+
+    private static OrderEvent of(Order order, int orderCount) {
+        GiftCertificate certificate = order.getGiftCertificate();
+        List<Long> tagIds = new ArrayList<>();
+        if (certificate != null && certificate.getTags() != null) {
+            certificate.getTags().forEach(tag -> tagIds.add(tag.getId()));
+        }
+        return new OrderEvent(order.getOrderDate() == null ? null : order.getOrderDate().toLocalDate(),
+                certificate == null ? null : certificate.getId(), tagIds,
+                order.getCost() == null ? BigDecimal.ZERO : order.getCost(), orderCount);
+    }
+}
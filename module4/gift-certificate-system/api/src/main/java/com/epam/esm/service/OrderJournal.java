@@ -0,0 +1,155 @@
+package com.epam.esm.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Append-only file of orders which are acknowledged but not yet written to the database, one line per order.
+ * Every line is forced to the disk before <i>append</i> returns. The lines are forced in groups: the caller which
+ * gets to force the file forces every line written so far, the callers whose lines were written before that force
+ * return without one of their own. Written orders are forgotten with <i>remove</i>,
+ * <i>compact</i> empties the file when nothing is pending, or rewrites it with the pending lines only once it
+ * grows over <i>compactSize</i> bytes.
+ */
+public class OrderJournal implements AutoCloseable {
+
+    private final Path path;
+    private final long compactSize;
+    private final Map<Long, String> pendingLines = new ConcurrentSkipListMap<>();
+    private final Object forceLock = new Object();
+    private volatile FileChannel channel;
+    private volatile long written;
+    private long forced;
+
+    public OrderJournal(Path path, long compactSize) {
+        this.path = path;
+        this.compactSize = compactSize;
+        this.channel = open(path);
+    }
+
+    /**
+     * Reads the lines left by the previous run.
+     *
+     * @param path journal file.
+     * @return lines, empty if there is no journal.
+     */
+    public static List<String> read(Path path) {
+        try {
+            return Files.exists(path) ? Files.readAllLines(path, StandardCharsets.UTF_8) : Collections.emptyList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void append(Long id, String line) {
+        long sequence;
+        synchronized (this) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap((line + '\n').getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pendingLines.put(id, line);
+            sequence = ++written;
+        }
+        force(sequence);
+    }
+
+    /**
+     * Waits until the line with the given sequence number is on the disk, forcing the file if no force
+     * has covered it yet.
+     */
+    private void force(long sequence) {
+        synchronized (forceLock) {
+            if (forced >= sequence) {
+                return;
+            }
+            long lastWritten = written;
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            forced = lastWritten;
+        }
+    }
+
+    public void remove(Collection<Long> ids) {
+        ids.forEach(pendingLines::remove);
+    }
+
+    public int pending() {
+        return pendingLines.size();
+    }
+
+    /**
+     * Either way every line written so far ends up on the disk, so waiting appends need no force of their own.
+     */
+    public void compact() {
+        synchronized (forceLock) {
+            synchronized (this) {
+                try {
+                    if (pendingLines.isEmpty()) {
+                        channel.truncate(0);
+                        channel.force(false);
+                    } else if (channel.size() > compactSize) {
+                        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+                        Files.write(compacted, pendingLines.values(), StandardCharsets.UTF_8,
+                                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+                        channel.close();
+                        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                        channel = open(path);
+                    } else {
+                        return;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                forced = written;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (forceLock) {
+            synchronized (this) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    private static FileChannel open(Path path) {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
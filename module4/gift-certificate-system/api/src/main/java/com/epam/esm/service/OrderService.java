@@ -1,16 +1,23 @@
 package com.epam.esm.service;
 
 import com.epam.esm.dto.OrderDTO;
+import com.epam.esm.dto.PageCursor;
 import com.epam.esm.model.Order;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
 public interface OrderService {
     Page<OrderDTO> getAllOrders(int page, int pageSize);
+    Slice<OrderDTO> getAllOrdersSlice(int page, int pageSize);
+    Slice<OrderDTO> getAllOrdersAfter(PageCursor after, int pageSize);
     OrderDTO getOrderById(Long id);
     OrderDTO makeOrder(Long userId, Long certificateId);
+    OrderDTO makeOrder(Long userId, Long certificateId, String idempotencyKey);
     void removeOrder(Long orderId);
     Page<OrderDTO> getUserOrders(Long userId, int page, int pageSize);
+    Slice<OrderDTO> getUserOrdersSlice(Long userId, int page, int pageSize);
+    Slice<OrderDTO> getUserOrdersAfter(Long userId, PageCursor after, int pageSize);
 
 }
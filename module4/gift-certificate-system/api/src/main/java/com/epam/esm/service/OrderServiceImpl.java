@@ -2,6 +2,7 @@ package com.epam.esm.service;
 
 import com.epam.esm.converter.OrderConverter;
 import com.epam.esm.dto.OrderDTO;
+import com.epam.esm.dto.PageCursor;
 import com.epam.esm.exception.DaoException;
 import com.epam.esm.exception.GiftCertificateNotFoundException;
 import com.epam.esm.exception.OrderNotFoundException;
@@ -14,10 +15,17 @@ import com.epam.esm.repository.OrderRepository;
 import com.epam.esm.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.text.MessageFormat;
 import java.time.ZonedDateTime;
@@ -31,27 +39,64 @@ public class OrderServiceImpl implements OrderService{
     private final OrderConverter orderConverter;
     private final UserRepository userRepository;
     private final GiftCertificateRepository giftCertificateRepository;
+    private final TotalCountProvider totalCountProvider;
+    private final PopularTagIndex popularTagIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderWriteBehind orderWriteBehind;
+    private final IdempotencyStore idempotencyStore;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public OrderServiceImpl(OrderRepository orderRepository, OrderConverter orderConverter, UserRepository userRepository, GiftCertificateRepository giftCertificateRepository) {
+    public OrderServiceImpl(OrderRepository orderRepository, OrderConverter orderConverter, UserRepository userRepository,
+                            GiftCertificateRepository giftCertificateRepository, TotalCountProvider totalCountProvider,
+                            PopularTagIndex popularTagIndex, ApplicationEventPublisher eventPublisher,
+                            OrderWriteBehind orderWriteBehind, IdempotencyStore idempotencyStore,
+                            PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
         this.orderConverter = orderConverter;
         this.userRepository = userRepository;
         this.giftCertificateRepository = giftCertificateRepository;
+        this.totalCountProvider = totalCountProvider;
+        this.popularTagIndex = popularTagIndex;
+        this.eventPublisher = eventPublisher;
+        this.orderWriteBehind = orderWriteBehind;
+        this.idempotencyStore = idempotencyStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderDTO> getAllOrders(int page, int pageSize) {
+        Slice<OrderDTO> orders = getAllOrdersSlice(page, pageSize);
+        return new PageImpl<>(orders.getContent(), orders.getPageable(), totalCountProvider.countOrders());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderDTO> getAllOrdersSlice(int page, int pageSize) {
+        try {
+            return orderRepository.findAllBy(PageRequest.of(page, pageSize))
+                    .map(orderConverter::convertFromEntity);
+        } catch (Exception e) {
+            log.error("IN getAllOrdersSlice - Unable to find the list of orders: {}", e.getMessage());
+            throw new DaoException("Unable to find the list of orders");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderDTO> getAllOrdersAfter(PageCursor after, int pageSize) {
         try {
-            return orderRepository.findAll(PageRequest.of(page, pageSize))
+            return orderRepository.findByIdGreaterThan(lastSeenId(after), firstSeekPage(pageSize))
                     .map(orderConverter::convertFromEntity);
         } catch (Exception e) {
-            log.error("IN getAllOrders - Unable to find the list of orders: {}", e.getMessage());
+            log.error("IN getAllOrdersAfter - Unable to find the list of orders: {}", e.getMessage());
             throw new DaoException("Unable to find the list of orders");
         }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderDTO getOrderById(Long id) {
             Order order = orderRepository.findById(id).orElseThrow(() -> new OrderNotFoundException(MessageFormat
                     .format("Order with id: {0} not found", id)));
@@ -71,8 +116,14 @@ public class OrderServiceImpl implements OrderService{
                     .user(user)
                     .orderDate(ZonedDateTime.now())
                     .build();
+        if (orderWriteBehind.isStarted()) {
+            return orderConverter.convertFromEntity(orderWriteBehind.submit(order));
+        }
         try {
             Order newOrder= orderRepository.save(order);
+            totalCountProvider.orderAdded(userId);
+            popularTagIndex.orderAdded(userId, certificateId, newOrder.getCost());
+            eventPublisher.publishEvent(OrderEvent.placed(newOrder));
             Order orderFromDao = orderRepository.findById(newOrder.getId()).orElseThrow(() -> new OrderNotFoundException(MessageFormat
                     .format("Order with id: {0} not found", newOrder.getId())));
             return orderConverter.convertFromEntity(orderFromDao);
@@ -82,19 +133,63 @@ public class OrderServiceImpl implements OrderService{
         }
     }
 
+    /**
+     * Returns the order already placed for the idempotency key without a transaction,
+     * or places a new one and records the key in its transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderDTO makeOrder(Long userId, Long certificateId, String idempotencyKey) {
+        return idempotencyStore.computeIfAbsent(userId, certificateId, idempotencyKey,
+                () -> transactionTemplate.execute(status -> {
+                    OrderDTO order = makeOrder(userId, certificateId);
+                    idempotencyStore.record(userId, certificateId, idempotencyKey, order.getId());
+                    return order;
+                }));
+    }
+
     @Override
     public void removeOrder(Long orderId) {
             Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(MessageFormat
                     .format("Order with id: {0} not found", orderId)));
             orderRepository.delete(order);
+            totalCountProvider.orderRemoved(order.getUser().getId());
+            popularTagIndex.orderRemoved(order.getUser().getId(),
+                    order.getGiftCertificate() == null ? null : order.getGiftCertificate().getId(), order.getCost());
+            eventPublisher.publishEvent(OrderEvent.removed(order));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderDTO> getUserOrders(Long userId, int page, int pageSize) {
+        Slice<OrderDTO> orders = getUserOrdersSlice(userId, page, pageSize);
+        return new PageImpl<>(orders.getContent(), orders.getPageable(), totalCountProvider.countUserOrders(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderDTO> getUserOrdersSlice(Long userId, int page, int pageSize) {
+        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(MessageFormat
+                .format("User with id: {0} not found", userId)));
+        return orderRepository.findSliceByUserId(userId, PageRequest.of(page, pageSize))
+                .map(orderConverter::convertFromEntity);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderDTO> getUserOrdersAfter(Long userId, PageCursor after, int pageSize) {
         userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(MessageFormat
                 .format("User with id: {0} not found", userId)));
-        return orderRepository.findByUserId(userId, PageRequest.of(page, pageSize))
+        return orderRepository.findByUserIdAndIdGreaterThan(userId, lastSeenId(after), firstSeekPage(pageSize))
                 .map(orderConverter::convertFromEntity);
     }
 
+    private long lastSeenId(PageCursor after) {
+        return after == null ? 0L : after.getId();
+    }
+
+    private PageRequest firstSeekPage(int pageSize) {
+        return PageRequest.of(0, pageSize, Sort.by(Sort.Direction.ASC, "id"));
+    }
+
 }
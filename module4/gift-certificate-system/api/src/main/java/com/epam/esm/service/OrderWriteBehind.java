@@ -0,0 +1,376 @@
+package com.epam.esm.service;
+
+import com.epam.esm.exception.OrderQueueFullException;
+import com.epam.esm.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.text.MessageFormat;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Optional write-behind mode of placing orders, turned on with <i>orders.write-behind.enabled</i>. An order gets
+ * its id from an in-memory counter, is appended to the local <i>OrderJournal</i> and acknowledged, and a single
+ * writer thread inserts the queued orders with JDBC batches of up to <i>orders.write-behind.batch-size</i> rows,
+ * waiting at most <i>orders.write-behind.flush-interval</i> milliseconds to fill a batch. At most
+ * <i>orders.write-behind.queue-capacity</i> orders wait for the writer, a request which can't queue its order
+ * within <i>orders.write-behind.offer-timeout</i> milliseconds gets <i>OrderQueueFullException</i>.
+ * The mode starts when the application is ready, orders placed before are written synchronously. Orders left
+ * in the journal by a crash are inserted on the next start, before the ids are allocated.
+ * <p>
+ * The id counter starts after the highest order id in the database, so only one instance may place orders
+ * while the mode is on. An acknowledged order can't be read until the writer has inserted it.
+ */
+@Slf4j
+@Component
+public class OrderWriteBehind {
+
+    private static final String SQL_INSERT_ORDER = "INSERT INTO orders (order_id, user_id, certificate_id, cost, " +
+            "order_date, created_by, created_date, last_modified_by, last_modified_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_SELECT_MAX_ID = "SELECT COALESCE(MAX(order_id), 0) FROM orders";
+    private static final String SQL_SELECT_EXISTING_IDS = "SELECT order_id FROM orders WHERE order_id BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final TotalCountProvider totalCountProvider;
+    private final PopularTagIndex popularTagIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<PendingOrder> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private Semaphore permits;
+    private OrderJournal journal;
+    private Thread writer;
+    private volatile boolean started;
+    private volatile boolean running;
+
+    @Value("${orders.write-behind.enabled:false}")
+    private boolean enabled;
+    @Value("${orders.write-behind.batch-size:100}")
+    private int batchSize;
+    @Value("${orders.write-behind.flush-interval:20}")
+    private long flushInterval;
+    @Value("${orders.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+    @Value("${orders.write-behind.offer-timeout:500}")
+    private long offerTimeout;
+    @Value("${orders.write-behind.journal:orders.journal}")
+    private String journalPath;
+    @Value("${orders.write-behind.journal-compact-size:16777216}")
+    private long journalCompactSize;
+    @Value("${orders.write-behind.insert-attempts:10}")
+    private int insertAttempts;
+
+    @Autowired
+    public OrderWriteBehind(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            AuditorAware<String> auditorAware, TotalCountProvider totalCountProvider,
+                            PopularTagIndex popularTagIndex, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.auditorAware = auditorAware;
+        this.totalCountProvider = totalCountProvider;
+        this.popularTagIndex = popularTagIndex;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Runs before the other listeners of the ready application, so that they load the recovered orders.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Path path = Paths.get(journalPath);
+        recover(path);
+        nextId.set(jdbcTemplate.queryForObject(SQL_SELECT_MAX_ID, Long.class) + 1);
+        permits = new Semaphore(queueCapacity);
+        journal = new OrderJournal(path, journalCompactSize);
+        journal.compact();
+        running = true;
+        started = true;
+        writer = new Thread(this::writeQueuedOrders, "order-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("IN start - write-behind of orders is on, next order id is {}", nextId.get());
+    }
+
+    /**
+     * Stops accepting orders and waits for the writer to insert the queued ones, orders it couldn't insert
+     * stay in the journal. A writer which doesn't finish in time is interrupted before the journal is closed.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (writer.isAlive()) {
+            log.error("IN stop - The writer has not finished in time, {} queued orders stay in the journal", queue.size());
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        journal.close();
+    }
+
+    /**
+     * Orders are placed synchronously until the application is ready, the writer owns the ids from then on.
+     *
+     * @return true if orders have to be submitted.
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Queues a built order of a found user and certificate. Must be called in the transaction which loaded them,
+     * so that tags of the certificate can be read for the order event.
+     *
+     * @param order order without id.
+     * @return the same order with the allocated id and audit fields.
+     */
+    public Order submit(Order order) {
+        if (!running) {
+            throw new OrderQueueFullException("Orders are not accepted while the application stops");
+        }
+        try {
+            if (!permits.tryAcquire(offerTimeout, TimeUnit.MILLISECONDS)) {
+                throw new OrderQueueFullException(MessageFormat.format("More than {0} orders are waiting to be written",
+                        queueCapacity));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderQueueFullException("Interrupted while waiting to queue the order");
+        }
+        try {
+            Date now = new Date();
+            String auditor = auditorAware.getCurrentAuditor().orElse(null);
+            order.setId(nextId.getAndIncrement());
+            order.setCreatedBy(auditor);
+            order.setCreatedDate(now);
+            order.setLastModifiedBy(auditor);
+            order.setLastModifiedDate(now);
+            PendingOrder pendingOrder = new PendingOrder(order, OrderEvent.placed(order));
+            journal.append(pendingOrder.id, pendingOrder.toJournalLine());
+            queue.add(pendingOrder);
+            return order;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Inserts the orders of the journal left by the previous run which are not in the database yet.
+     */
+    private void recover(Path path) {
+        List<PendingOrder> journaled = OrderJournal.read(path).stream()
+                .filter(line -> !line.isEmpty())
+                .map(PendingOrder::fromJournalLine)
+                .collect(Collectors.toList());
+        if (journaled.isEmpty()) {
+            return;
+        }
+        long minId = journaled.stream().mapToLong(order -> order.id).min().getAsLong();
+        long maxId = journaled.stream().mapToLong(order -> order.id).max().getAsLong();
+        Set<Long> existingIds = new HashSet<>(jdbcTemplate.queryForList(SQL_SELECT_EXISTING_IDS, Long.class, minId, maxId));
+        List<PendingOrder> missing = journaled.stream()
+                .filter(order -> !existingIds.contains(order.id))
+                .collect(Collectors.toList());
+        List<PendingOrder> inserted = insert(missing);
+        log.warn("IN recover - inserted {} of {} orders left in the journal, rebuild the sales analytics to count them",
+                inserted.size(), journaled.size());
+    }
+
+    private void writeQueuedOrders() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushInterval);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) {
+                        break;
+                    }
+                    PendingOrder next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("IN writeQueuedOrders - Unable to write {} orders, they stay in the journal", batch.size(), e);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Inserts the batch and applies the inserted orders to the counters and the analytics, also when the journal fails afterwards,
+     * so that they don't fall behind the database.
+     * The permits of the batch are released here and only here, whether the batch is written or not.
+     */
+    private void write(List<PendingOrder> batch) throws InterruptedException {
+        List<PendingOrder> inserted = Collections.emptyList();
+        try {
+            inserted = insertRetrying(batch);
+            journal.remove(batch.stream().map(order -> order.id).collect(Collectors.toList()));
+        } finally {
+            permits.release(batch.size());
+            for (PendingOrder order : inserted) {
+                totalCountProvider.orderAdded(order.userId);
+                popularTagIndex.orderAdded(order.userId, order.certificateId, order.cost);
+                eventPublisher.publishEvent(order.event);
+            }
+        }
+        journal.compact();
+    }
+
+    /**
+     * Retries up to <i>orders.write-behind.insert-attempts</i> times while the database is unavailable. Orders
+     * which fail otherwise, or fail every attempt, stay in the journal and are inserted on the next start.
+     */
+    private List<PendingOrder> insertRetrying(List<PendingOrder> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return insert(batch);
+            } catch (TransientDataAccessException | RecoverableDataAccessException e) {
+                if (attempt >= insertAttempts) {
+                    throw e;
+                }
+                log.error("IN insertRetrying - Unable to write {} orders, retrying: {}", batch.size(), e.getMessage());
+                TimeUnit.MILLISECONDS.sleep(Math.max(flushInterval, 1000));
+            }
+        }
+    }
+
+    /**
+     * Inserts the orders in one transaction. When a row violates a constraint, e.g. its user has been removed,
+     * the orders are inserted one by one and the failing ones are dropped.
+     *
+     * @return inserted orders.
+     */
+    private List<PendingOrder> insert(List<PendingOrder> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(SQL_INSERT_ORDER,
+                    orders.stream().map(PendingOrder::toRow).collect(Collectors.toList())));
+            return orders;
+        } catch (DataIntegrityViolationException e) {
+            List<PendingOrder> inserted = new ArrayList<>();
+            for (PendingOrder order : orders) {
+                try {
+                    jdbcTemplate.update(SQL_INSERT_ORDER, order.toRow());
+                    inserted.add(order);
+                } catch (DataIntegrityViolationException rowException) {
+                    log.error("IN insert - Order {} is dropped: {}", order.id, rowException.getMessage());
+                }
+            }
+            return inserted;
+        }
+    }
+
+    /**
+     * Queued order with the columns of its row. <i>event</i> is null for orders read from the journal.
+     */
+    private static class PendingOrder {
+        private static final String SEPARATOR = "\t";
+
+        private final long id;
+        private final Long userId;
+        private final Long certificateId;
+        private final BigDecimal cost;
+        private final ZonedDateTime orderDate;
+        private final String createdBy;
+        private final Date createdDate;
+        private final OrderEvent event;
+
+        private PendingOrder(long id, Long userId, Long certificateId, BigDecimal cost, ZonedDateTime orderDate,
+                             String createdBy, Date createdDate, OrderEvent event) {
+            this.id = id;
+            this.userId = userId;
+            this.certificateId = certificateId;
+            this.cost = cost;
+            this.orderDate = orderDate;
+            this.createdBy = createdBy;
+            this.createdDate = createdDate;
+            this.event = event;
+        }
+
+        private PendingOrder(Order order, OrderEvent event) {
+            this(order.getId(), order.getUser().getId(),
+                    order.getGiftCertificate() == null ? null : order.getGiftCertificate().getId(),
+                    order.getCost(), order.getOrderDate(), order.getCreatedBy(), order.getCreatedDate(), event);
+        }
+
+        private Object[] toRow() {
+            Timestamp created = new Timestamp(createdDate.getTime());
+            return new Object[]{id, userId, certificateId, cost, Timestamp.from(orderDate.toInstant()),
+                    createdBy, created, createdBy, created};
+        }
+
+        private String toJournalLine() {
+            return String.join(SEPARATOR, String.valueOf(id), String.valueOf(userId), text(certificateId), text(cost),
+                    orderDate.toString(), String.valueOf(createdDate.getTime()), createdBy == null ? "" : createdBy);
+        }
+
+        private static PendingOrder fromJournalLine(String line) {
+            String[] fields = line.split(SEPARATOR, 7);
+            return new PendingOrder(Long.parseLong(fields[0]), Long.valueOf(fields[1]),
+                    fields[2].isEmpty() ? null : Long.valueOf(fields[2]),
+                    fields[3].isEmpty() ? null : new BigDecimal(fields[3]), ZonedDateTime.parse(fields[4]),
+                    fields[6].isEmpty() ? null : fields[6], new Date(Long.parseLong(fields[5])), null);
+        }
+
+        private static String text(Object value) {
+            return value == null ? "" : value.toString();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.epam.esm.service;
+
+import com.epam.esm.repository.GiftCertificateRepository;
+import com.epam.esm.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Keeps the most widely used tag of the user with the highest cost of all orders, so that it is read without
+ * aggregating the whole orders table. Spend of every user, tag counters of every user and tags of every
+ * certificate are loaded on application start and changed by the write operations after their transaction
+ * commits. Until they are loaded, <i>isReady</i> returns false and the callers are expected to query the database.
+ * Orders committed while the index is being loaded may be counted twice. The load is not a read-only transaction,
+ * so it reads the primary database: the index is never reloaded, a lagging replica would leave it wrong for good.
+ */
+@Component
+public class PopularTagIndex {
+
+    private final OrderRepository orderRepository;
+    private final GiftCertificateRepository giftCertificateRepository;
+    private final Map<Long, BigDecimal> spendByUser = new HashMap<>();
+    private final Map<Long, Map<Long, Long>> tagUsesByUser = new HashMap<>();
+    private final Map<Long, Map<Long, Long>> userOrdersByCertificate = new HashMap<>();
+    private final Map<Long, Set<Long>> tagsByCertificate = new HashMap<>();
+    private final Lock lock = new ReentrantLock();
+    private Long topSpenderId;
+    private volatile Long popularTagId;
+    private volatile boolean ready;
+
+    @Autowired
+    public PopularTagIndex(OrderRepository orderRepository, GiftCertificateRepository giftCertificateRepository) {
+        this.orderRepository = orderRepository;
+        this.giftCertificateRepository = giftCertificateRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        lock.lock();
+        try {
+            spendByUser.clear();
+            tagUsesByUser.clear();
+            userOrdersByCertificate.clear();
+            tagsByCertificate.clear();
+            try (Stream<Object[]> assignments = giftCertificateRepository.streamTagAssignments()) {
+                assignments.forEach(assignment -> tagsByCertificate
+                        .computeIfAbsent((Long) assignment[1], id -> new HashSet<>()).add((Long) assignment[0]));
+            }
+            try (Stream<Object[]> totals = orderRepository.streamOrderTotals()) {
+                totals.forEach(total -> addOrders((Long) total[0], (Long) total[1], (Long) total[2], (BigDecimal) total[3]));
+            }
+            topSpenderId = findTopSpender();
+            popularTagId = findPopularTag();
+            ready = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Gets the most widely used tag of the user with the highest cost of all orders.
+     *
+     * @return tag id, empty if orders of that user have no tags.
+     */
+    public Optional<Long> findPopularTagId() {
+        return Optional.ofNullable(popularTagId);
+    }
+
+    public void orderAdded(Long userId, Long certificateId, BigDecimal cost) {
+        afterCommit(() -> update(() -> {
+            addOrders(userId, certificateId, 1L, cost);
+            if (topSpenderId == null || isHigher(userId, topSpenderId)) {
+                topSpenderId = userId;
+            }
+        }));
+    }
+
+    public void orderRemoved(Long userId, Long certificateId, BigDecimal cost) {
+        afterCommit(() -> update(() -> {
+            addOrders(userId, certificateId, -1L, cost);
+            if (userId.equals(topSpenderId)) {
+                topSpenderId = findTopSpender();
+            }
+        }));
+    }
+
+    public void certificateSaved(Long certificateId, Collection<Long> tagIds) {
+        afterCommit(() -> update(() -> replaceTags(certificateId, new HashSet<>(tagIds))));
+    }
+
+    /**
+     * Orders of a removed certificate keep their cost, but no longer count for its tags.
+     *
+     * @param certificateId id of the removed certificate.
+     */
+    public void certificateRemoved(Long certificateId) {
+        afterCommit(() -> update(() -> {
+            replaceTags(certificateId, Collections.emptySet());
+            tagsByCertificate.remove(certificateId);
+            userOrdersByCertificate.remove(certificateId);
+        }));
+    }
+
+    public void tagRemoved(Long tagId) {
+        afterCommit(() -> update(() -> {
+            tagsByCertificate.values().forEach(tags -> tags.remove(tagId));
+            tagUsesByUser.values().forEach(tagUses -> tagUses.remove(tagId));
+        }));
+    }
+
+    private void update(Runnable change) {
+        lock.lock();
+        try {
+            change.run();
+            popularTagId = findPopularTag();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counts orders of the user on the certificate, removed ones are counted with negative <i>orders</i>
+     * and the same positive <i>cost</i>.
+     */
+    private void addOrders(Long userId, Long certificateId, long orders, BigDecimal cost) {
+        BigDecimal spend = cost == null ? BigDecimal.ZERO : cost;
+        spendByUser.merge(userId, orders < 0 ? spend.negate() : spend, BigDecimal::add);
+        if (certificateId == null) {
+            return;
+        }
+        merge(userOrdersByCertificate.computeIfAbsent(certificateId, id -> new HashMap<>()), userId, orders);
+        Map<Long, Long> tagUses = tagUsesByUser.computeIfAbsent(userId, id -> new HashMap<>());
+        tagsByCertificate.getOrDefault(certificateId, Collections.emptySet())
+                .forEach(tagId -> merge(tagUses, tagId, orders));
+    }
+
+    private void replaceTags(Long certificateId, Set<Long> tagIds) {
+        Set<Long> oldTagIds = tagsByCertificate.getOrDefault(certificateId, Collections.emptySet());
+        userOrdersByCertificate.getOrDefault(certificateId, Collections.emptyMap()).forEach((userId, orders) -> {
+            Map<Long, Long> tagUses = tagUsesByUser.computeIfAbsent(userId, id -> new HashMap<>());
+            oldTagIds.forEach(tagId -> merge(tagUses, tagId, -orders));
+            tagIds.forEach(tagId -> merge(tagUses, tagId, orders));
+        });
+        tagsByCertificate.put(certificateId, tagIds);
+    }
+
+    private void merge(Map<Long, Long> counters, Long key, long delta) {
+        counters.merge(key, delta, (count, change) -> count + change == 0 ? null : count + change);
+    }
+
+    private Long findTopSpender() {
+        Long topUserId = null;
+        for (Long userId : spendByUser.keySet()) {
+            if (topUserId == null || isHigher(userId, topUserId)) {
+                topUserId = userId;
+            }
+        }
+        return topUserId;
+    }
+
+    private boolean isHigher(Long userId, Long otherUserId) {
+        int comparison = spendByUser.get(userId).compareTo(spendByUser.get(otherUserId));
+        return comparison > 0 || comparison == 0 && userId < otherUserId;
+    }
+
+    private Long findPopularTag() {
+        Long tagId = null;
+        long uses = 0;
+        for (Map.Entry<Long, Long> tagUses : tagUsesByUser.getOrDefault(topSpenderId, Collections.emptyMap()).entrySet()) {
+            if (tagId == null || tagUses.getValue() > uses || tagUses.getValue() == uses && tagUses.getKey() < tagId) {
+                tagId = tagUses.getKey();
+                uses = tagUses.getValue();
+            }
+        }
+        return tagId;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.epam.esm.service;
+
+import com.epam.esm.model.CertificateSales;
+import com.epam.esm.model.TagSales;
+import com.epam.esm.repository.CertificateSalesRepository;
+import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.TagSalesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Maintains the daily sales rollups of certificates and tags from order events. Events of committed
+ * transactions are queued and applied every <i>analytics.rollup.flush-interval</i> milliseconds by a single
+ * writer, which sums the queued events per rollup row first, so concurrent orders neither wait for the rollup
+ * rows nor race to insert them. The sums are added to the rows by one upsert per row in the database, so the writers
+ * of several instances don't overwrite each other's increments. A batch that fails is queued again. Queued events
+ * are lost if the process dies, <i>rebuild</i> recomputes the rollups from the orders table. It runs on start when the rollups are empty.
+ */
+@Slf4j
+@Component
+public class SalesRollupPipeline {
+
+    private final CertificateSalesRepository certificateSalesRepository;
+    private final TagSalesRepository tagSalesRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<OrderEvent> events = new LinkedBlockingQueue<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sales-rollup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${analytics.rollup.flush-interval:1000}")
+    private long flushInterval;
+
+    @Autowired
+    public SalesRollupPipeline(CertificateSalesRepository certificateSalesRepository, TagSalesRepository tagSalesRepository,
+                               OrderRepository orderRepository, PlatformTransactionManager transactionManager) {
+        this.certificateSalesRepository = certificateSalesRepository;
+        this.tagSalesRepository = tagSalesRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        executor.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void orderChanged(OrderEvent event) {
+        if (event.getSalesDate() != null && event.getCertificateId() != null) {
+            events.add(event);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (certificateSalesRepository.count() == 0 && orderRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recomputes the rollups from the orders table, tags are taken from the current tags of certificates.
+     * Orders placed while it runs may be counted twice.
+     */
+    public synchronized void rebuild() {
+        events.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            tagSalesRepository.deleteAllInBatch();
+            certificateSalesRepository.deleteAllInBatch();
+            int certificateRows = certificateSalesRepository.insertFromOrders();
+            int tagRows = tagSalesRepository.insertFromOrders();
+            log.info("IN rebuild - {} certificate rows and {} tag rows of sales rollups", certificateRows, tagRows);
+        });
+    }
+
+    /**
+     * Applies the queued events.
+     */
+    public synchronized void flush() {
+        List<OrderEvent> batch = new ArrayList<>();
+        events.drainTo(batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<CertificateSales.Key, CertificateSales> certificateSales = new HashMap<>();
+        Map<TagSales.Key, TagSales> tagSales = new HashMap<>();
+        for (OrderEvent event : batch) {
+            BigDecimal revenue = event.getOrderCount() < 0 ? event.getCost().negate() : event.getCost();
+            CertificateSales.Key certificateKey = new CertificateSales.Key(event.getSalesDate(), event.getCertificateId());
+            certificateSales.merge(certificateKey, new CertificateSales(event.getSalesDate(), event.getCertificateId(),
+                    event.getOrderCount(), revenue), this::add);
+            for (Long tagId : event.getTagIds()) {
+                tagSales.merge(new TagSales.Key(event.getSalesDate(), tagId),
+                        new TagSales(event.getSalesDate(), tagId, event.getOrderCount(), revenue), this::add);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                certificateSales.values().forEach(sales -> certificateSalesRepository.addSales(sales.getSalesDate(),
+                        sales.getCertificateId(), sales.getOrderCount(), sales.getRevenue()));
+                tagSales.values().forEach(sales -> tagSalesRepository.addSales(sales.getSalesDate(), sales.getTagId(),
+                        sales.getOrderCount(), sales.getRevenue()));
+            });
+        } catch (Exception e) {
+            log.error("IN flush - Unable to update sales rollups, {} events are queued again: {}", batch.size(), e.getMessage());
+            events.addAll(batch);
+        }
+    }
+
+    private CertificateSales add(CertificateSales sales, CertificateSales delta) {
+        sales.setOrderCount(sales.getOrderCount() + delta.getOrderCount());
+        sales.setRevenue(sales.getRevenue().add(delta.getRevenue()));
+        return sales;
+    }
+
+    private TagSales add(TagSales sales, TagSales delta) {
+        sales.setOrderCount(sales.getOrderCount() + delta.getOrderCount());
+        sales.setRevenue(sales.getRevenue().add(delta.getRevenue()));
+        return sales;
+    }
+}
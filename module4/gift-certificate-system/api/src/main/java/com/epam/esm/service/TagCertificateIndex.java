@@ -0,0 +1,168 @@
+package com.epam.esm.service;
+
+import com.epam.esm.repository.GiftCertificateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Keeps a bitmap of certificate ids for every tag id, so that searching certificates by all or any of several
+ * tags is an intersection or a union of bitmaps instead of a grouped scan of the tag-certificate table. The index
+ * is built on application start and changed by the write operations after their transaction commits. Until it is
+ * built, <i>isReady</i> returns false and the callers are expected to query the database. It is built from the
+ * primary database, not from a replica, since the changes made before start are never applied to it again.
+ * <p>
+ * Bitmaps hold int values, so once a certificate id above <i>Integer.MAX_VALUE</i> shows up the index turns
+ * itself off until the next rebuild and the callers query the database again.
+ */
+@Slf4j
+@Component
+public class TagCertificateIndex {
+
+    private final GiftCertificateRepository giftCertificateRepository;
+    private final Map<Long, RoaringBitmap> certificatesByTag = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    private boolean overflowed;
+
+    @Autowired
+    public TagCertificateIndex(GiftCertificateRepository giftCertificateRepository) {
+        this.giftCertificateRepository = giftCertificateRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        lock.writeLock().lock();
+        try (Stream<Object[]> assignments = giftCertificateRepository.streamTagAssignments()) {
+            certificatesByTag.clear();
+            overflowed = false;
+            assignments.forEach(assignment -> add((Long) assignment[0], (Long) assignment[1]));
+            ready = !overflowed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Gets ids of certificates having all given tags.
+     *
+     * @param tagIds tag ids.
+     * @return bitmap of certificate ids, not shared with the index.
+     */
+    public RoaringBitmap findCertificatesWithAllTags(Collection<Long> tagIds) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = null;
+            for (Long tagId : tagIds) {
+                RoaringBitmap certificates = certificatesByTag.getOrDefault(tagId, new RoaringBitmap());
+                result = result == null ? certificates.clone() : RoaringBitmap.and(result, certificates);
+            }
+            return result == null ? new RoaringBitmap() : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets ids of certificates having at least one of given tags.
+     *
+     * @param tagIds tag ids.
+     * @return bitmap of certificate ids, not shared with the index.
+     */
+    public RoaringBitmap findCertificatesWithAnyTag(Collection<Long> tagIds) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = new RoaringBitmap();
+            for (Long tagId : tagIds) {
+                RoaringBitmap certificates = certificatesByTag.get(tagId);
+                if (certificates != null) {
+                    result.or(certificates);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void certificateSaved(Long certificateId, Collection<Long> tagIds) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(certificateId);
+                tagIds.forEach(tagId -> add(tagId, certificateId));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void certificateRemoved(Long certificateId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(certificateId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void add(Long tagId, Long certificateId) {
+        if (!fits(certificateId)) {
+            if (!overflowed) {
+                log.warn("IN add - certificate id {} doesn't fit the tag index, tags are searched in the database",
+                        certificateId);
+            }
+            overflowed = true;
+            ready = false;
+            return;
+        }
+        certificatesByTag.computeIfAbsent(tagId, id -> new RoaringBitmap()).add(certificateId.intValue());
+    }
+
+    private void remove(Long certificateId) {
+        if (!fits(certificateId)) {
+            return;
+        }
+        int id = certificateId.intValue();
+        certificatesByTag.values().forEach(certificates -> certificates.remove(id));
+    }
+
+    private static boolean fits(Long certificateId) {
+        return certificateId >= 0 && certificateId <= Integer.MAX_VALUE;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.epam.esm.service;
 
+import com.epam.esm.dto.PageCursor;
 import com.epam.esm.dto.TagDTO;
 import com.epam.esm.model.Tag;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -10,6 +12,10 @@ public interface TagService {
 
     Page<TagDTO> findAllTags(int page, int pageSize);
 
+    Slice<TagDTO> findAllTagsSlice(int page, int pageSize);
+
+    Slice<TagDTO> findAllTagsAfter(PageCursor after, int pageSize);
+
     TagDTO findTagById(Long id);
 
     TagDTO saveTag(TagDTO tagDTO);
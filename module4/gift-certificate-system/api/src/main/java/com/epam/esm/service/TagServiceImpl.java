@@ -1,6 +1,7 @@
 package com.epam.esm.service;
 
 import com.epam.esm.converter.TagConverter;
+import com.epam.esm.dto.PageCursor;
 import com.epam.esm.dto.TagDTO;
 import com.epam.esm.exception.DaoException;
 import com.epam.esm.exception.InvalidInputDataException;
@@ -13,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,15 +32,19 @@ public class TagServiceImpl implements TagService {
     private final TagRepository tagRepository;
     private final TagValidator tagValidator;
     private final TagConverter tagConverter;
+    private final PopularTagIndex popularTagIndex;
 
     @Autowired
-    public TagServiceImpl(TagRepository tagRepository, TagValidator tagValidator, TagConverter tagConverter) {
+    public TagServiceImpl(TagRepository tagRepository, TagValidator tagValidator, TagConverter tagConverter,
+                          PopularTagIndex popularTagIndex) {
         this.tagRepository = tagRepository;
         this.tagValidator = tagValidator;
         this.tagConverter = tagConverter;
+        this.popularTagIndex = popularTagIndex;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<TagDTO> findAllTags(int page, int pageSize) {
         try {
             return tagRepository.findAll(PageRequest.of(page, pageSize))
@@ -50,6 +56,32 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Slice<TagDTO> findAllTagsSlice(int page, int pageSize) {
+        try {
+            return tagRepository.findAllBy(PageRequest.of(page, pageSize))
+                    .map(tagConverter::convertFromEntity);
+        } catch (Exception e) {
+            log.error("IN findAllTagsSlice - Unable to get the list of Tags: {}", e.getMessage());
+            throw new DaoException("Unable to get the list of Tags");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TagDTO> findAllTagsAfter(PageCursor after, int pageSize) {
+        long lastSeenId = after == null ? 0L : after.getId();
+        try {
+            return tagRepository.findByIdGreaterThan(lastSeenId, PageRequest.of(0, pageSize, Sort.by(Sort.Direction.ASC, "id")))
+                    .map(tagConverter::convertFromEntity);
+        } catch (Exception e) {
+            log.error("IN findAllTagsAfter - Unable to get the list of Tags: {}", e.getMessage());
+            throw new DaoException("Unable to get the list of Tags");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public TagDTO findTagById(Long id) {
         Tag tag = tagRepository.findById(id).orElseThrow(() -> new TagNotFoundException(MessageFormat
                 .format("Tag with id: {0} not found", id)));
@@ -110,13 +142,17 @@ public class TagServiceImpl implements TagService {
             Tag tag = tagRepository.findById(id).orElseThrow(() ->
                     new TagNotFoundException(MessageFormat.format("Tag with id: {0} not found", id)));
             tagRepository.delete(tag);
+            popularTagIndex.tagRemoved(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TagDTO getUsersMostWidelyUsedTag() {
         try {
-            Tag tag = tagRepository.getUsersMostWidelyUsedTag().orElseThrow(() ->
-                    new TagNotFoundException("Tag not found"));
+            Optional<Tag> popularTag = popularTagIndex.isReady()
+                    ? popularTagIndex.findPopularTagId().flatMap(tagRepository::findById)
+                    : tagRepository.getUsersMostWidelyUsedTag();
+            Tag tag = popularTag.orElseThrow(() -> new TagNotFoundException("Tag not found"));
             return tagConverter.convertFromEntity(tag);
         } catch (Exception e) {
             log.error("IN getUsersMostWidelyUsedTag - Unable to get the Tag: {}", e.getMessage());
@@ -1,13 +1,17 @@
 package com.epam.esm.service;
 
+import com.epam.esm.dto.PageCursor;
 import com.epam.esm.dto.UserDTO;
 import com.epam.esm.model.User;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
 public interface UserService {
     Page<UserDTO> getAllUsers(int page, int pageSize);
+    Slice<UserDTO> getAllUsersSlice(int page, int pageSize);
+    Slice<UserDTO> getAllUsersAfter(PageCursor after, int pageSize);
     UserDTO getUserById(Long id);
     UserDTO register(User user);
     User findByUsername(String username);
@@ -1,6 +1,7 @@
 package com.epam.esm.service;
 
 import com.epam.esm.converter.UserConverter;
+import com.epam.esm.dto.PageCursor;
 import com.epam.esm.dto.UserDTO;
 import com.epam.esm.exception.DaoException;
 import com.epam.esm.exception.TagNotFoundException;
@@ -13,7 +14,10 @@ import com.epam.esm.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,13 +34,16 @@ public class UserServiceImpl implements UserService{
     private final RoleRepository roleRepository;
     private final UserConverter userConverter;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final TotalCountProvider totalCountProvider;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, RoleRepository roleRepository, UserConverter userConverter, BCryptPasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, RoleRepository roleRepository, UserConverter userConverter,
+                           BCryptPasswordEncoder passwordEncoder, TotalCountProvider totalCountProvider) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.userConverter = userConverter;
         this.passwordEncoder = passwordEncoder;
+        this.totalCountProvider = totalCountProvider;
     }
 
     /**
@@ -47,12 +54,47 @@ public class UserServiceImpl implements UserService{
      * @return Users list.
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<UserDTO> getAllUsers(int page, int pageSize) {
+        Slice<UserDTO> users = getAllUsersSlice(page, pageSize);
+        return new PageImpl<>(users.getContent(), users.getPageable(), totalCountProvider.countUsers());
+    }
+
+    /**
+     * Gets page of users without counting the total number of users.
+     *
+     * @param page     Index of first page instance.
+     * @param pageSize Count pages in response.
+     * @return Users slice.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> getAllUsersSlice(int page, int pageSize) {
+        try {
+            return userRepository.findAllBy(PageRequest.of(page, pageSize))
+                    .map(userConverter::convertFromEntity);
+        } catch (Exception e) {
+            log.error("IN getAllUsersSlice - Unable to get User's list: {}", e.getMessage());
+            throw new DaoException("Unable to get User's list");
+        }
+    }
+
+    /**
+     * Gets the page of users that follows the given cursor, ordered by id.
+     *
+     * @param after    Cursor of the last seen user, null for the first page.
+     * @param pageSize Count users in response.
+     * @return Users slice.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> getAllUsersAfter(PageCursor after, int pageSize) {
+        long lastSeenId = after == null ? 0L : after.getId();
         try {
-            return userRepository.findAll(PageRequest.of(page, pageSize))
+            return userRepository.findByIdGreaterThan(lastSeenId, PageRequest.of(0, pageSize, Sort.by(Sort.Direction.ASC, "id")))
                     .map(userConverter::convertFromEntity);
         } catch (Exception e) {
-            log.error("IN getAllUsers - Unable to get User's list: {}", e.getMessage());
+            log.error("IN getAllUsersAfter - Unable to get User's list: {}", e.getMessage());
             throw new DaoException("Unable to get User's list");
         }
     }
@@ -64,6 +106,7 @@ public class UserServiceImpl implements UserService{
      * @return User instance.
      */
     @Override
+    @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
             User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(MessageFormat
                     .format("User with id: {0} not found", id)));
@@ -84,6 +127,7 @@ public class UserServiceImpl implements UserService{
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         try {
             User registeredUser = userRepository.save(user);
+            totalCountProvider.userAdded();
             log.info("IN register - user: {} successfully registered", registeredUser);
             return userConverter.convertFromEntity(registeredUser);
         } catch (Exception e) {
@@ -93,12 +137,14 @@ public class UserServiceImpl implements UserService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User findByUsername(String username) {
             return userRepository.findUserByUsername(username).orElseThrow(() -> new UserNotFoundException(MessageFormat
                     .format("User with username: {0} not found", username)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User findByUsernameAndPassword(String username, String password) {
         String encodedPassword = passwordEncoder.encode(password);
             return userRepository.findUserByUsernameAndPassword(username, encodedPassword).orElseThrow(() -> new UserNotFoundException(MessageFormat
@@ -20,6 +20,9 @@ public class CertificateSearchValidator implements Validator {
     public void validate(Object target, Errors errors) {
         CertificateSearchQuery query = (CertificateSearchQuery) target;
 
+        if (query.getText() != null && (query.getText().trim().isEmpty() || query.getText().length() > 250)) {
+            errors.rejectValue("text", "text.size");
+        }
         if (StringUtils.hasLength(query.getPartOfName()) && query.getPartOfName().length() > 40) {
             errors.rejectValue("partOfName", "partOfName.maxSize");
         }
@@ -4,8 +4,11 @@ import com.epam.esm.exception.InvalidInputDataException;
 import lombok.experimental.UtilityClass;
 
 import java.text.MessageFormat;
+import java.time.LocalDate;
 import java.util.Arrays;
 
+import static com.epam.esm.constants.AppConstants.MAX_IDEMPOTENCY_KEY_LENGTH;
+
 @UtilityClass
 public final class ValidationUtils {
 
@@ -28,4 +31,18 @@ public final class ValidationUtils {
         return true;
     }
 
+    public static boolean checkPeriod(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidInputDataException(MessageFormat.format("Invalid input data. Period from {0} to {1}", from, to));
+        }
+        return true;
+    }
+
+    public static boolean checkIdempotencyKey(String key) {
+        if (key.isEmpty() || key.length() > MAX_IDEMPOTENCY_KEY_LENGTH || !key.chars().allMatch(c -> c > 32 && c < 127)) {
+            throw new InvalidInputDataException(MessageFormat.format("Invalid input data. Idempotency key: {0}", key));
+        }
+        return true;
+    }
+
 }
@@ -0,0 +1,72 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Puts the foreign key of <i>orders.user_id</i> on the <i>orders_user_id_order_id_idx</i> index under the name
+ * <i>fk_orders_users1</i>. A database baselined at version 1 has the key ddl-auto=update generated already, under
+ * a hashed name and with an index of its own, so it is looked up in the metadata, dropped together with that index,
+ * and created again.
+ */
+public class V3__Orders_user_foreign_key extends BaseJavaMigration {
+
+    private static final String FOREIGN_KEY = "fk_orders_users1";
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        List<String> foreignKeys = findUserForeignKeys(connection);
+        try (Statement statement = connection.createStatement()) {
+            for (String foreignKey : foreignKeys) {
+                statement.execute("ALTER TABLE orders DROP FOREIGN KEY " + foreignKey);
+                if (hasIndex(connection, foreignKey)) {
+                    statement.execute("ALTER TABLE orders DROP INDEX " + foreignKey);
+                }
+            }
+            statement.execute("ALTER TABLE orders ADD CONSTRAINT " + FOREIGN_KEY
+                    + " FOREIGN KEY (user_id) REFERENCES users (user_id)");
+        }
+    }
+
+    private static List<String> findUserForeignKeys(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        List<String> foreignKeys = new ArrayList<>();
+        try (ResultSet keys = metaData.getImportedKeys(connection.getCatalog(), connection.getSchema(),
+                identifier(metaData, "orders"))) {
+            while (keys.next()) {
+                if ("user_id".equalsIgnoreCase(keys.getString("FKCOLUMN_NAME"))) {
+                    foreignKeys.add(keys.getString("FK_NAME"));
+                }
+            }
+        }
+        return foreignKeys;
+    }
+
+    private static boolean hasIndex(Connection connection, String name) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                identifier(metaData, "orders"), false, false)) {
+            while (indexes.next()) {
+                if (name.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        return metaData.storesUpperCaseIdentifiers() ? name.toUpperCase() : name;
+    }
+}
@@ -0,0 +1,96 @@
+-- -----------------------------------------------------
+-- Schema of SQL/create_table.sql together with the columns
+-- ddl-auto=update had added to it before the migrations.
+-- Existing databases are baselined at this version and skip it,
+-- everything added since goes into the next versions.
+-- -----------------------------------------------------
+
+CREATE TABLE tag (
+  tag_id BIGINT NOT NULL AUTO_INCREMENT,
+  name VARCHAR(45) NOT NULL,
+  PRIMARY KEY (tag_id),
+  UNIQUE INDEX tag_id_UNIQUE (tag_id),
+  UNIQUE INDEX tag_name_UNIQUE (name));
+
+CREATE TABLE gift_certificate (
+  certificate_id BIGINT NOT NULL AUTO_INCREMENT,
+  name VARCHAR(45) NOT NULL,
+  description VARCHAR(500) NOT NULL,
+  price DECIMAL(12,2) NOT NULL,
+  create_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  last_update_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  duration INT NOT NULL,
+  created_by VARCHAR(45) NULL,
+  created_date DATETIME NULL,
+  last_modified_by VARCHAR(45) NULL,
+  last_modified_date DATETIME NULL,
+  PRIMARY KEY (certificate_id),
+  UNIQUE INDEX gift_sertificate_id_UNIQUE (certificate_id),
+  UNIQUE INDEX gift_certificate_name_UNIQUE (name));
+
+CREATE TABLE tag_has_gift_certificate (
+  tag_id BIGINT NOT NULL,
+  gift_certificate_id BIGINT NOT NULL,
+  PRIMARY KEY (tag_id, gift_certificate_id),
+  INDEX fk_tag_has_gift_sertificate_gift_sertificate1_idx (gift_certificate_id),
+  CONSTRAINT fk_tag_has_gift_sertificate_tag
+    FOREIGN KEY (tag_id)
+    REFERENCES tag (tag_id),
+  CONSTRAINT fk_tag_has_gift_sertificate_gift_sertificate1
+    FOREIGN KEY (gift_certificate_id)
+    REFERENCES gift_certificate (certificate_id));
+
+CREATE TABLE users (
+  user_id BIGINT NOT NULL AUTO_INCREMENT,
+  username VARCHAR(45) NOT NULL,
+  first_name VARCHAR(40) NOT NULL,
+  last_name VARCHAR(40) NOT NULL,
+  email VARCHAR(40) NOT NULL,
+  password VARCHAR(255) NOT NULL,
+  address VARCHAR(200) NOT NULL,
+  date_of_birth DATE NOT NULL,
+  created_by VARCHAR(45) NULL,
+  created_date DATETIME NULL,
+  last_modified_by VARCHAR(45) NULL,
+  last_modified_date DATETIME NULL,
+  PRIMARY KEY (user_id),
+  UNIQUE INDEX user_id_UNIQUE (user_id),
+  UNIQUE INDEX username_UNIQUE (username),
+  UNIQUE INDEX email_UNIQUE (email));
+
+CREATE TABLE orders (
+  order_id BIGINT NOT NULL AUTO_INCREMENT,
+  order_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  certificate_id BIGINT NULL,
+  user_id BIGINT NOT NULL,
+  cost DECIMAL(12,2) NOT NULL,
+  created_by VARCHAR(45) NULL,
+  created_date DATETIME NULL,
+  last_modified_by VARCHAR(45) NULL,
+  last_modified_date DATETIME NULL,
+  PRIMARY KEY (order_id),
+  UNIQUE INDEX order_id_UNIQUE (order_id),
+  INDEX fk_orders_gift_certificate1_idx (certificate_id),
+  CONSTRAINT fk_orders_gift_certificate1
+    FOREIGN KEY (certificate_id)
+    REFERENCES gift_certificate (certificate_id)
+    ON DELETE SET NULL);
+
+CREATE TABLE user_role (
+  user_role_id BIGINT NOT NULL AUTO_INCREMENT,
+  name VARCHAR(45) NOT NULL,
+  PRIMARY KEY (user_role_id),
+  UNIQUE INDEX id_UNIQUE (user_role_id),
+  UNIQUE INDEX user_role_name_UNIQUE (name));
+
+CREATE TABLE users_has_user_role (
+  user_id BIGINT NOT NULL,
+  user_role_id BIGINT NOT NULL,
+  PRIMARY KEY (user_id, user_role_id),
+  INDEX fk_users_has_user_role_user_role1_idx (user_role_id),
+  CONSTRAINT fk_users_has_user_role_users1
+    FOREIGN KEY (user_id)
+    REFERENCES users (user_id),
+  CONSTRAINT fk_users_has_user_role_user_role1
+    FOREIGN KEY (user_role_id)
+    REFERENCES user_role (user_role_id));
@@ -0,0 +1,27 @@
+-- -----------------------------------------------------
+-- The primary keys are unique already, their extra unique
+-- indexes only slow down every insert
+-- -----------------------------------------------------
+ALTER TABLE tag DROP INDEX tag_id_UNIQUE;
+ALTER TABLE gift_certificate DROP INDEX gift_sertificate_id_UNIQUE;
+ALTER TABLE orders DROP INDEX order_id_UNIQUE;
+ALTER TABLE users DROP INDEX user_id_UNIQUE;
+ALTER TABLE user_role DROP INDEX id_UNIQUE;
+
+-- -----------------------------------------------------
+-- Orders of a user in id order, for the order pages of a user.
+-- The foreign key to the users is moved onto it by the next version.
+-- -----------------------------------------------------
+CREATE INDEX orders_user_id_order_id_idx ON orders (user_id, order_id);
+
+-- -----------------------------------------------------
+-- Total cost per user without reading the rows, for the most
+-- widely used tag of the user with the highest cost of orders
+-- -----------------------------------------------------
+CREATE INDEX orders_user_id_cost_idx ON orders (user_id, cost);
+
+-- -----------------------------------------------------
+-- Certificates sorted by date, the id breaks ties for the keyset pages.
+-- Sorting by name is served by the unique index on the name.
+-- -----------------------------------------------------
+CREATE INDEX gift_certificate_create_date_idx ON gift_certificate (create_date, certificate_id);
@@ -0,0 +1,26 @@
+-- -----------------------------------------------------
+-- Daily sales rollups of the analytics
+-- -----------------------------------------------------
+CREATE TABLE certificate_sales (
+  certificate_id BIGINT NOT NULL,
+  sales_date DATE NOT NULL,
+  order_count BIGINT NOT NULL,
+  revenue DECIMAL(19,2) NOT NULL,
+  PRIMARY KEY (certificate_id, sales_date));
+
+CREATE TABLE tag_sales (
+  sales_date DATE NOT NULL,
+  tag_id BIGINT NOT NULL,
+  order_count BIGINT NOT NULL,
+  revenue DECIMAL(19,2) NOT NULL,
+  PRIMARY KEY (sales_date, tag_id));
+
+-- -----------------------------------------------------
+-- Orders placed by an Idempotency-Key
+-- -----------------------------------------------------
+CREATE TABLE order_request (
+  request_key VARCHAR(300) NOT NULL,
+  certificate_id BIGINT NOT NULL,
+  order_id BIGINT NOT NULL,
+  created_date DATETIME NOT NULL,
+  PRIMARY KEY (request_key));
@@ -0,0 +1,46 @@
+package com.epam.esm.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource("classpath:test-application.properties")
+class DataSourceConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldValidateConnectionsWithoutQuery() {
+        HikariDataSource hikariDataSource = (HikariDataSource) dataSource;
+
+        assertNull(hikariDataSource.getConnectionTestQuery());
+        assertEquals(30000, hikariDataSource.getLeakDetectionThreshold());
+    }
+
+    @Test
+    void shouldPublishPoolSaturation() throws SQLException {
+        assertNotNull(meterRegistry.find("hikaricp.connections.pending").gauge());
+        double idleSaturation = meterRegistry.get("hikaricp.connections.saturation").gauge().value();
+        try (Connection connection = dataSource.getConnection()) {
+            assertTrue(connection.isValid(1));
+            assertTrue(meterRegistry.get("hikaricp.connections.saturation").gauge().value() > idleSaturation);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.epam.esm.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("fast-start")
+@TestPropertySource(locations = "classpath:test-application.properties",
+        properties = "spring.datasource.url=jdbc:h2:mem:fast-start;MODE=MySQL")
+class FastStartConfigTest {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Autowired
+    private StartupReportEndpoint startupReportEndpoint;
+
+    @Test
+    void shouldCreateOnlyWebBeansEagerly() {
+        assertFalse(beanFactory.getBeanDefinition("giftCertificateController").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("restExceptionHandler").isLazyInit());
+        assertTrue(beanFactory.getBeanDefinition("analyticsServiceImpl").isLazyInit());
+        assertTrue(beanFactory.getBeanDefinition("salesRollupPipeline").isLazyInit());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReportStartupTimes() {
+        Map<String, Object> report = startupReportEndpoint.report();
+
+        assertEquals(1, ((List<String>) report.get("profiles")).size());
+        assertNotNull(report.get("started"));
+        assertNotNull(report.get("ready"));
+        assertFalse(((List<?>) report.get("beans")).isEmpty());
+    }
+}
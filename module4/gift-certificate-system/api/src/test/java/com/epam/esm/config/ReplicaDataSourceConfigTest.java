@@ -0,0 +1,80 @@
+package com.epam.esm.config;
+
+import com.epam.esm.dto.TagDTO;
+import com.epam.esm.search.CertificateSearchIndex;
+import com.epam.esm.service.TagCertificateIndex;
+import com.epam.esm.service.TagService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:test-application.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;MODE=MySQL",
+        "spring.datasource.replica.jdbc-url=" + ReplicaDataSourceConfigTest.REPLICA_URL,
+        "spring.datasource.replica.username=sa"})
+class ReplicaDataSourceConfigTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String SQL_COUNT_TAGS = "SELECT COUNT(*) FROM tag WHERE name = ?";
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private CertificateSearchIndex searchIndex;
+
+    @Autowired
+    private TagCertificateIndex tagIndex;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @BeforeAll
+    static void createReplica() {
+        DataSource replica = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure().dataSource(replica).load().migrate();
+        new JdbcTemplate(replica).update("INSERT INTO tag (tag_id, name) VALUES (100, 'replicated')");
+    }
+
+    @Test
+    void shouldReadFromReplica() {
+        assertEquals("replicated", tagService.findTagById(100L).getName());
+        assertEquals(1, tagService.findAllTags(0, 10).getTotalElements());
+    }
+
+    @Test
+    void shouldWriteToPrimary() {
+        TagDTO tag = new TagDTO();
+        tag.setName("written");
+        tagService.saveTag(tag);
+
+        assertEquals(1, new JdbcTemplate(primaryDataSource).queryForObject(SQL_COUNT_TAGS, Integer.class, "written"));
+        assertEquals(0, new JdbcTemplate(replicaDataSource).queryForObject(SQL_COUNT_TAGS, Integer.class, "written"));
+    }
+
+    @Test
+    void shouldBuildIndexesFromPrimary() {
+        assertTrue(searchIndex.search("apple", PageRequest.of(0, 10)).getTotalElements() > 0);
+        assertFalse(tagIndex.findCertificatesWithAllTags(Collections.singletonList(1L)).isEmpty());
+    }
+}
@@ -0,0 +1,92 @@
+package com.epam.esm.controller;
+
+import com.epam.esm.dto.GiftCertificateDTO;
+import com.epam.esm.dto.ImportReportDTO;
+import com.epam.esm.dto.TagDTO;
+import com.epam.esm.service.GiftCertificateService;
+import com.epam.esm.service.PatchService;
+import com.epam.esm.validator.CertificateSearchValidator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class GiftCertificateControllerTest {
+
+    private final GiftCertificateService giftCertificateService = mock(GiftCertificateService.class);
+    private final GiftCertificateController controller = new GiftCertificateController(giftCertificateService,
+            mock(CertificateSearchValidator.class), mock(PaginationUtil.class), new LinkFactory(), mock(PatchService.class));
+
+    @Test
+    void shouldReportMalformedLineAndImportTheOthers() throws IOException {
+        List<Map<Integer, GiftCertificateDTO>> chunks = new ArrayList<>();
+        doAnswer(invocation -> chunks.add(new LinkedHashMap<>(invocation.getArgument(0))))
+                .when(giftCertificateService).importCertificates(anyMap(), any(ImportReportDTO.class));
+        String body = String.join("\n",
+                "{\"name\":\"First\",\"price\":10}",
+                "{\"name\":\"Broken\",",
+                "",
+                "{\"name\":\"Second\",\"price\":20}");
+
+        ImportReportDTO report = controller.importGiftCertificatesStream(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, chunks.size());
+        assertEquals(Arrays.asList(1, 3), new ArrayList<>(chunks.get(0).keySet()));
+        assertEquals("Second", chunks.get(0).get(3).getName());
+        assertEquals(1, report.getErrors().size());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void shouldSaveLargeUploadInChunks() throws IOException {
+        List<Integer> chunkSizes = new ArrayList<>();
+        doAnswer(invocation -> chunkSizes.add(invocation.<Map<?, ?>>getArgument(0).size()))
+                .when(giftCertificateService).importCertificates(anyMap(), any(ImportReportDTO.class));
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1200; i++) {
+            body.append("{\"name\":\"Certificate ").append(i).append("\"}\n");
+        }
+
+        controller.importGiftCertificatesStream(new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(Arrays.asList(500, 500, 200), chunkSizes);
+    }
+
+    @Test
+    void shouldExportCertificatesWithoutLinks() throws IOException {
+        doAnswer(invocation -> {
+            invocation.<Consumer<GiftCertificateDTO>>getArgument(0).accept(GiftCertificateDTO.builder()
+                    .id(1L)
+                    .name("Exported")
+                    .tags(Collections.singletonList(TagDTO.builder().id(2L).name("Apple").build()))
+                    .build());
+            return null;
+        }).when(giftCertificateService).exportCertificates(any());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        controller.exportGiftCertificates().getBody().writeTo(output);
+
+        String line = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(line.contains("\"name\":\"Apple\""));
+        assertFalse(line.contains("links"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.epam.esm.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class LinkFactoryTest {
+
+    private final LinkFactory linkFactory = new LinkFactory();
+
+    @BeforeEach
+    void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/certificates");
+        request.setServerName("example.com");
+        request.setServerPort(5000);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldBuildSameLinksAsControllerMappings() {
+        assertEquals(linkTo(methodOn(GiftCertificateController.class).findCertificateById(7L)).withSelfRel().toString(),
+                linkFactory.certificateLink(7L).toString());
+        assertEquals(linkTo(methodOn(TagController.class).findTagById(7L)).withRel("tag").toString(),
+                linkFactory.tagLink(7L, "tag").toString());
+        assertEquals(linkTo(methodOn(OrderController.class).findOrderById(7L)).withRel("order").toString(),
+                linkFactory.orderLink(7L, "order").toString());
+        assertEquals(linkTo(methodOn(UserController.class).findUserById(7L)).withRel("currentUser").toString(),
+                linkFactory.userLink(7L, "currentUser").toString());
+    }
+}
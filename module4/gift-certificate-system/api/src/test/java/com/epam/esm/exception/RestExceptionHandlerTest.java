@@ -0,0 +1,37 @@
+package com.epam.esm.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RestExceptionHandlerTest {
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FullQueueController())
+            .setControllerAdvice(new RestExceptionHandler())
+            .build();
+
+    @Test
+    void shouldAnswerServiceUnavailableWhenOrderQueueIsFull() throws Exception {
+        mockMvc.perform(post("/orders"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value("Too many orders, try again later"));
+    }
+
+    @RestController
+    static class FullQueueController {
+
+        @PostMapping("/orders")
+        public void makeOrder() {
+            throw new OrderQueueFullException("More than 1 orders are waiting to be written");
+        }
+    }
+}
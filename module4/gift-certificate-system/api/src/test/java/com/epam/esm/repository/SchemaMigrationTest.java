@@ -0,0 +1,94 @@
+package com.epam.esm.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource("classpath:test-application.properties")
+class SchemaMigrationTest {
+
+    private static final String SQL_FOREIGN_KEYS_OF_USER = "SELECT FK_NAME FROM INFORMATION_SCHEMA.CROSS_REFERENCES " +
+            "WHERE FKTABLE_NAME = 'ORDERS' AND FKCOLUMN_NAME = 'USER_ID'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldApplyAllMigrations() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"type\" IN ('SQL', 'JDBC') AND \"success\" ORDER BY \"installed_rank\"",
+                String.class);
+
+        assertEquals(Arrays.asList("1", "2", "3", "4"), versions);
+    }
+
+    @Test
+    void shouldMigrateDatabaseCreatedByHibernate() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:baselined;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate baselined = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        baselined.execute("ALTER TABLE orders ADD CONSTRAINT FKqyxvlyhrebi5k1ucxb4s4q1c2 " +
+                "FOREIGN KEY (user_id) REFERENCES users (user_id)");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        assertEquals(Arrays.asList("FK_ORDERS_USERS1"), baselined.queryForList(SQL_FOREIGN_KEYS_OF_USER, String.class));
+        assertEquals(0, baselined.queryForObject("SELECT COUNT(*) FROM order_request", Integer.class));
+        assertEquals(0, baselined.queryForObject("SELECT COUNT(*) FROM certificate_sales", Integer.class));
+    }
+
+    @Test
+    void shouldReferenceUsersFromOrdersOnce() {
+        assertEquals(Arrays.asList("FK_ORDERS_USERS1"), jdbcTemplate.queryForList(SQL_FOREIGN_KEYS_OF_USER, String.class));
+    }
+
+    @Test
+    void shouldDropUniqueIndexesOfPrimaryKeys() {
+        Integer indexes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE TABLE_SCHEMA = 'PUBLIC' AND INDEX_NAME LIKE '%ID_UNIQUE%'", Integer.class);
+
+        assertEquals(0, indexes);
+    }
+
+    @Test
+    void shouldPageOrdersOfUserByIndex() {
+        String plan = explain("SELECT * FROM orders WHERE user_id = 1 AND order_id > 0 ORDER BY order_id LIMIT 10");
+
+        assertTrue(plan.contains("ORDERS_USER_ID_ORDER_ID_IDX: USER_ID = 1"), plan);
+    }
+
+    @Test
+    void shouldGroupOrdersByUserByIndex() {
+        String plan = explain("SELECT user_id FROM orders GROUP BY user_id ORDER BY SUM(cost) DESC LIMIT 1");
+
+        assertTrue(plan.contains("ORDERS_USER_ID_"), plan);
+        assertTrue(plan.contains("group sorted"), plan);
+    }
+
+    @Test
+    void shouldSortCertificatesByIndex() {
+        String byDate = explain("SELECT * FROM gift_certificate ORDER BY create_date, certificate_id LIMIT 10");
+        String byName = explain("SELECT * FROM gift_certificate ORDER BY name LIMIT 10");
+
+        assertTrue(byDate.contains("GIFT_CERTIFICATE_CREATE_DATE_IDX"), byDate);
+        assertTrue(byDate.contains("index sorted"), byDate);
+        assertTrue(byName.contains("GIFT_CERTIFICATE_NAME_UNIQUE"), byName);
+        assertTrue(byName.contains("index sorted"), byName);
+    }
+
+    private String explain(String query) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + query, String.class);
+    }
+}
@@ -0,0 +1,46 @@
+package com.epam.esm.security;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource("classpath:test-application.properties")
+class AuthorizationComponentImplTest {
+
+    @Autowired
+    private AuthorizationComponent authorizationComponent;
+
+    @Autowired
+    private JwtUserDetailsService jwtUserDetailsService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void shouldCheckOrderOwnershipWithSingleQuery() {
+        String token = jwtTokenProvider.generateToken(jwtUserDetailsService.loadUserByUsername("ivanov@mail.com"));
+        UserDetails principal = (UserDetails) jwtTokenProvider.getAuthentication(token).getPrincipal();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        assertTrue(authorizationComponent.isUsersOrder(principal, 2L));
+
+        assertEquals(1L, statistics.getPrepareStatementCount());
+        assertThrows(AccessDeniedException.class, () -> authorizationComponent.isUsersOrder(principal, 1L));
+    }
+}
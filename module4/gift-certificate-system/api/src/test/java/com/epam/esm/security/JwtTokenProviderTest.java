@@ -0,0 +1,66 @@
+package com.epam.esm.security;
+
+import com.epam.esm.exception.JwtAuthenticationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource("classpath:test-application.properties")
+class JwtTokenProviderTest {
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private JwtUserDetailsService jwtUserDetailsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void shouldAuthenticateFromTokenClaimsWithoutQueries() {
+        UserDetails userDetails = jwtUserDetailsService.loadUserByUsername("petrov@mail.com");
+        String token = jwtTokenProvider.generateToken(userDetails);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        assertTrue(jwtTokenProvider.validateToken(token));
+        Authentication authentication = jwtTokenProvider.getAuthentication(token);
+
+        assertEquals(0L, statistics.getPrepareStatementCount());
+        UserDetailsEntity principal = (UserDetailsEntity) authentication.getPrincipal();
+        assertEquals("petrov@mail.com", principal.getUsername());
+        assertEquals(1L, principal.getUser().getId());
+        assertEquals(userDetails.getAuthorities().size(), authentication.getAuthorities().size());
+    }
+
+    @Test
+    void shouldRejectTamperedTokenAfterOriginalWasVerified() {
+        String token = jwtTokenProvider.generateToken(jwtUserDetailsService.loadUserByUsername("petrov@mail.com"));
+        assertTrue(jwtTokenProvider.validateToken(token));
+
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        String tamperedPayload = payload.replace("petrov@mail.com", "admin@mail.com");
+        String tampered = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(tamperedPayload.getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+
+        assertThrows(JwtAuthenticationException.class, () -> jwtTokenProvider.validateToken(tampered));
+        assertThrows(JwtAuthenticationException.class, () -> jwtTokenProvider.getAuthentication(tampered));
+        assertEquals("petrov@mail.com", jwtTokenProvider.getUsername(token));
+    }
+}
@@ -0,0 +1,70 @@
+package com.epam.esm.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void shouldDropLeastRecentlyUsedToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        Claims first = claims(TimeUnit.HOURS.toMillis(1));
+        Claims second = claims(TimeUnit.HOURS.toMillis(1));
+        Claims third = claims(TimeUnit.HOURS.toMillis(1));
+
+        cache.put("first", first);
+        cache.put("second", second);
+        assertSame(first, cache.get("first"));
+        cache.put("third", third);
+
+        assertSame(first, cache.get("first"));
+        assertNull(cache.get("second"));
+        assertSame(third, cache.get("third"));
+    }
+
+    @Test
+    void shouldStayBoundedWhenStriped() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(1024);
+        Claims claims = claims(TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("token" + i, claims);
+        }
+
+        int cached = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (cache.get("token" + i) != null) {
+                cached++;
+            }
+        }
+        assertNotNull(cache.get("token9999"));
+        assertTrue(cached <= 1024);
+    }
+
+    @Test
+    void shouldForgetExpiredToken() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        // The expiration is kept in whole seconds
+        cache.put("expiring", claims(1500));
+        cache.put("expired", claims(-1000));
+        assertNotNull(cache.get("expiring"));
+        assertNull(cache.get("expired"));
+
+        TimeUnit.MILLISECONDS.sleep(1600);
+
+        assertNull(cache.get("expiring"));
+    }
+
+    private static Claims claims(long validityMillis) {
+        return Jwts.claims().setSubject("petrov@mail.com")
+                .setExpiration(new Date(System.currentTimeMillis() + validityMillis));
+    }
+}
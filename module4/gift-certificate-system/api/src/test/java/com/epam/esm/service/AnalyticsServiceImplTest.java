@@ -0,0 +1,100 @@
+package com.epam.esm.service;
+
+import com.epam.esm.dto.DailySalesDTO;
+import com.epam.esm.dto.SalesDTO;
+import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.model.Order;
+import com.epam.esm.repository.CertificateSalesRepository;
+import com.epam.esm.repository.GiftCertificateRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@TestPropertySource("classpath:test-application.properties")
+class AnalyticsServiceImplTest {
+
+    private static final LocalDate DAY = LocalDate.of(2020, 1, 15);
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private SalesRollupPipeline salesRollupPipeline;
+
+    @Autowired
+    private GiftCertificateRepository giftCertificateRepository;
+
+    @Autowired
+    private CertificateSalesRepository certificateSalesRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void shouldReadSalesFromRollups() {
+        Order firstOrder = order(1L, "200");
+        salesRollupPipeline.orderChanged(OrderEvent.placed(firstOrder));
+        salesRollupPipeline.orderChanged(OrderEvent.placed(firstOrder));
+        salesRollupPipeline.orderChanged(OrderEvent.removed(firstOrder));
+        salesRollupPipeline.orderChanged(OrderEvent.placed(order(2L, "100")));
+        salesRollupPipeline.flush();
+
+        Page<SalesDTO> certificateSales = analyticsService.getCertificateSales(DAY, DAY, 0, 10);
+        assertEquals(2, certificateSales.getTotalElements());
+        assertEquals(1L, certificateSales.getContent().get(0).getId());
+        assertEquals(1L, certificateSales.getContent().get(0).getOrderCount());
+        assertEquals(0, new BigDecimal("200").compareTo(certificateSales.getContent().get(0).getRevenue()));
+
+        Page<SalesDTO> tagSales = analyticsService.getTagSales(DAY, DAY, 0, 10);
+        assertEquals(4, tagSales.getTotalElements());
+        assertEquals(2L, tagSales.getContent().get(0).getOrderCount());
+        assertEquals(0, new BigDecimal("300").compareTo(tagSales.getContent().get(0).getRevenue()));
+
+        List<DailySalesDTO> dailySales = analyticsService.getDailySales(DAY.minusDays(1), DAY.plusDays(1));
+        assertEquals(1, dailySales.size());
+        assertEquals(DAY, dailySales.get(0).getSalesDate());
+        assertEquals(2L, dailySales.get(0).getOrderCount());
+    }
+
+    @Test
+    void shouldKeepIncrementsOfConcurrentWriters() throws InterruptedException {
+        LocalDate day = DAY.minusYears(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 100; i++) {
+            writers.execute(() -> transactionTemplate.executeWithoutResult(status ->
+                    certificateSalesRepository.addSales(day, 3L, 1, BigDecimal.TEN)));
+        }
+        writers.shutdown();
+        assertTrue(writers.awaitTermination(10, TimeUnit.SECONDS));
+
+        SalesDTO sales = analyticsService.getCertificateSales(day, day, 0, 10).getContent().get(0);
+        assertEquals(100L, sales.getOrderCount());
+        assertEquals(0, new BigDecimal("1000").compareTo(sales.getRevenue()));
+    }
+
+    private Order order(Long certificateId, String cost) {
+        GiftCertificate certificate = giftCertificateRepository.findById(certificateId).get();
+        return Order.builder()
+                .giftCertificate(certificate)
+                .cost(new BigDecimal(cost))
+                .orderDate(DAY.atStartOfDay(ZoneId.systemDefault()))
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.epam.esm.service;
+
+import com.epam.esm.dto.GiftCertificateDTO;
+import com.epam.esm.dto.TagDTO;
+import com.epam.esm.repository.TagRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs on a database which compares tag names ignoring case, as the default MySQL collation does.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:test-application.properties", properties =
+        "spring.datasource.url=jdbc:h2:mem:ignore-case;MODE=MySQL;IGNORECASE=TRUE")
+class CaseInsensitiveTagNameTest {
+
+    @Autowired
+    private GiftCertificateService giftCertificateService;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Test
+    void shouldReuseExistingTagOfAnotherCase() {
+        long tags = tagRepository.count();
+        Long appleId = tagRepository.findByName("Apple").get().getId();
+
+        GiftCertificateDTO saved = giftCertificateService.saveCertificate(GiftCertificateDTO.builder()
+                .name("Lower case tags")
+                .description("Certificate with tags in another case")
+                .price(BigDecimal.TEN)
+                .duration(10)
+                .tags(Arrays.asList(TagDTO.builder().name("apple").build(),
+                        TagDTO.builder().name("Case tag").build(),
+                        TagDTO.builder().name("CASE TAG").build()))
+                .build());
+
+        assertEquals(tags + 1, tagRepository.count());
+        assertEquals(2, saved.getTags().size());
+        assertEquals(appleId, saved.getTags().get(0).getId());
+        assertEquals("Apple", saved.getTags().get(0).getName());
+    }
+
+    @Test
+    void shouldImportCertificateWithTagOfAnotherCase() {
+        long tags = tagRepository.count();
+
+        assertEquals(1, giftCertificateService.importCertificates(Collections.singletonList(GiftCertificateDTO.builder()
+                .name("Imported lower case tags")
+                .description("Imported certificate with a tag in another case")
+                .price(BigDecimal.TEN)
+                .duration(10)
+                .tags(Collections.singletonList(TagDTO.builder().name("APPLE").build()))
+                .build())).getImported());
+        assertEquals(tags, tagRepository.count());
+    }
+}
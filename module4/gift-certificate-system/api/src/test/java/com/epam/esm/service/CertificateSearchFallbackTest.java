@@ -0,0 +1,51 @@
+package com.epam.esm.service;
+
+import com.epam.esm.dto.GiftCertificateDTO;
+import com.epam.esm.repository.CertificateSearchQuery;
+import com.epam.esm.search.CertificateSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:test-application.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:search-fallback;MODE=MySQL"})
+class CertificateSearchFallbackTest {
+
+    @Autowired
+    private GiftCertificateService giftCertificateService;
+
+    @MockBean
+    private CertificateSearchIndex searchIndex;
+
+    @Test
+    void shouldSearchDatabaseWhileIndexIsNotReady() {
+        CertificateSearchQuery query = new CertificateSearchQuery();
+        query.setText("apple CARD");
+
+        Page<GiftCertificateDTO> certificates = giftCertificateService.getCertificates(query, 0, 20);
+
+        assertEquals(3L, certificates.getTotalElements());
+        certificates.forEach(certificate -> assertTrue(certificate.getName().startsWith("Apple Gift Card")));
+        assertEquals(3, giftCertificateService.getCertificatesSlice(query, 0, 20).getNumberOfElements());
+        verify(searchIndex, never()).search(anyString(), any());
+    }
+
+    @Test
+    void shouldMatchWordsInNameOrDescription() {
+        CertificateSearchQuery query = new CertificateSearchQuery();
+        query.setText("pizza dominos.com");
+
+        assertEquals(3L, giftCertificateService.getCertificates(query, 0, 20).getTotalElements());
+    }
+}
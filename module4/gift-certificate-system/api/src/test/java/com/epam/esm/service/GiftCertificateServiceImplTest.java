@@ -1,13 +1,33 @@
 package com.epam.esm.service;
 
 import com.epam.esm.dto.GiftCertificateDTO;
+import com.epam.esm.dto.ImportReportDTO;
+import com.epam.esm.dto.TagDTO;
+import com.epam.esm.exception.InvalidInputDataException;
+import com.epam.esm.repository.CertificateSearchQuery;
+import com.epam.esm.repository.GiftCertificateRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @TestPropertySource("classpath:test-application.properties")
@@ -16,6 +36,12 @@ class GiftCertificateServiceImplTest {
     @Autowired
     private GiftCertificateService giftCertificateService;
 
+    @Autowired
+    private GiftCertificateRepository giftCertificateRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     void shouldFindCertificateById() {
         GiftCertificateDTO certificate1 = giftCertificateService.findCertificateById(1L);
@@ -23,4 +49,182 @@ class GiftCertificateServiceImplTest {
         assertEquals(1L, certificate1.getId());
         assertEquals(2L, certificate2.getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetCertificatesPageWithFixedNumberOfQueries() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        giftCertificateService.getCertificates(new CertificateSearchQuery(), 0, 2);
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        giftCertificateService.getCertificates(new CertificateSearchQuery(), 0, 10);
+        long largePageStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(3L, smallPageStatements);
+        assertEquals(smallPageStatements, largePageStatements);
+    }
+
+    @Test
+    @Transactional
+    void shouldResolveTagsWithSingleLookup() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        GiftCertificateDTO certificate = giftCertificateService.saveCertificate(newCertificate("Bulk tags 1",
+                "Apple", "Music", "Bulk new tag 1"));
+        long fewTagsQueries = statistics.getQueryExecutionCount();
+
+        statistics.clear();
+        giftCertificateService.saveCertificate(newCertificate("Bulk tags 2",
+                "Apple", "Music", "Pizza", "Food", "Toys", "Bulk new tag 2", "Bulk new tag 3", "Bulk new tag 1"));
+        long manyTagsQueries = statistics.getQueryExecutionCount();
+
+        assertEquals(fewTagsQueries, manyTagsQueries);
+        assertEquals(3, certificate.getTags().size());
+        assertEquals(1L, certificate.getTags().get(0).getId());
+        assertNotNull(certificate.getTags().get(2).getId());
+    }
+
+    @Test
+    void shouldImportValidRowsAndReportRejectedOnes() {
+        GiftCertificateDTO invalidCertificate = newCertificate("Imported without price", "Apple");
+        invalidCertificate.setPrice(null);
+        List<GiftCertificateDTO> certificates = new ArrayList<>();
+        certificates.add(newCertificate("Imported certificate 1", "Apple", "Imported tag"));
+        certificates.add(invalidCertificate);
+        certificates.add(newCertificate("Apple Gift Card $25", "Apple"));
+        certificates.add(newCertificate("Imported certificate 2", "Imported tag"));
+        certificates.add(newCertificate("Imported certificate 1", "Music"));
+
+        ImportReportDTO report = giftCertificateService.importCertificates(certificates);
+
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getErrors().size());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertEquals(3, report.getErrors().get(1).getRow());
+        assertEquals(5, report.getErrors().get(2).getRow());
+
+        Long importedId = giftCertificateRepository.getCertificateByName("Imported certificate 1").get().getId();
+        GiftCertificateDTO imported = giftCertificateService.findCertificateById(importedId);
+        assertEquals(Arrays.asList("Apple", "Imported tag"), Arrays.asList(imported.getTags().get(0).getName(),
+                imported.getTags().get(1).getName()));
+        CertificateSearchQuery query = new CertificateSearchQuery();
+        query.setText("imported");
+        assertEquals(2L, giftCertificateService.getCertificates(query, 0, 20).getTotalElements());
+    }
+
+    @Test
+    void shouldExportAllCertificatesWithTags() {
+        List<GiftCertificateDTO> exported = new ArrayList<>();
+        giftCertificateService.exportCertificates(exported::add);
+
+        assertEquals(giftCertificateRepository.count(), exported.size());
+        assertEquals(giftCertificateService.findCertificateById(1L).getTags().size(), exported.get(0).getTags().size());
+    }
+
+    @Test
+    void shouldFindCertificatesByTextWithNameMatchesFirst() {
+        CertificateSearchQuery query = new CertificateSearchQuery();
+        query.setText("apple card");
+
+        Page<GiftCertificateDTO> certificates = giftCertificateService.getCertificates(query, 0, 20);
+
+        assertTrue(certificates.getTotalElements() > 0);
+        assertTrue(certificates.getContent().get(0).getName().startsWith("Apple Gift Card"));
+    }
+
+    @Test
+    void shouldRejectBlankSearchText() {
+        CertificateSearchQuery query = new CertificateSearchQuery();
+        query.setText(" ");
+
+        assertThrows(InvalidInputDataException.class, () -> giftCertificateService.getCertificates(query, 0, 20));
+        assertThrows(InvalidInputDataException.class, () -> giftCertificateService.getCertificatesSlice(query, 0, 20));
+    }
+
+    @Test
+    void shouldFindSavedCertificateByText() {
+        GiftCertificateDTO certificate = giftCertificateService.saveCertificate(newCertificate("Searchable certificate", "Apple"));
+        CertificateSearchQuery query = new CertificateSearchQuery();
+        query.setText("searchable");
+
+        Page<GiftCertificateDTO> certificates = giftCertificateService.getCertificates(query, 0, 20);
+
+        assertEquals(1L, certificates.getTotalElements());
+        assertEquals(certificate.getId(), certificates.getContent().get(0).getId());
+    }
+
+    @Test
+    void shouldFindCertificatesByTagsFromIndex() {
+        GiftCertificateDTO certificate = giftCertificateService.saveCertificate(newCertificate("Tagged by Apple and Music",
+                "Apple", "Music"));
+        List<String> tagNames = Arrays.asList("Apple", "Music");
+        List<Long> expectedIds = new ArrayList<>();
+        giftCertificateRepository.getGiftCertificatesByTagsNames(tagNames, tagNames.size(), PageRequest.of(0, 100))
+                .forEach(expected -> expectedIds.add(expected.getId()));
+        expectedIds.sort(Comparator.naturalOrder());
+
+        Page<GiftCertificateDTO> certificates = giftCertificateService.findCertificatesByTags(tagNames, 0, 100);
+        List<Long> ids = new ArrayList<>();
+        certificates.forEach(found -> ids.add(found.getId()));
+
+        assertEquals(expectedIds, ids);
+        assertTrue(ids.contains(certificate.getId()));
+        assertEquals(0, giftCertificateService.findCertificatesByTags(Arrays.asList("Apple", "Unknown tag"), 0, 100)
+                .getTotalElements());
+    }
+
+    @Test
+    void shouldFindCertificatesByAnyTagFromIndex() {
+        GiftCertificateDTO certificate = giftCertificateService.saveCertificate(newCertificate("Tagged by Any tag",
+                "Any tag"));
+        List<String> tagNames = Arrays.asList("Music", "Any tag", "Unknown tag");
+        List<Long> expectedIds = new ArrayList<>();
+        giftCertificateRepository.getGiftCertificatesByAnyTagName(tagNames, PageRequest.of(0, 100))
+                .forEach(expected -> expectedIds.add(expected.getId()));
+        expectedIds.sort(Comparator.naturalOrder());
+
+        Page<GiftCertificateDTO> certificates = giftCertificateService.findCertificatesByAnyTag(tagNames, 0, 100);
+        List<Long> ids = new ArrayList<>();
+        certificates.forEach(found -> ids.add(found.getId()));
+
+        assertEquals(expectedIds, ids);
+        assertEquals(expectedIds.size(), certificates.getTotalElements());
+        assertTrue(ids.contains(certificate.getId()));
+        assertTrue(ids.size() > 1);
+    }
+
+    @Test
+    void shouldReadCertificateFromSecondLevelCacheAndRefreshItOnUpdate() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        GiftCertificateDTO certificate = giftCertificateService.saveCertificate(newCertificate("Cached certificate", "Apple"));
+
+        giftCertificateService.findCertificateById(certificate.getId());
+        statistics.clear();
+        giftCertificateService.findCertificateById(certificate.getId());
+
+        assertEquals(0L, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+
+        certificate.setName("Cached certificate updated");
+        giftCertificateService.updateCertificate(certificate);
+
+        assertEquals("Cached certificate updated", giftCertificateService.findCertificateById(certificate.getId()).getName());
+    }
+
+    private GiftCertificateDTO newCertificate(String name, String... tagNames) {
+        List<TagDTO> tags = new ArrayList<>();
+        for (String tagName : tagNames) {
+            tags.add(TagDTO.builder().name(tagName).build());
+        }
+        return GiftCertificateDTO.builder()
+                .name(name)
+                .description("Certificate with several tags")
+                .price(BigDecimal.TEN)
+                .duration(10)
+                .tags(tags)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.epam.esm.service;
+
+import com.epam.esm.converter.OrderConverter;
+import com.epam.esm.dto.OrderDTO;
+import com.epam.esm.exception.InvalidInputDataException;
+import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.OrderRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyStore idempotencyStore;
+    private AtomicInteger placedOrders;
+
+    @BeforeEach
+    void setUp() {
+        this.idempotencyStore = new IdempotencyStore(mock(OrderRequestRepository.class), mock(OrderRepository.class),
+                mock(OrderConverter.class), mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(idempotencyStore, "cacheSize", 2);
+        ReflectionTestUtils.setField(idempotencyStore, "ttl", 60L);
+        idempotencyStore.start();
+        this.placedOrders = new AtomicInteger();
+    }
+
+    @Test
+    void shouldPlaceOrderOncePerKey() {
+        OrderDTO first = idempotencyStore.computeIfAbsent(1L, 2L, "key", this::placeOrder);
+        OrderDTO second = idempotencyStore.computeIfAbsent(1L, 2L, "key", this::placeOrder);
+
+        assertEquals(1, placedOrders.get());
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(2L, idempotencyStore.computeIfAbsent(2L, 2L, "key", this::placeOrder).getId());
+    }
+
+    @Test
+    void shouldRejectKeyOfAnotherCertificate() {
+        idempotencyStore.computeIfAbsent(1L, 2L, "key", this::placeOrder);
+
+        assertThrows(InvalidInputDataException.class,
+                () -> idempotencyStore.computeIfAbsent(1L, 3L, "key", this::placeOrder));
+    }
+
+    @Test
+    void shouldForgetLeastRecentlyUsedKeys() {
+        idempotencyStore.computeIfAbsent(1L, 2L, "first", this::placeOrder);
+        idempotencyStore.computeIfAbsent(1L, 2L, "second", this::placeOrder);
+        idempotencyStore.computeIfAbsent(1L, 2L, "first", this::placeOrder);
+        idempotencyStore.computeIfAbsent(1L, 2L, "third", this::placeOrder);
+
+        assertEquals(1L, idempotencyStore.computeIfAbsent(1L, 2L, "first", this::placeOrder).getId());
+        assertEquals(4L, idempotencyStore.computeIfAbsent(1L, 2L, "second", this::placeOrder).getId());
+    }
+
+    private OrderDTO placeOrder() {
+        return OrderDTO.builder()
+                .id((long) placedOrders.incrementAndGet())
+                .cost(BigDecimal.TEN)
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.epam.esm.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldKeepAppendedLinesUntilCompacted() {
+        Path path = directory.resolve("orders.journal");
+        try (OrderJournal journal = new OrderJournal(path, Long.MAX_VALUE)) {
+            journal.append(1L, "first");
+            journal.append(2L, "second");
+            assertEquals(Arrays.asList("first", "second"), OrderJournal.read(path));
+
+            journal.remove(Arrays.asList(1L, 2L));
+            assertEquals(0, journal.pending());
+            assertEquals(2, OrderJournal.read(path).size());
+
+            journal.compact();
+            assertTrue(OrderJournal.read(path).isEmpty());
+        }
+    }
+
+    @Test
+    void shouldRewritePendingLinesWhenJournalGrows() {
+        Path path = directory.resolve("orders.journal");
+        try (OrderJournal journal = new OrderJournal(path, 10)) {
+            journal.append(1L, "first");
+            journal.append(2L, "second");
+            journal.append(3L, "third");
+            journal.remove(Collections.singletonList(2L));
+            journal.compact();
+            assertEquals(Arrays.asList("first", "third"), OrderJournal.read(path));
+
+            journal.append(4L, "fourth");
+            assertEquals(Arrays.asList("first", "third", "fourth"), OrderJournal.read(path));
+        }
+    }
+
+    @Test
+    void shouldKeepLinesAppendedConcurrently() throws InterruptedException {
+        Path path = directory.resolve("orders.journal");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (OrderJournal journal = new OrderJournal(path, Long.MAX_VALUE)) {
+            LongStream.rangeClosed(1, 200).forEach(id -> executor.execute(() -> journal.append(id, "order " + id)));
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            assertEquals(200, journal.pending());
+            assertEquals(200, OrderJournal.read(path).stream().distinct().count());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.epam.esm.service;
 
 import com.epam.esm.dto.OrderDTO;
+import com.epam.esm.dto.PageCursor;
 import com.epam.esm.model.Order;
 import com.epam.esm.model.User;
 import com.epam.esm.repository.GiftCertificateRepository;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.TestPropertySource;
 
 
@@ -39,4 +41,17 @@ class OrderServiceImplTest {
         OrderDTO order = orderService.makeOrder(1L, 2L);
         assertEquals(6L, order.getId());
     }
+
+    @Test
+    void shouldGetUserOrdersAfterCursor() {
+        Slice<OrderDTO> firstSlice = orderService.getUserOrdersAfter(2L, null, 2);
+        assertEquals(2L, firstSlice.getContent().get(0).getId());
+        assertEquals(3L, firstSlice.getContent().get(1).getId());
+        assertTrue(firstSlice.hasNext());
+
+        Slice<OrderDTO> secondSlice = orderService.getUserOrdersAfter(2L, PageCursor.of(3L, 3L), 2);
+        assertEquals(4L, secondSlice.getContent().get(0).getId());
+        assertEquals(5L, secondSlice.getContent().get(1).getId());
+        assertFalse(secondSlice.hasNext());
+    }
 }
\ No newline at end of file
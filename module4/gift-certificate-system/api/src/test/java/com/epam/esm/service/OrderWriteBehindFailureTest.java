@@ -0,0 +1,98 @@
+package com.epam.esm.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:test-application.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind-failure;MODE=MySQL",
+        "orders.write-behind.enabled=true",
+        "orders.write-behind.insert-attempts=3"})
+class OrderWriteBehindFailureTest {
+
+    private static final String SQL_INSERT_ORDER = "INSERT INTO orders";
+    private static final String SQL_COUNT_ORDERS = "SELECT COUNT(*) FROM orders WHERE order_id = ?";
+    private static final Path JOURNAL = emptyJournal();
+
+    @Autowired
+    private OrderService orderService;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("orders.write-behind.journal", JOURNAL::toString);
+    }
+
+    private static Path emptyJournal() {
+        try {
+            return Files.createTempDirectory("write-behind-failure").resolve("orders.journal");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    void shouldKeepOrderInJournalWithoutRetryingPersistentError() throws InterruptedException {
+        doThrow(new BadSqlGrammarException("insert", SQL_INSERT_ORDER, new SQLException("Access denied")))
+                .when(jdbcTemplate).batchUpdate(startsWith(SQL_INSERT_ORDER), anyList());
+
+        Long failedId = orderService.makeOrder(1L, 1L).getId();
+
+        verify(jdbcTemplate, timeout(5000)).batchUpdate(startsWith(SQL_INSERT_ORDER), anyList());
+        TimeUnit.MILLISECONDS.sleep(1500);
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith(SQL_INSERT_ORDER), anyList());
+        assertTrue(OrderJournal.read(JOURNAL).stream().anyMatch(line -> line.startsWith(failedId + "\t")));
+
+        reset(jdbcTemplate);
+        Long nextId = orderService.makeOrder(1L, 1L).getId();
+        awaitInserted(nextId);
+        assertEquals(0, jdbcTemplate.queryForObject(SQL_COUNT_ORDERS, Integer.class, failedId));
+    }
+
+    @Test
+    void shouldRetryTransientError() throws InterruptedException {
+        doThrow(new TransientDataAccessResourceException("Connection refused"))
+                .doCallRealMethod()
+                .when(jdbcTemplate).batchUpdate(startsWith(SQL_INSERT_ORDER), anyList());
+
+        Long id = orderService.makeOrder(1L, 1L).getId();
+
+        awaitInserted(id);
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith(SQL_INSERT_ORDER), anyList());
+    }
+
+    private void awaitInserted(Long id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbcTemplate.queryForObject(SQL_COUNT_ORDERS, Integer.class, id) == 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(1, jdbcTemplate.queryForObject(SQL_COUNT_ORDERS, Integer.class, id));
+    }
+}
@@ -0,0 +1,105 @@
+package com.epam.esm.service;
+
+import com.epam.esm.exception.OrderQueueFullException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:test-application.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind;MODE=MySQL",
+        "orders.write-behind.enabled=true",
+        "orders.write-behind.queue-capacity=1",
+        "orders.write-behind.offer-timeout=100"})
+class OrderWriteBehindTest {
+
+    private static final String SQL_SELECT_COST = "SELECT cost FROM orders WHERE order_id = ?";
+    private static final String SQL_COUNT_ORDERS = "SELECT COUNT(*) FROM orders WHERE order_id = ?";
+    private static final Path JOURNAL = journalLeftByCrash();
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private TotalCountProvider totalCountProvider;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("orders.write-behind.journal", JOURNAL::toString);
+    }
+
+    /**
+     * Order 5 was inserted before the crash, 6 and 7 were not, the user of order 8 is gone.
+     */
+    private static Path journalLeftByCrash() {
+        try {
+            Path journal = Files.createTempDirectory("write-behind").resolve("orders.journal");
+            Files.write(journal, Arrays.asList(
+                    "5\t2\t1\t999.00\t2020-11-01T10:00Z\t1604224800000\t",
+                    "6\t1\t2\t20.00\t2020-11-01T10:00Z\t1604224800000\tuser",
+                    "7\t2\t1\t30.00\t2020-11-01T10:00Z\t1604224800000\t",
+                    "8\t999\t1\t40.00\t2020-11-01T10:00Z\t1604224800000\t"), StandardCharsets.UTF_8);
+            return journal;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    void shouldInsertOrdersMissingAfterCrash() {
+        assertTrue(jdbcTemplate.queryForObject(SQL_SELECT_COST, Double.class, 5L) < 999);
+        assertEquals(20.0, jdbcTemplate.queryForObject(SQL_SELECT_COST, Double.class, 6L));
+        assertEquals(30.0, jdbcTemplate.queryForObject(SQL_SELECT_COST, Double.class, 7L));
+        assertEquals(0, jdbcTemplate.queryForObject(SQL_COUNT_ORDERS, Integer.class, 8L));
+        assertTrue(OrderJournal.read(JOURNAL).isEmpty());
+    }
+
+    @Test
+    void shouldRejectOrdersWhileQueueIsFull() throws InterruptedException {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch writerReleased = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writerBlocked.countDown();
+            writerReleased.await(10, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(totalCountProvider).orderAdded(any());
+        try {
+            assertEquals(8L, orderService.makeOrder(1L, 1L).getId());
+            assertTrue(writerBlocked.await(10, TimeUnit.SECONDS));
+            assertEquals(9L, orderService.makeOrder(1L, 1L).getId());
+
+            assertThrows(OrderQueueFullException.class, () -> orderService.makeOrder(1L, 1L));
+        } finally {
+            writerReleased.countDown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbcTemplate.queryForObject(SQL_COUNT_ORDERS, Integer.class, 9L) == 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(1, jdbcTemplate.queryForObject(SQL_COUNT_ORDERS, Integer.class, 9L));
+        assertEquals(10L, orderService.makeOrder(1L, 1L).getId());
+    }
+}
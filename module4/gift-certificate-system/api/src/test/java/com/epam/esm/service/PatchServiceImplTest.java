@@ -0,0 +1,78 @@
+package com.epam.esm.service;
+
+import com.epam.esm.dto.GiftCertificateDTO;
+import com.epam.esm.dto.TagDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonpatch.JsonPatchException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PatchServiceImplTest {
+
+    private PatchService patchService;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        this.patchService = new PatchServiceImpl();
+        this.objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    void shouldReplaceTopLevelPropertiesAndTags() throws IOException, JsonPatchException {
+        GiftCertificateDTO certificate = certificate();
+        JsonNode patch = objectMapper.readTree("["
+                + "{\"op\":\"replace\",\"path\":\"/price\",\"value\":25.50},"
+                + "{\"op\":\"add\",\"path\":\"/tags\",\"value\":[{\"name\":\"spa\"}]}]");
+
+        GiftCertificateDTO patched = patchService.applyPatch(patch, certificate, GiftCertificateDTO.class);
+
+        assertEquals(0, new BigDecimal("25.50").compareTo(patched.getPrice()));
+        assertEquals("Massage", patched.getName());
+        assertEquals(1, patched.getTags().size());
+        assertEquals("spa", patched.getTags().get(0).getName());
+    }
+
+    @Test
+    void shouldApplyOtherOperationsToJsonTree() throws IOException, JsonPatchException {
+        GiftCertificateDTO certificate = certificate();
+        JsonNode patch = objectMapper.readTree("["
+                + "{\"op\":\"remove\",\"path\":\"/tags/0\"},"
+                + "{\"op\":\"replace\",\"path\":\"/tags/0/name\",\"value\":\"relax\"},"
+                + "{\"op\":\"copy\",\"from\":\"/name\",\"path\":\"/description\"}]");
+
+        GiftCertificateDTO patched = patchService.applyPatch(patch, certificate, GiftCertificateDTO.class);
+
+        assertEquals(1, patched.getTags().size());
+        assertEquals("relax", patched.getTags().get(0).getName());
+        assertEquals("Massage", patched.getDescription());
+    }
+
+    @Test
+    void shouldRejectReplacingMissingProperty() throws IOException {
+        JsonNode patch = objectMapper.readTree("[{\"op\":\"replace\",\"path\":\"/unknown\",\"value\":1}]");
+
+        assertThrows(JsonPatchException.class,
+                () -> patchService.applyPatch(patch, certificate(), GiftCertificateDTO.class));
+    }
+
+    private GiftCertificateDTO certificate() {
+        return GiftCertificateDTO.builder()
+                .id(1L)
+                .name("Massage")
+                .description("Relax massage")
+                .price(new BigDecimal("20.00"))
+                .duration(30)
+                .tags(new ArrayList<>(Arrays.asList(new TagDTO(1L, "health"), new TagDTO(2L, "beauty"))))
+                .build();
+    }
+}
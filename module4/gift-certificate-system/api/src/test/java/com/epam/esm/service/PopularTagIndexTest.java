@@ -0,0 +1,76 @@
+package com.epam.esm.service;
+
+import com.epam.esm.repository.GiftCertificateRepository;
+import com.epam.esm.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PopularTagIndexTest {
+
+    private PopularTagIndex popularTagIndex;
+    private OrderRepository orderRepository;
+    private GiftCertificateRepository giftCertificateRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.orderRepository = mock(OrderRepository.class);
+        this.giftCertificateRepository = mock(GiftCertificateRepository.class);
+        this.popularTagIndex = new PopularTagIndex(orderRepository, giftCertificateRepository);
+        when(giftCertificateRepository.streamTagAssignments()).thenReturn(Stream.of(
+                new Object[]{1L, 1L}, new Object[]{2L, 1L}, new Object[]{2L, 2L}, new Object[]{3L, 3L}));
+        when(orderRepository.streamOrderTotals()).thenReturn(Stream.of(
+                new Object[]{1L, 1L, 2L, new BigDecimal("20")},
+                new Object[]{1L, 2L, 1L, new BigDecimal("5")},
+                new Object[]{2L, 3L, 1L, new BigDecimal("30")}));
+    }
+
+    @Test
+    void shouldFindTagOfTopSpenderAfterRebuild() {
+        assertFalse(popularTagIndex.isReady());
+        popularTagIndex.rebuild();
+
+        assertTrue(popularTagIndex.isReady());
+        assertEquals(Optional.of(3L), popularTagIndex.findPopularTagId());
+    }
+
+    @Test
+    void shouldFollowAddedAndRemovedOrders() {
+        popularTagIndex.rebuild();
+
+        popularTagIndex.orderAdded(1L, 2L, new BigDecimal("5"));
+        assertEquals(Optional.of(2L), popularTagIndex.findPopularTagId());
+
+        popularTagIndex.orderRemoved(1L, 1L, new BigDecimal("10"));
+        assertEquals(Optional.of(3L), popularTagIndex.findPopularTagId());
+    }
+
+    @Test
+    void shouldFollowChangedTagsOfCertificates() {
+        popularTagIndex.rebuild();
+
+        popularTagIndex.certificateSaved(3L, Arrays.asList(4L, 5L));
+        assertEquals(Optional.of(4L), popularTagIndex.findPopularTagId());
+
+        popularTagIndex.tagRemoved(4L);
+        assertEquals(Optional.of(5L), popularTagIndex.findPopularTagId());
+
+        popularTagIndex.certificateRemoved(3L);
+        assertEquals(Optional.empty(), popularTagIndex.findPopularTagId());
+
+        popularTagIndex.certificateSaved(6L, Collections.singletonList(1L));
+        popularTagIndex.orderAdded(2L, 6L, new BigDecimal("1"));
+        assertEquals(Optional.of(1L), popularTagIndex.findPopularTagId());
+    }
+}
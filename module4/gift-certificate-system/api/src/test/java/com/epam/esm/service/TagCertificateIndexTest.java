@@ -0,0 +1,64 @@
+package com.epam.esm.service;
+
+import com.epam.esm.repository.GiftCertificateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TagCertificateIndexTest {
+
+    private TagCertificateIndex tagIndex;
+    private GiftCertificateRepository giftCertificateRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.giftCertificateRepository = mock(GiftCertificateRepository.class);
+        this.tagIndex = new TagCertificateIndex(giftCertificateRepository);
+        when(giftCertificateRepository.streamTagAssignments()).thenReturn(Stream.of(
+                new Object[]{1L, 1L}, new Object[]{2L, 1L}, new Object[]{2L, 2L}, new Object[]{3L, 3L}));
+    }
+
+    @Test
+    void shouldFindCertificatesWithAllOrAnyTags() {
+        tagIndex.rebuild();
+
+        assertTrue(tagIndex.isReady());
+        assertEquals(RoaringBitmap.bitmapOf(1), tagIndex.findCertificatesWithAllTags(Arrays.asList(1L, 2L)));
+        assertEquals(RoaringBitmap.bitmapOf(1, 2), tagIndex.findCertificatesWithAnyTag(Arrays.asList(1L, 2L)));
+        assertEquals(RoaringBitmap.bitmapOf(1, 2, 3), tagIndex.findCertificatesWithAnyTag(Arrays.asList(2L, 3L, 4L)));
+        assertTrue(tagIndex.findCertificatesWithAllTags(Arrays.asList(2L, 4L)).isEmpty());
+    }
+
+    @Test
+    void shouldTurnOffWhenCertificateIdDoesNotFitBitmap() {
+        tagIndex.rebuild();
+
+        tagIndex.certificateSaved(Integer.MAX_VALUE + 1L, Collections.singletonList(1L));
+        tagIndex.certificateRemoved(Integer.MAX_VALUE + 1L);
+
+        assertFalse(tagIndex.isReady());
+        when(giftCertificateRepository.streamTagAssignments()).thenReturn(Stream.<Object[]>of(new Object[]{1L, 1L}));
+        tagIndex.rebuild();
+        assertTrue(tagIndex.isReady());
+    }
+
+    @Test
+    void shouldStayOffAfterRebuildWithCertificateIdAboveIntRange() {
+        when(giftCertificateRepository.streamTagAssignments()).thenReturn(Stream.of(
+                new Object[]{1L, 1L}, new Object[]{1L, Integer.MAX_VALUE + 1L}));
+
+        tagIndex.rebuild();
+
+        assertFalse(tagIndex.isReady());
+    }
+}
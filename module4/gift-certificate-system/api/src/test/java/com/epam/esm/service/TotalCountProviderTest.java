@@ -0,0 +1,81 @@
+package com.epam.esm.service;
+
+import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TotalCountProviderTest {
+
+    private TotalCountProvider totalCountProvider;
+    private OrderRepository orderRepository;
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.orderRepository = mock(OrderRepository.class);
+        this.userRepository = mock(UserRepository.class);
+        this.totalCountProvider = new TotalCountProvider(orderRepository, userRepository, 10, 60);
+    }
+
+    @Test
+    void shouldCountOrdersOnceAndFollowWrites() {
+        when(orderRepository.count()).thenReturn(5L);
+        when(orderRepository.countByUserId(2L)).thenReturn(4L);
+
+        assertEquals(5L, totalCountProvider.countOrders());
+        assertEquals(4L, totalCountProvider.countUserOrders(2L));
+
+        totalCountProvider.orderAdded(2L);
+        totalCountProvider.orderAdded(2L);
+        totalCountProvider.orderRemoved(2L);
+
+        assertEquals(6L, totalCountProvider.countOrders());
+        assertEquals(5L, totalCountProvider.countUserOrders(2L));
+        Mockito.verify(orderRepository, Mockito.times(1)).count();
+        Mockito.verify(orderRepository, Mockito.times(1)).countByUserId(2L);
+    }
+
+    @Test
+    void shouldLoadUsersCountAfterWritesOnFirstUse() {
+        totalCountProvider.userAdded();
+        when(userRepository.count()).thenReturn(3L);
+
+        assertEquals(3L, totalCountProvider.countUsers());
+        totalCountProvider.userAdded();
+        assertEquals(4L, totalCountProvider.countUsers());
+    }
+
+    @Test
+    void shouldDropLeastRecentlyUsedUserCounter() {
+        totalCountProvider = new TotalCountProvider(orderRepository, userRepository, 2, 60);
+        when(orderRepository.countByUserId(1L)).thenReturn(1L);
+        when(orderRepository.countByUserId(2L)).thenReturn(2L);
+        when(orderRepository.countByUserId(3L)).thenReturn(3L);
+
+        totalCountProvider.countUserOrders(1L);
+        totalCountProvider.countUserOrders(2L);
+        totalCountProvider.countUserOrders(1L);
+        totalCountProvider.countUserOrders(3L);
+        totalCountProvider.countUserOrders(1L);
+        totalCountProvider.countUserOrders(2L);
+
+        Mockito.verify(orderRepository, Mockito.times(1)).countByUserId(1L);
+        Mockito.verify(orderRepository, Mockito.times(2)).countByUserId(2L);
+    }
+
+    @Test
+    void shouldLoadCountAgainAfterTtl() {
+        totalCountProvider = new TotalCountProvider(orderRepository, userRepository, 10, 0);
+        when(orderRepository.count()).thenReturn(5L, 7L);
+
+        assertEquals(5L, totalCountProvider.countOrders());
+        assertEquals(7L, totalCountProvider.countOrders());
+        Mockito.verify(orderRepository, Mockito.times(2)).count();
+    }
+}
@@ -0,0 +1,108 @@
+package com.epam.esm.benchmark;
+
+import com.epam.esm.converter.GiftCertificateConverter;
+import com.epam.esm.converter.OrderConverter;
+import com.epam.esm.converter.RoleConverter;
+import com.epam.esm.converter.TagConverter;
+import com.epam.esm.converter.UserConverter;
+import com.epam.esm.dto.GiftCertificateDTO;
+import com.epam.esm.dto.OrderDTO;
+import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.model.Order;
+import com.epam.esm.model.Role;
+import com.epam.esm.model.Tag;
+import com.epam.esm.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Mapping of certificates and orders between entities and DTOs, done for every item of every page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConverterBenchmark {
+
+    @Param({"1", "10"})
+    private int tagsPerCertificate;
+
+    private GiftCertificateConverter giftCertificateConverter;
+    private OrderConverter orderConverter;
+    private GiftCertificate certificate;
+    private GiftCertificateDTO certificateDTO;
+    private Order order;
+    private OrderDTO orderDTO;
+
+    @Setup
+    public void setUp() {
+        giftCertificateConverter = new GiftCertificateConverter(new TagConverter());
+        orderConverter = new OrderConverter(giftCertificateConverter, new UserConverter(new RoleConverter()));
+
+        List<Tag> tags = new ArrayList<>();
+        for (long i = 1; i <= tagsPerCertificate; i++) {
+            tags.add(Tag.builder().id(i).name("tag " + i).build());
+        }
+        ZonedDateTime now = ZonedDateTime.now();
+        certificate = GiftCertificate.builder()
+                .id(1L)
+                .name("Spa day")
+                .description("A day in the spa for two persons")
+                .price(new BigDecimal("120.00"))
+                .createDate(now)
+                .lastUpdateDate(now)
+                .duration(30)
+                .tags(tags)
+                .build();
+        User user = User.builder()
+                .id(1L)
+                .username("petrov@mail.com")
+                .firstName("Ivan")
+                .lastName("Petrov")
+                .roles(Collections.singleton(Role.builder().id(1L).name("ROLE_USER").build()))
+                .build();
+        order = Order.builder()
+                .id(1L)
+                .cost(certificate.getPrice())
+                .orderDate(now)
+                .user(user)
+                .giftCertificate(certificate)
+                .build();
+        certificateDTO = giftCertificateConverter.convertFromEntity(certificate);
+        orderDTO = orderConverter.convertFromEntity(order);
+    }
+
+    @Benchmark
+    public GiftCertificateDTO certificateToDTO() {
+        return giftCertificateConverter.convertFromEntity(certificate);
+    }
+
+    @Benchmark
+    public GiftCertificate certificateFromDTO() {
+        return giftCertificateConverter.convertFromDTO(certificateDTO);
+    }
+
+    @Benchmark
+    public OrderDTO orderToDTO() {
+        return orderConverter.convertFromEntity(order);
+    }
+
+    @Benchmark
+    public Order orderFromDTO() {
+        return orderConverter.convertFromDTO(orderDTO);
+    }
+}
@@ -0,0 +1,68 @@
+package com.epam.esm.benchmark;
+
+import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.validator.GiftCertificateValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Validation of a certificate on create and update, with and without rejected fields.
+ * Rejecting a field resolves its property path, which is the expensive part.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GiftCertificateValidatorBenchmark {
+
+    private final GiftCertificateValidator validator = new GiftCertificateValidator();
+    private GiftCertificate validCertificate;
+    private GiftCertificate invalidCertificate;
+
+    @Setup
+    public void setUp() {
+        ZonedDateTime now = ZonedDateTime.now();
+        validCertificate = GiftCertificate.builder()
+                .name("Spa day")
+                .description("A day in the spa for two persons")
+                .price(new BigDecimal("120.00"))
+                .createDate(now)
+                .lastUpdateDate(now)
+                .duration(30)
+                .build();
+        invalidCertificate = GiftCertificate.builder()
+                .name("")
+                .price(new BigDecimal("-1"))
+                .createDate(now)
+                .lastUpdateDate(now.minusDays(1))
+                .build();
+    }
+
+    @Benchmark
+    public Errors validCertificate() {
+        return validate(validCertificate);
+    }
+
+    @Benchmark
+    public Errors invalidCertificate() {
+        return validate(invalidCertificate);
+    }
+
+    private Errors validate(GiftCertificate certificate) {
+        Errors errors = new BeanPropertyBindingResult(certificate, "giftCertificate");
+        validator.validate(certificate, errors);
+        return errors;
+    }
+}
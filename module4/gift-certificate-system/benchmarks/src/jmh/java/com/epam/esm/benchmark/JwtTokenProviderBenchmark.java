@@ -0,0 +1,75 @@
+package com.epam.esm.benchmark;
+
+import com.epam.esm.model.Role;
+import com.epam.esm.model.User;
+import com.epam.esm.security.JwtTokenProvider;
+import com.epam.esm.security.UserDetailsEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Token issue on login and token checks done by the filters on every request. With a cache size of 0
+ * every check verifies the signature, which shows what the verified token cache saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark-secret";
+    private static final long TOKEN_VALIDITY_SECONDS = 3600L;
+
+    @Param({"0", "10000"})
+    private int verifiedTokensCacheSize;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtTokenValidity", TOKEN_VALIDITY_SECONDS);
+        ReflectionTestUtils.setField(jwtTokenProvider, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenProvider, "verifiedTokensCacheSize", verifiedTokensCacheSize);
+        ReflectionTestUtils.setField(jwtTokenProvider, "stateless", true);
+        ReflectionTestUtils.invokeMethod(jwtTokenProvider, "init");
+
+        User user = User.builder()
+                .id(1L)
+                .username("petrov@mail.com")
+                .roles(Collections.singleton(Role.builder().name("ROLE_USER").build()))
+                .build();
+        userDetails = new UserDetailsEntity(user);
+        token = jwtTokenProvider.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return jwtTokenProvider.getAuthentication(token);
+    }
+}
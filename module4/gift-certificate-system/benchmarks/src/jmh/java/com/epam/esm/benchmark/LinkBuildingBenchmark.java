@@ -0,0 +1,72 @@
+package com.epam.esm.benchmark;
+
+import com.epam.esm.controller.GiftCertificateController;
+import com.epam.esm.controller.LinkFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Self links of one page of certificates, built through <i>methodOn</i> proxies and through
+ * <i>LinkFactory</i>. Every operation is a new request, as the factory resolves the base URI once per request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LinkBuildingBenchmark {
+
+    @Param({"1", "20"})
+    private int pageSize;
+
+    private final LinkFactory linkFactory = new LinkFactory();
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<Link> methodOnLinks() {
+        startRequest();
+        List<Link> links = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            links.add(linkTo(methodOn(GiftCertificateController.class).findCertificateById(id)).withSelfRel());
+        }
+        return links;
+    }
+
+    @Benchmark
+    public List<Link> linkFactoryLinks() {
+        startRequest();
+        List<Link> links = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            links.add(linkFactory.certificateLink(id));
+        }
+        return links;
+    }
+
+    private void startRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/certificates");
+        request.setServerName("example.com");
+        request.setServerPort(5000);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,290 @@
+package com.epam.esm.loadtest;
+
+import com.epam.esm.App;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Drives HTTP load against the api, one endpoint after another, and reports the median and the 99th
+ * percentile of the response time and the throughput of every endpoint. Without <i>loadtest.base-url</i>
+ * the api is started in this JVM with the "loadtest" profile: an in-memory H2 database in MySQL mode filled by
+ * <i>LoadTestDataGenerator</i>. With it, the load goes to a running instance, which must hold the same data.
+ * <p>
+ * Settings are read from system properties: <i>loadtest.threads</i>, <i>loadtest.warmup</i> and
+ * <i>loadtest.duration</i> in seconds per endpoint, <i>loadtest.report</i> for the JSON report, and the
+ * data sizes of <i>LoadTestDataGenerator</i>.
+ */
+public class LoadDriver {
+
+    private static final String TOKEN_PATH = "/api/token";
+    private static final int PAGE_SIZE = 10;
+
+    private final String baseUrl;
+    private final int threads = Integer.getInteger("loadtest.threads", 8);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup", 5);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration", 20);
+    private final int users = Integer.getInteger("loadtest.users", 1000);
+    private final int certificates = Integer.getInteger("loadtest.certificates", 10000);
+    private final int tags = Integer.getInteger("loadtest.tags", 500);
+    private final int orders = Integer.getInteger("loadtest.orders", 50000);
+    private final double zipfExponent = Double.parseDouble(System.getProperty("loadtest.zipf-exponent", "1.0"));
+    private final String password = System.getProperty("loadtest.password", "password");
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private LoadDriver(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.base-url");
+        ConfigurableApplicationContext context = null;
+        if (baseUrl == null) {
+            context = new SpringApplicationBuilder(App.class).profiles("loadtest").run(args);
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            new LoadDriver(baseUrl).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        String adminToken = token(LoadTestDataGenerator.ADMIN_USERNAME);
+        ZipfDistribution tagDistribution = new ZipfDistribution(tags, zipfExponent);
+
+        List<Scenario> scenarios = Arrays.asList(
+                new Scenario("GET /api/certificates", random -> Request.get(
+                        "/api/certificates?page=" + page(random, certificates) + "&page_size=" + PAGE_SIZE, null)),
+                new Scenario("GET /api/certificates/search", random -> Request.get(
+                        "/api/certificates/search?tag_name=" + LoadTestDataGenerator.tagName(tagDistribution.sample(random))
+                                + "&tag_name=" + LoadTestDataGenerator.tagName(tagDistribution.sample(random))
+                                + "&page_size=" + PAGE_SIZE, null)),
+                new Scenario("GET /api/orders", random -> Request.get(
+                        "/api/orders?page=" + page(random, orders) + "&page_size=" + PAGE_SIZE, adminToken)),
+                new Scenario("GET /api/users/{id}/orders", random -> Request.get(
+                        "/api/users/" + (1 + random.nextInt(users)) + "/orders?page_size=" + PAGE_SIZE, adminToken)),
+                new Scenario("POST /api/token", random -> Request.post(TOKEN_PATH,
+                        credentials(LoadTestDataGenerator.username(2 + random.nextInt(Math.max(users - 1, 1)))))));
+
+        List<Result> results = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            measure(scenario, warmupSeconds);
+            Result result = measure(scenario, durationSeconds);
+            results.add(result);
+            System.out.println(result);
+        }
+        writeReport(results);
+    }
+
+    private Result measure(Scenario scenario, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                Random random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    Request request = scenario.requests.apply(random);
+                    long requestStart = System.nanoTime();
+                    int status = send(request);
+                    latencies.add(System.nanoTime() - requestStart);
+                    if (status >= 400) {
+                        errors.incrementAndGet();
+                    }
+                }
+                return latencies;
+            }));
+        }
+        List<Long> latencies = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            latencies.addAll(future.get());
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        return new Result(scenario.name, latencies, errors.get(), elapsed);
+    }
+
+    private int send(Request request) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + request.path).openConnection();
+            connection.setRequestMethod(request.method);
+            if (request.token != null) {
+                connection.setRequestProperty("Authorization", "Bearer " + request.token);
+            }
+            if (request.body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream outputStream = connection.getOutputStream()) {
+                    outputStream.write(request.body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            InputStream inputStream = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (inputStream != null) {
+                readFully(inputStream);
+            }
+            return status;
+        } catch (IOException e) {
+            return HttpURLConnection.HTTP_UNAVAILABLE;
+        }
+    }
+
+    private String token(String username) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + TOKEN_PATH).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            outputStream.write(credentials(username).getBytes(StandardCharsets.UTF_8));
+        }
+        return objectMapper.readTree(readFully(connection.getInputStream())).path("token").asText();
+    }
+
+    private String credentials(String username) {
+        ObjectNode credentials = objectMapper.createObjectNode();
+        credentials.put("username", username);
+        credentials.put("password", password);
+        return credentials.toString();
+    }
+
+    private int page(Random random, int items) {
+        return 1 + random.nextInt(Math.max(items / PAGE_SIZE, 1));
+    }
+
+    private void writeReport(List<Result> results) throws IOException {
+        String report = System.getProperty("loadtest.report");
+        if (report == null) {
+            return;
+        }
+        ArrayNode endpoints = objectMapper.createArrayNode();
+        for (Result result : results) {
+            endpoints.addObject()
+                    .put("endpoint", result.name)
+                    .put("requests", result.latencies.size())
+                    .put("errors", result.errors)
+                    .put("p50Millis", result.percentileMillis(50))
+                    .put("p99Millis", result.percentileMillis(99))
+                    .put("throughputPerSecond", result.throughput());
+        }
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("threads", threads);
+        root.put("durationSeconds", durationSeconds);
+        root.set("endpoints", endpoints);
+        File file = new File(report);
+        file.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, root);
+        System.out.println("Load test report is saved to " + file.getAbsolutePath());
+    }
+
+    private static byte[] readFully(InputStream inputStream) {
+        try (InputStream in = inputStream) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class Scenario {
+        private final String name;
+        private final Function<Random, Request> requests;
+
+        private Scenario(String name, Function<Random, Request> requests) {
+            this.name = name;
+            this.requests = requests;
+        }
+    }
+
+    private static class Request {
+        private final String method;
+        private final String path;
+        private final String body;
+        private final String token;
+
+        private Request(String method, String path, String body, String token) {
+            this.method = method;
+            this.path = path;
+            this.body = body;
+            this.token = token;
+        }
+
+        private static Request get(String path, String token) {
+            return new Request("GET", path, null, token);
+        }
+
+        private static Request post(String path, String body) {
+            return new Request("POST", path, body, null);
+        }
+    }
+
+    private static class Result {
+        private final String name;
+        private final List<Long> latencies;
+        private final long errors;
+        private final long elapsedNanos;
+
+        private Result(String name, List<Long> latencies, long errors, long elapsedNanos) {
+            this.name = name;
+            this.latencies = latencies;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            Collections.sort(latencies);
+        }
+
+        private double percentileMillis(int percentile) {
+            if (latencies.isEmpty()) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * latencies.size()) - 1;
+            return latencies.get(Math.max(index, 0)) / 1_000_000.0;
+        }
+
+        private double throughput() {
+            return latencies.size() / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-30s requests: %7d  errors: %5d  p50: %8.2f ms  p99: %8.2f ms  throughput: %8.1f/s",
+                    name, latencies.size(), errors, percentileMillis(50), percentileMillis(99), throughput());
+        }
+    }
+}
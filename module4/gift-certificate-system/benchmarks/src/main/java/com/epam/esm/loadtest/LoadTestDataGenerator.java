@@ -0,0 +1,188 @@
+package com.epam.esm.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Fills an empty database with <i>loadtest.users</i> users, <i>loadtest.certificates</i> certificates,
+ * <i>loadtest.tags</i> tags and <i>loadtest.orders</i> orders before the application starts serving requests.
+ * Tags of certificates and certificates of orders follow a Zipf distribution, the tag and the certificate
+ * with id 1 are the most popular ones. The first user is an admin, every user has the password
+ * <i>loadtest.password</i>. The same seed always generates the same data.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+public class LoadTestDataGenerator implements ApplicationRunner {
+
+    static final String ADMIN_USERNAME = "admin@mail.com";
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String SQL_INSERT_ROLE = "INSERT INTO user_role (user_role_id, name) VALUES (?, ?)";
+    private static final String SQL_INSERT_USER = "INSERT INTO users (user_id, username, first_name, last_name, email, " +
+            "password, address, date_of_birth) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_INSERT_USER_ROLE = "INSERT INTO users_has_user_role (user_id, user_role_id) VALUES (?, ?)";
+    private static final String SQL_INSERT_TAG = "INSERT INTO tag (tag_id, name) VALUES (?, ?)";
+    private static final String SQL_INSERT_CERTIFICATE = "INSERT INTO gift_certificate (certificate_id, name, description, " +
+            "price, create_date, last_update_date, duration) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_INSERT_TAG_TO_CERTIFICATE = "INSERT INTO tag_has_gift_certificate " +
+            "(tag_id, gift_certificate_id) VALUES (?, ?)";
+    private static final String SQL_INSERT_ORDER = "INSERT INTO orders (order_id, user_id, certificate_id, cost, order_date) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final long USER_ROLE_ID = 1L;
+    private static final long ADMIN_ROLE_ID = 2L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${loadtest.users:1000}")
+    private int users;
+    @Value("${loadtest.certificates:10000}")
+    private int certificates;
+    @Value("${loadtest.tags:500}")
+    private int tags;
+    @Value("${loadtest.tags-per-certificate:4}")
+    private int tagsPerCertificate;
+    @Value("${loadtest.orders:50000}")
+    private int orders;
+    @Value("${loadtest.zipf-exponent:1.0}")
+    private double zipfExponent;
+    @Value("${loadtest.password:password}")
+    private String password;
+    @Value("${loadtest.seed:42}")
+    private long seed;
+
+    @Autowired
+    public LoadTestDataGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        Random random = new Random(seed);
+        insertUsers();
+        insertTags();
+        insertCertificates(random);
+        insertOrders(random);
+        log.info("IN run - generated {} users, {} certificates, {} tags and {} orders in {} ms",
+                users, certificates, tags, orders, System.currentTimeMillis() - start);
+    }
+
+    private void insertUsers() {
+        jdbcTemplate.update(SQL_INSERT_ROLE, USER_ROLE_ID, "ROLE_USER");
+        jdbcTemplate.update(SQL_INSERT_ROLE, ADMIN_ROLE_ID, "ROLE_ADMIN");
+        String encodedPassword = passwordEncoder.encode(password);
+        Batch userRows = new Batch(SQL_INSERT_USER);
+        Batch roleRows = new Batch(SQL_INSERT_USER_ROLE);
+        for (long id = 1; id <= users; id++) {
+            String username = id == 1 ? ADMIN_USERNAME : username(id);
+            userRows.add(id, username, "First" + id, "Last" + id, username, encodedPassword, "Address " + id,
+                    Date.valueOf(LocalDate.of(1960, 1, 1).plusDays(id % 15000)));
+            roleRows.add(id, id == 1 ? ADMIN_ROLE_ID : USER_ROLE_ID);
+        }
+        userRows.flush();
+        roleRows.flush();
+    }
+
+    private void insertTags() {
+        Batch tagRows = new Batch(SQL_INSERT_TAG);
+        for (long id = 1; id <= tags; id++) {
+            tagRows.add(id, tagName(id));
+        }
+        tagRows.flush();
+    }
+
+    private void insertCertificates(Random random) {
+        ZipfDistribution tagDistribution = new ZipfDistribution(tags, zipfExponent);
+        int certificateTags = Math.min(tagsPerCertificate, tags);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Batch certificateRows = new Batch(SQL_INSERT_CERTIFICATE);
+        for (long id = 1; id <= certificates; id++) {
+            certificateRows.add(id, "Certificate " + id, "Generated certificate number " + id, price(id), now, now,
+                    30 + (int) (id % 335));
+        }
+        certificateRows.flush();
+
+        Batch tagRows = new Batch(SQL_INSERT_TAG_TO_CERTIFICATE);
+        for (long id = 1; id <= certificates; id++) {
+            Set<Integer> tagIds = new HashSet<>();
+            while (tagIds.size() < certificateTags) {
+                tagIds.add(tagDistribution.sample(random));
+            }
+            for (Integer tagId : tagIds) {
+                tagRows.add(tagId, id);
+            }
+        }
+        tagRows.flush();
+    }
+
+    private void insertOrders(Random random) {
+        ZipfDistribution certificateDistribution = new ZipfDistribution(certificates, zipfExponent);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Batch orderRows = new Batch(SQL_INSERT_ORDER);
+        for (long id = 1; id <= orders; id++) {
+            long certificateId = certificateDistribution.sample(random);
+            orderRows.add(id, 1 + random.nextInt(users), certificateId, price(certificateId), now);
+        }
+        orderRows.flush();
+    }
+
+    static String username(long id) {
+        return "user" + id + "@mail.com";
+    }
+
+    static String tagName(long id) {
+        return "tag-" + id;
+    }
+
+    private BigDecimal price(long certificateId) {
+        return BigDecimal.valueOf(5 + certificateId % 200);
+    }
+
+    /**
+     * Rows of one insert statement, sent to the database in batches of <i>BATCH_SIZE</i> rows.
+     */
+    private class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        private Batch(String sql) {
+            this.sql = sql;
+        }
+
+        private void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.epam.esm.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Zipf distribution over ranks 1..<i>size</i>: the rank k is drawn with a probability proportional to
+ * 1 / k^<i>exponent</i>, so a few ranks are drawn very often and most of them rarely, as tags and
+ * certificates are used in production.
+ */
+class ZipfDistribution {
+
+    private final double[] cumulativeProbabilities;
+
+    ZipfDistribution(int size, double exponent) {
+        cumulativeProbabilities = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulativeProbabilities[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulativeProbabilities[i] /= sum;
+        }
+    }
+
+    /**
+     * Draws a rank.
+     *
+     * @param random source of randomness.
+     * @return rank from 1 to size, 1 is the most frequent.
+     */
+    int sample(Random random) {
+        int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+        int rank = index >= 0 ? index + 1 : -index;
+        return Math.min(rank, cumulativeProbabilities.length);
+    }
+}
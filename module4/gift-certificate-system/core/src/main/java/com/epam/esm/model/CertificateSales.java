@@ -0,0 +1,47 @@
+package com.epam.esm.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Number of orders and revenue of one certificate on one day.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "certificate_sales")
+@IdClass(CertificateSales.Key.class)
+public class CertificateSales implements Serializable {
+    private static final long serialVersionUID = -1L;
+
+    @Id
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Id
+    @Column(name = "certificate_id", nullable = false)
+    private Long certificateId;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "revenue", nullable = false)
+    private BigDecimal revenue;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = -1L;
+        private LocalDate salesDate;
+        private Long certificateId;
+    }
+}
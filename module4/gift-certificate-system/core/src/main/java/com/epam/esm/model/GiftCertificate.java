@@ -1,6 +1,9 @@
 package com.epam.esm.model;
 
+import com.epam.esm.search.CertificateIndexListener;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.hateoas.RepresentationModel;
 
 import javax.persistence.*;
@@ -16,6 +19,9 @@ import java.util.List;
 @NoArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(CertificateIndexListener.class)
 @Table(name = "gift_certificate")
 public class GiftCertificate extends Auditable<String>  implements Serializable {
 
@@ -36,6 +42,7 @@ public class GiftCertificate extends Auditable<String>  implements Serializable
     private ZonedDateTime lastUpdateDate;
     @Column(name = "duration")
     private int duration;
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany(cascade = CascadeType.PERSIST)
     @JoinTable(name = "tag_has_gift_certificate",
             //foreign key for Certificate in tag_has_gift_certificate table
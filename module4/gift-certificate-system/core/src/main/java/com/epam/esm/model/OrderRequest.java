@@ -0,0 +1,35 @@
+package com.epam.esm.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Order placed for an idempotency key of a user. The key is the user id and the client's key joined by ':'.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "order_request")
+public class OrderRequest implements Serializable {
+    private static final long serialVersionUID = -1L;
+
+    @Id
+    @Column(name = "request_key", nullable = false, length = 300)
+    private String requestKey;
+
+    @Column(name = "certificate_id", nullable = false)
+    private Long certificateId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+}
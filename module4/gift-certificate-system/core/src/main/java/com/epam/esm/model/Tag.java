@@ -1,6 +1,8 @@
 package com.epam.esm.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.hateoas.RepresentationModel;
 
 import javax.persistence.*;
@@ -11,6 +13,8 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "tag")
 public class Tag implements Serializable {
     private static final long serialVersionUID = -1L;
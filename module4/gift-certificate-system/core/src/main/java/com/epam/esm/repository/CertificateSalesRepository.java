@@ -0,0 +1,38 @@
+package com.epam.esm.repository;
+
+import com.epam.esm.model.CertificateSales;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface CertificateSalesRepository extends JpaRepository<CertificateSales, CertificateSales.Key> {
+    @Query(value = "SELECT s.certificateId AS id, SUM(s.orderCount) AS orderCount, SUM(s.revenue) AS revenue " +
+            "FROM CertificateSales s WHERE s.salesDate BETWEEN :from AND :to " +
+            "GROUP BY s.certificateId ORDER BY SUM(s.revenue) DESC, s.certificateId",
+            countQuery = "SELECT COUNT(DISTINCT s.certificateId) FROM CertificateSales s " +
+                    "WHERE s.salesDate BETWEEN :from AND :to")
+    Page<SalesTotal> findTotals(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+    @Query(value = "SELECT s.salesDate AS salesDate, SUM(s.orderCount) AS orderCount, SUM(s.revenue) AS revenue " +
+            "FROM CertificateSales s WHERE s.salesDate BETWEEN :from AND :to " +
+            "GROUP BY s.salesDate ORDER BY s.salesDate")
+    List<DailySalesTotal> findDailyTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    @Modifying
+    @Query(value = "INSERT INTO certificate_sales (sales_date, certificate_id, order_count, revenue) " +
+            "SELECT CAST(order_date AS DATE), certificate_id, COUNT(*), COALESCE(SUM(cost), 0) FROM orders " +
+            "WHERE certificate_id IS NOT NULL AND order_date IS NOT NULL " +
+            "GROUP BY CAST(order_date AS DATE), certificate_id", nativeQuery = true)
+    int insertFromOrders();
+    @Modifying
+    @Query(value = "INSERT INTO certificate_sales (sales_date, certificate_id, order_count, revenue) " +
+            "VALUES (:salesDate, :certificateId, :orderCount, :revenue) ON DUPLICATE KEY UPDATE " +
+            "order_count = order_count + VALUES(order_count), revenue = revenue + VALUES(revenue)", nativeQuery = true)
+    int addSales(@Param("salesDate") LocalDate salesDate, @Param("certificateId") Long certificateId,
+                 @Param("orderCount") long orderCount, @Param("revenue") BigDecimal revenue);
+}
@@ -2,12 +2,17 @@ package com.epam.esm.repository;
 
 public class CertificateSearchQuery {
 
+    private String text;
     private String tagName;
     private String partOfName;
     private String partOfDescription;
     private String sortParameter;
     private String sortOrder;
 
+    public boolean hasText() {
+        return text != null;
+    }
+
     public boolean hasTagName() {
         return tagName != null;
     }
@@ -28,6 +33,14 @@ public class CertificateSearchQuery {
         return sortOrder != null;
     }
 
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
     public String getTagName() {
         return tagName;
     }
@@ -0,0 +1,15 @@
+package com.epam.esm.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Number of orders and revenue of all certificates on one day.
+ */
+public interface DailySalesTotal {
+    LocalDate getSalesDate();
+    Long getOrderCount();
+    BigDecimal getRevenue();
+}
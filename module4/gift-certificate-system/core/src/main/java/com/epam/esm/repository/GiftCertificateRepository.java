@@ -8,21 +8,34 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface GiftCertificateRepository extends JpaRepository<GiftCertificate, Long>, JpaSpecificationExecutor<GiftCertificate> {
+public interface GiftCertificateRepository extends JpaRepository<GiftCertificate, Long>, JpaSpecificationExecutor<GiftCertificate>,
+        GiftCertificateRepositoryCustom {
 //    List<GiftCertificate> getCertificates(CertificateSearchQuery query, Long page, Long pageSize);
     @Query(value = "SELECT c FROM GiftCertificate c LEFT JOIN c.tags t WHERE t.name IN :tagNames " +
             "GROUP BY c HAVING COUNT(t.name) = :tagNamesSize")
     Page<GiftCertificate> getGiftCertificatesByTagsNames(@Param("tagNames") List<String> tagNames,
                                                          @Param("tagNamesSize") long size, Pageable pageable);
+    @Query(value = "SELECT DISTINCT c FROM GiftCertificate c JOIN c.tags t WHERE t.name IN :tagNames",
+            countQuery = "SELECT COUNT(DISTINCT c) FROM GiftCertificate c JOIN c.tags t WHERE t.name IN :tagNames")
+    Page<GiftCertificate> getGiftCertificatesByAnyTagName(@Param("tagNames") List<String> tagNames, Pageable pageable);
     Optional<GiftCertificate> getCertificateByName(String name);
+    @Query(value = "SELECT c.name FROM GiftCertificate c WHERE c.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
     Page<GiftCertificate> findAll(Specification<GiftCertificate> specification, Pageable pageable);
+    @Query(value = "SELECT t.id, c.id FROM GiftCertificate c JOIN c.tags t")
+    Stream<Object[]> streamTagAssignments();
+    @EntityGraph(attributePaths = "tags")
+    List<GiftCertificate> findWithTagsByIdIn(Collection<Long> ids);
 
 }
@@ -0,0 +1,13 @@
+package com.epam.esm.repository;
+
+import com.epam.esm.model.GiftCertificate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.function.Consumer;
+
+public interface GiftCertificateRepositoryCustom {
+    Slice<GiftCertificate> findSlice(Specification<GiftCertificate> specification, Pageable pageable);
+    void scrollAllWithTags(Consumer<GiftCertificate> action);
+}
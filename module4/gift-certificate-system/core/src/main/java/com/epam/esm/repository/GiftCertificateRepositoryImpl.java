@@ -0,0 +1,100 @@
+package com.epam.esm.repository;
+
+import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.model.Tag;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads one extra row instead of issuing a COUNT query to find out whether a next page exists.
+ * Streams the whole catalog through a single forward-only cursor.
+ */
+public class GiftCertificateRepositoryImpl implements GiftCertificateRepositoryCustom {
+
+    private static final String SELECT_ALL_WITH_TAGS = "SELECT c.id, c.name, c.description, c.price, c.createDate, " +
+            "c.lastUpdateDate, c.duration, t.id, t.name FROM GiftCertificate c LEFT JOIN c.tags t ORDER BY c.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${certificates.export.fetch-size:100}")
+    private int exportFetchSize;
+
+    @Override
+    public Slice<GiftCertificate> findSlice(Specification<GiftCertificate> specification, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<GiftCertificate> query = builder.createQuery(GiftCertificate.class);
+        Root<GiftCertificate> root = query.from(GiftCertificate.class);
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, builder));
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+
+        List<GiftCertificate> content = entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * Rows of the joined query are grouped by certificate id, so only the certificate being read is kept in memory.
+     * Certificates passed to the action are not attached to the persistence context.
+     */
+    @Override
+    public void scrollAllWithTags(Consumer<GiftCertificate> action) {
+        Query<Object[]> query = entityManager.unwrap(Session.class).createQuery(SELECT_ALL_WITH_TAGS, Object[].class);
+        query.setFetchSize(exportFetchSize);
+        query.setReadOnly(true);
+        try (ScrollableResults rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            GiftCertificate certificate = null;
+            while (rows.next()) {
+                Object[] row = rows.get();
+                if (certificate == null || !certificate.getId().equals(row[0])) {
+                    if (certificate != null) {
+                        action.accept(certificate);
+                    }
+                    certificate = GiftCertificate.builder()
+                            .id((Long) row[0])
+                            .name((String) row[1])
+                            .description((String) row[2])
+                            .price((BigDecimal) row[3])
+                            .createDate((ZonedDateTime) row[4])
+                            .lastUpdateDate((ZonedDateTime) row[5])
+                            .duration((Integer) row[6])
+                            .tags(new ArrayList<>())
+                            .build();
+                }
+                if (row[7] != null) {
+                    certificate.getTags().add(Tag.builder().id((Long) row[7]).name((String) row[8]).build());
+                }
+            }
+            if (certificate != null) {
+                action.accept(certificate);
+            }
+        }
+    }
+}
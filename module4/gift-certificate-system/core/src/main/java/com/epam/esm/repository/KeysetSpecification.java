@@ -0,0 +1,56 @@
+package com.epam.esm.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+/**
+ * Restricts a search to the rows that come after the last seen (sort key, id) pair,
+ * so a page is located by an index seek instead of skipping the preceding rows.
+ * The query must be ordered by the sort key and then by id in the same direction.
+ *
+ * @param <T> entity type
+ */
+public class KeysetSpecification<T> implements Specification<T> {
+
+    private static final long serialVersionUID = -2877415206624935527L;
+    private static final String ID = "id";
+
+    private final Specification<T> delegate;
+    private final String sortProperty;
+    private final Comparable sortKey;
+    private final Long id;
+    private final boolean descending;
+
+    public KeysetSpecification(Specification<T> delegate, String sortProperty, Comparable sortKey, Long id,
+                               boolean descending) {
+        this.delegate = delegate;
+        this.sortProperty = sortProperty;
+        this.sortKey = sortKey;
+        this.id = id;
+        this.descending = descending;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+        Expression<Long> idPath = root.get(ID);
+        Predicate seek;
+        if (ID.equals(sortProperty)) {
+            seek = descending ? builder.lessThan(idPath, id) : builder.greaterThan(idPath, id);
+        } else {
+            Expression<Comparable> keyPath = root.get(sortProperty);
+            Predicate afterKey = descending ? builder.lessThan(keyPath, sortKey) : builder.greaterThan(keyPath, sortKey);
+            Predicate afterId = descending ? builder.lessThan(idPath, id) : builder.greaterThan(idPath, id);
+            seek = builder.or(afterKey, builder.and(builder.equal(keyPath, sortKey), afterId));
+        }
+        if (delegate == null) {
+            return seek;
+        }
+        return builder.and(delegate.toPredicate(root, query, builder), seek);
+    }
+}
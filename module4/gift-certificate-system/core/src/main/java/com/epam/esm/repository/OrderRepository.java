@@ -5,10 +5,22 @@ import com.epam.esm.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByUserId(Long userId, Pageable pageable);
+    Slice<Order> findAllBy(Pageable pageable);
+    Slice<Order> findSliceByUserId(Long userId, Pageable pageable);
+    long countByUserId(Long userId);
+    Slice<Order> findByIdGreaterThan(Long id, Pageable pageable);
+    Slice<Order> findByUserIdAndIdGreaterThan(Long userId, Long id, Pageable pageable);
+    boolean existsByIdAndUserUsername(Long id, String username);
+    @Query(value = "SELECT o.user.id, c.id, COUNT(o), SUM(o.cost) FROM Order o LEFT JOIN o.giftCertificate c " +
+            "GROUP BY o.user.id, c.id")
+    Stream<Object[]> streamOrderTotals();
 }
@@ -0,0 +1,27 @@
+package com.epam.esm.repository;
+
+import com.epam.esm.model.OrderRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface OrderRequestRepository extends JpaRepository<OrderRequest, String> {
+    /**
+     * Inserts the row without reading it first, so that a concurrent request with the same key fails
+     * on the primary key.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_request (request_key, certificate_id, order_id, created_date) " +
+            "VALUES (:requestKey, :certificateId, :orderId, :createdDate)", nativeQuery = true)
+    int insert(@Param("requestKey") String requestKey, @Param("certificateId") Long certificateId,
+               @Param("orderId") Long orderId, @Param("createdDate") Instant createdDate);
+    @Modifying
+    @Query(value = "DELETE FROM OrderRequest r WHERE r.requestKey = :requestKey AND r.createdDate < :createdBefore")
+    int deleteExpired(@Param("requestKey") String requestKey, @Param("createdBefore") Instant createdBefore);
+    @Modifying
+    @Query(value = "DELETE FROM OrderRequest r WHERE r.createdDate < :createdBefore")
+    int deleteAllExpired(@Param("createdBefore") Instant createdBefore);
+}
@@ -0,0 +1,14 @@
+package com.epam.esm.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Number of orders and revenue of a certificate or a tag summed over a period.
+ */
+public interface SalesTotal {
+    Long getId();
+    Long getOrderCount();
+    BigDecimal getRevenue();
+}
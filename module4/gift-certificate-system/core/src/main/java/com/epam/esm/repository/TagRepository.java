@@ -2,13 +2,24 @@ package com.epam.esm.repository;
 
 import com.epam.esm.model.Tag;
 import com.epam.esm.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TagRepository extends JpaRepository<Tag, Long> {
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     Optional<Tag> findByName(String tagName);
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
+    List<Tag> findAllByNameIn(Collection<String> tagNames);
+    Slice<Tag> findByIdGreaterThan(Long id, Pageable pageable);
+    Slice<Tag> findAllBy(Pageable pageable);
     @Query(value = "SELECT tag.tag_id, name, COUNT(name) AS qty from orders\n" +
             "inner join users u on u.user_id = orders.user_id\n" +
             "inner join tag_has_gift_certificate on (orders.certificate_id=tag_has_gift_certificate.gift_certificate_id)\n" +
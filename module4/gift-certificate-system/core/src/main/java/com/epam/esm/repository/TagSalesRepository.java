@@ -0,0 +1,34 @@
+package com.epam.esm.repository;
+
+import com.epam.esm.model.TagSales;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface TagSalesRepository extends JpaRepository<TagSales, TagSales.Key> {
+    @Query(value = "SELECT s.tagId AS id, SUM(s.orderCount) AS orderCount, SUM(s.revenue) AS revenue " +
+            "FROM TagSales s WHERE s.salesDate BETWEEN :from AND :to " +
+            "GROUP BY s.tagId ORDER BY SUM(s.revenue) DESC, s.tagId",
+            countQuery = "SELECT COUNT(DISTINCT s.tagId) FROM TagSales s WHERE s.salesDate BETWEEN :from AND :to")
+    Page<SalesTotal> findTotals(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+    @Modifying
+    @Query(value = "INSERT INTO tag_sales (sales_date, tag_id, order_count, revenue) " +
+            "SELECT CAST(orders.order_date AS DATE), tag_has_gift_certificate.tag_id, COUNT(*), " +
+            "COALESCE(SUM(orders.cost), 0) FROM orders " +
+            "JOIN tag_has_gift_certificate ON (tag_has_gift_certificate.gift_certificate_id = orders.certificate_id) " +
+            "WHERE orders.order_date IS NOT NULL " +
+            "GROUP BY CAST(orders.order_date AS DATE), tag_has_gift_certificate.tag_id", nativeQuery = true)
+    int insertFromOrders();
+    @Modifying
+    @Query(value = "INSERT INTO tag_sales (sales_date, tag_id, order_count, revenue) " +
+            "VALUES (:salesDate, :tagId, :orderCount, :revenue) ON DUPLICATE KEY UPDATE " +
+            "order_count = order_count + VALUES(order_count), revenue = revenue + VALUES(revenue)", nativeQuery = true)
+    int addSales(@Param("salesDate") LocalDate salesDate, @Param("tagId") Long tagId,
+                 @Param("orderCount") long orderCount, @Param("revenue") BigDecimal revenue);
+}
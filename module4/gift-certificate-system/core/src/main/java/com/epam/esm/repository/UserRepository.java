@@ -1,6 +1,8 @@
 package com.epam.esm.repository;
 
 import com.epam.esm.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -14,4 +16,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findUserByLastName(String lastName);
     Optional<User> findUserByUsername(String email);
     Optional<User> findUserByUsernameAndPassword(String email, String password);
+    boolean existsByIdAndUsername(Long id, String username);
+    Slice<User> findByIdGreaterThan(Long id, Pageable pageable);
+    Slice<User> findAllBy(Pageable pageable);
 }
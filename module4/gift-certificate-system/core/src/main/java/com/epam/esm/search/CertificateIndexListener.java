@@ -0,0 +1,56 @@
+package com.epam.esm.search;
+
+import com.epam.esm.model.GiftCertificate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * Applies certificate changes to <i>CertificateSearchIndex</i> once their transaction commits,
+ * so rolled back changes never become searchable.
+ */
+public class CertificateIndexListener {
+
+    private final CertificateSearchIndex searchIndex;
+
+    @Autowired
+    public CertificateIndexListener(CertificateSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void certificateSaved(GiftCertificate certificate) {
+        GiftCertificate indexed = GiftCertificate.builder()
+                .id(certificate.getId())
+                .name(certificate.getName())
+                .description(certificate.getDescription())
+                .build();
+        afterCommit(() -> searchIndex.index(indexed));
+    }
+
+    @PostRemove
+    public void certificateRemoved(GiftCertificate certificate) {
+        Long id = certificate.getId();
+        afterCommit(() -> searchIndex.remove(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.epam.esm.search;
+
+import com.epam.esm.exception.InvalidInputDataException;
+import com.epam.esm.model.GiftCertificate;
+import com.epam.esm.repository.GiftCertificateRepository;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Sergei Kristev
+ * <p>
+ * In-memory Lucene index over certificate names and descriptions. Full-text search returns certificate ids
+ * ranked by relevance, matches in the name weigh more than matches in the description.
+ * The index is built from the primary database on application start and kept in sync by
+ * <i>CertificateIndexListener</i>, certificates missing on a lagging replica would never be indexed.
+ * Until the index is built, <i>isReady</i> returns false and the callers are expected to query the database.
+ */
+@Component
+public class CertificateSearchIndex {
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final Map<String, Float> BOOSTS = new HashMap<>();
+
+    static {
+        BOOSTS.put(NAME, 2.0f);
+        BOOSTS.put(DESCRIPTION, 1.0f);
+    }
+
+    private final GiftCertificateRepository giftCertificateRepository;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private volatile boolean ready;
+
+    @Autowired
+    public CertificateSearchIndex(@Lazy GiftCertificateRepository giftCertificateRepository) throws IOException {
+        this.giftCertificateRepository = giftCertificateRepository;
+        this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        try {
+            writer.deleteAll();
+            giftCertificateRepository.scrollAllWithTags(this::write);
+            refresh();
+            ready = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(GiftCertificate certificate) {
+        try {
+            write(certificate);
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void remove(Long id) {
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(id)));
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Finds ids of certificates containing all words of the text, the most relevant first.
+     *
+     * @param text     searched words.
+     * @param pageable page of results.
+     * @return page of certificate ids with the total number of matches.
+     * @throws InvalidInputDataException if the text is not a valid search query, e.g. it is blank.
+     */
+    public Page<Long> search(String text, Pageable pageable) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(new String[]{NAME, DESCRIPTION}, analyzer, BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            Query query = parser.parse(QueryParser.escape(text));
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int offset = Math.toIntExact(pageable.getOffset());
+                TopDocs topDocs = searcher.search(query, offset + pageable.getPageSize());
+                List<Long> ids = new ArrayList<>();
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                for (int i = offset; i < scoreDocs.length; i++) {
+                    ids.add(Long.valueOf(searcher.doc(scoreDocs[i].doc).get(ID)));
+                }
+                return new PageImpl<>(ids, pageable, searcher.count(query));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (ParseException e) {
+            throw new InvalidInputDataException(MessageFormat.format("Invalid search text: {0}", text), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    private void write(GiftCertificate certificate) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(certificate.getId()), Field.Store.YES));
+        document.add(new TextField(NAME, String.valueOf(certificate.getName()), Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, String.valueOf(certificate.getDescription()), Field.Store.NO));
+        try {
+            writer.updateDocument(new Term(ID, String.valueOf(certificate.getId())), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+}